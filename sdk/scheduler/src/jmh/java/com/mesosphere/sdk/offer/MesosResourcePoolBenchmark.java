@@ -0,0 +1,87 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building a {@link MesosResourcePool} from an offer and consuming the resources of a typical
+ * task from it, which happens once per task per evaluated offer. Run with the GC profiler to compare allocation rates:
+ *
+ * ./gradlew :scheduler:jmh -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MesosResourcePoolBenchmark {
+
+    private Offer offer;
+    private List<ResourceRequirement> resourceRequirements;
+    private List<DynamicPortRequirement> dynamicPortRequirements;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        // Fragmented port ranges, as seen on agents with many running tasks:
+        List<Resource> resources = new ArrayList<>();
+        resources.add(ResourceTestUtils.getUnreservedCpu(8.0));
+        resources.add(ResourceTestUtils.getUnreservedMem(16384));
+        resources.add(ResourceTestUtils.getUnreservedDisk(102400));
+        for (int i = 0; i < 20; ++i) {
+            resources.add(ResourceTestUtils.getUnreservedPorts(10000 + i * 100, 10000 + i * 100 + 49));
+        }
+        offer = OfferTestUtils.getOffer(resources);
+
+        resourceRequirements = new ArrayList<>();
+        resourceRequirements.add(new ResourceRequirement(ResourceTestUtils.getDesiredCpu(1.0)));
+        resourceRequirements.add(new ResourceRequirement(ResourceTestUtils.getDesiredMem(1024)));
+        resourceRequirements.add(new ResourceRequirement(ResourceTestUtils.getDesiredScalar("disk", 5000)));
+        resourceRequirements.add(new ResourceRequirement(ResourceTestUtils.getDesiredRanges("ports", 10510, 10520)));
+
+        dynamicPortRequirements = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            dynamicPortRequirements.add(new DynamicPortRequirement(DynamicPortRequirement.getDesiredDynamicPort(
+                    "port" + i, TestConstants.ROLE, TestConstants.PRINCIPAL)));
+        }
+    }
+
+    @Benchmark
+    public void consume(Blackhole blackhole) {
+        MesosResourcePool pool = new MesosResourcePool(offer);
+        for (ResourceRequirement resourceRequirement : resourceRequirements) {
+            blackhole.consume(pool.consume(resourceRequirement));
+        }
+        for (DynamicPortRequirement dynamicPortRequirement : dynamicPortRequirements) {
+            blackhole.consume(pool.consume(dynamicPortRequirement));
+        }
+    }
+
+    @Benchmark
+    public Offer consumeAndGetRemainingOffer() {
+        MesosResourcePool pool = new MesosResourcePool(offer);
+        for (ResourceRequirement resourceRequirement : resourceRequirements) {
+            pool.consume(resourceRequirement);
+        }
+        return pool.getRemainingOffer();
+    }
+}
@@ -0,0 +1,117 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.offer.score.BinPackingScorer;
+import com.mesosphere.sdk.offer.score.OfferScorer;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares sequential and parallel {@link OfferEvaluator} evaluation of a multi-task pod against a large number of
+ * offers, most of which only fit part of the pod.
+ *
+ * Run with: ./gradlew :scheduler:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OfferEvaluatorBenchmark {
+
+    private static final int TASKS_PER_POD = 3;
+
+    @Param({"500"})
+    public int offerCount;
+
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    public String evaluation;
+
+    @Param({"NONE", "BIN_PACKING"})
+    public String scoring;
+
+    private ForkJoinPool forkJoinPool;
+    private OfferEvaluator evaluator;
+    private OfferRequirement offerRequirement;
+    private List<Offer> offers;
+
+    @Setup(Level.Trial)
+    public void setup() throws InvalidRequirementException {
+        StateStore stateStore = mock(StateStore.class);
+        Optional<OfferScorer> offerScorer =
+                scoring.equals("BIN_PACKING") ? Optional.of(new BinPackingScorer()) : Optional.empty();
+        if (evaluation.equals("PARALLEL")) {
+            forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            evaluator = new OfferEvaluator(stateStore, forkJoinPool, offerScorer);
+        } else if (offerScorer.isPresent()) {
+            evaluator = new OfferEvaluator(stateStore, offerScorer.get());
+        } else {
+            evaluator = new OfferEvaluator(stateStore);
+        }
+
+        List<TaskInfo> taskInfos = new ArrayList<>();
+        for (int i = 0; i < TASKS_PER_POD; ++i) {
+            taskInfos.add(TaskTestUtils.getTaskInfo(Arrays.asList(
+                    ResourceTestUtils.getDesiredCpu(1.0),
+                    ResourceTestUtils.getDesiredMem(256)))
+                    .toBuilder()
+                    .setName(TestConstants.TASK_NAME + "-" + i)
+                    .setTaskId(CommonTaskUtils.toTaskId(TestConstants.TASK_NAME + "-" + i))
+                    .build());
+        }
+        offerRequirement = OfferRequirement.create(TestConstants.TASK_TYPE, 0, taskInfos);
+
+        // Only the last few offers can fit the whole pod, the rest run out of CPU on the final task:
+        offers = new ArrayList<>();
+        for (int i = 0; i < offerCount; ++i) {
+            double cpus = (i >= offerCount - 5) ? TASKS_PER_POD + i % 3 : TASKS_PER_POD - 1;
+            offers.add(OfferTestUtils.getOffer(Arrays.asList(
+                    ResourceTestUtils.getUnreservedCpu(cpus),
+                    ResourceTestUtils.getUnreservedMem(4096),
+                    ResourceTestUtils.getUnreservedPorts(10000, 20000)))
+                    .toBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<OfferRecommendation> evaluate() {
+        return evaluator.evaluate(offerRequirement, offers);
+    }
+}
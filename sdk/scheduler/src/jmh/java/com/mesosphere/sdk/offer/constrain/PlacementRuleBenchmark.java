@@ -0,0 +1,185 @@
+package com.mesosphere.sdk.offer.constrain;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Attribute;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.SlaveID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each {@link PlacementRule} filtering every offer of a large cluster for a single task, with many tasks
+ * already deployed across the cluster. This matches a single {@code OfferEvaluator.evaluate()} call, which shares one
+ * {@link PlacementContext} across all offers.
+ *
+ * Run with: ./gradlew :scheduler:jmh -Pjmh.include=PlacementRuleBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PlacementRuleBenchmark {
+
+    private static final int RACK_COUNT = 20;
+    private static final int ZONE_COUNT = 3;
+    private static final String OTHER_TASK_TYPE = "other";
+
+    @Param({"1000"})
+    public int agentCount;
+
+    @Param({"10000"})
+    public int taskCount;
+
+    @Param({
+            "PASSTHROUGH",
+            "AGENT",
+            "HOSTNAME",
+            "ATTRIBUTE",
+            "MAX_PER_HOSTNAME",
+            "MAX_PER_ATTRIBUTE",
+            "ROUND_ROBIN_BY_HOSTNAME",
+            "ROUND_ROBIN_BY_ATTRIBUTE",
+            "TASK_TYPE_AVOID",
+            "TASK_TYPE_COLOCATE",
+            "AND",
+            "OR",
+            "NOT"})
+    public String rule;
+
+    private PlacementRule placementRule;
+    private OfferRequirement offerRequirement;
+    private List<Offer> offers;
+    private List<TaskInfo> tasks;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        offers = new ArrayList<>();
+        for (int i = 0; i < agentCount; ++i) {
+            offers.add(OfferTestUtils.getOffer(Arrays.asList(
+                    ResourceTestUtils.getUnreservedCpu(8.0),
+                    ResourceTestUtils.getUnreservedMem(16384)))
+                    .toBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .setSlaveId(getAgentId(i))
+                    .setHostname(getHostname(i))
+                    .addAttributes(getAttribute("rack", "rack-" + (i % RACK_COUNT)))
+                    .addAttributes(getAttribute("zone", "zone-" + (i % ZONE_COUNT)))
+                    .build());
+        }
+
+        // Deployed tasks are spread across the agents, alternating between two task types:
+        tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; ++i) {
+            Offer launchOffer = offers.get(i % agentCount);
+            String type = (i % 2 == 0) ? TestConstants.TASK_TYPE : OTHER_TASK_TYPE;
+            TaskInfo.Builder taskBuilder = TaskTestUtils.getTaskInfo(ResourceTestUtils.getExpectedCpu(1.0))
+                    .toBuilder()
+                    .setName(type + "-" + i + "-server")
+                    .setTaskId(CommonTaskUtils.toTaskId(type + "-" + i + "-server"))
+                    .setSlaveId(launchOffer.getSlaveId());
+            CommonTaskUtils.setType(taskBuilder, type);
+            CommonTaskUtils.setIndex(taskBuilder, i);
+            CommonTaskUtils.setHostname(taskBuilder, launchOffer);
+            CommonTaskUtils.setOfferAttributes(taskBuilder, launchOffer);
+            tasks.add(taskBuilder.build());
+        }
+
+        TaskInfo.Builder newTaskBuilder = TaskTestUtils.getTaskInfo(ResourceTestUtils.getDesiredCpu(1.0))
+                .toBuilder()
+                .setName(TestConstants.TASK_TYPE + "-" + taskCount + "-server")
+                .setTaskId(CommonTaskUtils.toTaskId(TestConstants.TASK_TYPE + "-" + taskCount + "-server"));
+        CommonTaskUtils.setIndex(newTaskBuilder, taskCount);
+        offerRequirement = OfferRequirement.create(
+                TestConstants.TASK_TYPE, taskCount, Arrays.asList(newTaskBuilder.build()));
+
+        placementRule = getPlacementRule(rule);
+    }
+
+    @Benchmark
+    public void filter(Blackhole blackhole) {
+        PlacementContext context = new PlacementContext(offerRequirement, tasks);
+        for (Offer offer : offers) {
+            blackhole.consume(placementRule.filter(offer, context));
+        }
+    }
+
+    private PlacementRule getPlacementRule(String name) {
+        switch (name) {
+            case "PASSTHROUGH":
+                return new PassthroughRule();
+            case "AGENT":
+                return AgentRule.avoid(getAgentId(0).getValue(), getAgentId(1).getValue());
+            case "HOSTNAME":
+                return HostnameRule.avoidExact(getHostname(0), getHostname(1));
+            case "ATTRIBUTE":
+                return AttributeRule.require(ExactMatcher.createAttribute("zone", "zone-1"));
+            case "MAX_PER_HOSTNAME":
+                return new MaxPerHostnameRule(taskCount / agentCount);
+            case "MAX_PER_ATTRIBUTE":
+                return new MaxPerAttributeRule(taskCount / RACK_COUNT, RegexMatcher.createAttribute("rack", ".*"));
+            case "ROUND_ROBIN_BY_HOSTNAME":
+                return new RoundRobinByHostnameRule(Optional.of(agentCount));
+            case "ROUND_ROBIN_BY_ATTRIBUTE":
+                return new RoundRobinByAttributeRule("rack", Optional.of(RACK_COUNT));
+            case "TASK_TYPE_AVOID":
+                return TaskTypeRule.avoid(OTHER_TASK_TYPE);
+            case "TASK_TYPE_COLOCATE":
+                return TaskTypeRule.colocateWith(OTHER_TASK_TYPE);
+            case "AND":
+                return new AndRule(
+                        new MaxPerHostnameRule(taskCount / agentCount),
+                        AttributeRule.require(ExactMatcher.createAttribute("zone", "zone-1")));
+            case "OR":
+                return new OrRule(
+                        HostnameRule.requireExact(getHostname(0)),
+                        AttributeRule.require(ExactMatcher.createAttribute("zone", "zone-1")));
+            case "NOT":
+                return new NotRule(HostnameRule.requireExact(getHostname(0), getHostname(1)));
+            default:
+                throw new IllegalArgumentException("Unknown rule: " + name);
+        }
+    }
+
+    private static SlaveID getAgentId(int index) {
+        return SlaveID.newBuilder().setValue("agent-" + index).build();
+    }
+
+    private static String getHostname(int index) {
+        return "host-" + index;
+    }
+
+    private static Attribute getAttribute(String name, String value) {
+        return Attribute.newBuilder()
+                .setName(name)
+                .setType(Value.Type.TEXT)
+                .setText(Value.Text.newBuilder().setValue(value))
+                .build();
+    }
+}
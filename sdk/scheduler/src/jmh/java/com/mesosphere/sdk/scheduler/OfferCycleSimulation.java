@@ -0,0 +1,321 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.config.ConfigStore;
+import com.mesosphere.sdk.config.ConfigurationUpdater;
+import com.mesosphere.sdk.offer.OfferRequirementProvider;
+import com.mesosphere.sdk.scheduler.plan.DefaultPhaseFactory;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlanFactory;
+import com.mesosphere.sdk.scheduler.plan.DefaultStepFactory;
+import com.mesosphere.sdk.scheduler.plan.Phase;
+import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.TestPodFactory;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreCache;
+import com.mesosphere.sdk.testing.QueuedSchedulerDriver;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.TaskInfo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link DefaultScheduler} through the deployment of a large service, using a {@link QueuedSchedulerDriver}
+ * in place of Mesos and a local ZooKeeper {@link TestingServer} for storage. Each round offers every synthetic agent
+ * which has capacity left, then reports every launched task as running, until the deploy plan is complete.
+ *
+ * Reports the total deploy time along with latency percentiles for:
+ * <ul>
+ * <li>offer cycles: from the {@code resourceOffers()} callback until the scheduler has finished processing the offers
+ * </li>
+ * <li>callbacks: time spent within {@code resourceOffers()} and {@code statusUpdate()}, during which the driver is
+ * blocked</li>
+ * </ul>
+ *
+ * Run with: ./gradlew :scheduler:simulateOfferCycles -Pagents=1000 -Ptasks=10000
+ */
+public class OfferCycleSimulation {
+
+    private static final double AGENT_CPUS = 16.0;
+    private static final double AGENT_MEM = 65536.0;
+    private static final double AGENT_DISK = 102400.0;
+
+    private static final double TASK_CPUS = 1.0;
+    private static final double TASK_MEM = 1024.0;
+    private static final double TASK_DISK = 1024.0;
+
+    private static final int MAX_ROUNDS = 10000;
+
+    private final int agentCount;
+    private final int taskCount;
+    private final Agent[] agents;
+    private final List<Long> offerCycleNanos = new ArrayList<>();
+    private final List<Long> callbackNanos = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int agentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int taskCount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        if (System.getenv("EXECUTOR_URI") == null || System.getenv("LIBMESOS_URI") == null) {
+            throw new IllegalStateException(
+                    "EXECUTOR_URI and LIBMESOS_URI must be set, as they're required for building executors");
+        }
+        new OfferCycleSimulation(agentCount, taskCount).run();
+    }
+
+    private OfferCycleSimulation(int agentCount, int taskCount) {
+        this.agentCount = agentCount;
+        this.taskCount = taskCount;
+        this.agents = new Agent[agentCount];
+        for (int i = 0; i < agentCount; ++i) {
+            agents[i] = new Agent(i);
+        }
+    }
+
+    private void run() throws Exception {
+        try (TestingServer testingServer = new TestingServer()) {
+            PodSpec podSpec = TestPodFactory.getPodSpec(
+                    "node",
+                    TestConstants.RESOURCE_SET_ID,
+                    "server",
+                    "echo server",
+                    taskCount,
+                    TASK_CPUS,
+                    TASK_MEM,
+                    TASK_DISK);
+            ServiceSpec serviceSpec = DefaultServiceSpec.newBuilder()
+                    .name("simulation")
+                    .role(TestConstants.ROLE)
+                    .principal(TestConstants.PRINCIPAL)
+                    .apiPort(0)
+                    .zookeeperConnection(testingServer.getConnectString())
+                    .pods(Arrays.asList(podSpec))
+                    .build();
+
+            StateStoreCache.resetInstanceForTests();
+            StateStore stateStore = DefaultScheduler.createStateStore(serviceSpec, testingServer.getConnectString());
+            ConfigStore<ServiceSpec> configStore = DefaultScheduler.createConfigStore(
+                    serviceSpec, testingServer.getConnectString(), Collections.emptyList());
+            ConfigurationUpdater.UpdateResult updateResult =
+                    DefaultScheduler.updateConfig(serviceSpec, stateStore, configStore);
+            OfferRequirementProvider offerRequirementProvider =
+                    DefaultScheduler.createOfferRequirementProvider(stateStore, updateResult.targetId);
+
+            // Deploy all pods in parallel, so that each round can launch as many tasks as there is room for:
+            Phase phase = new DefaultPhaseFactory(new DefaultStepFactory(
+                    configStore, stateStore, offerRequirementProvider))
+                    .getPhase(podSpec, new ParallelStrategy<>());
+            Plan deployPlan = DefaultPlanFactory.getPlan("deploy", Arrays.asList(phase), new SerialStrategy<>());
+
+            SimulatedScheduler scheduler = new SimulatedScheduler(
+                    serviceSpec, Arrays.asList(deployPlan), stateStore, configStore, offerRequirementProvider);
+            QueuedSchedulerDriver driver = new QueuedSchedulerDriver();
+            driver.start();
+            scheduler.registered(driver, TestConstants.FRAMEWORK_ID, TestConstants.MASTER_INFO);
+
+            long startNanos = System.nanoTime();
+            int rounds = 0;
+            int launchedCount = 0;
+            while (!scheduler.deploymentPlanManager.getPlan().isComplete() && rounds < MAX_ROUNDS) {
+                ++rounds;
+                List<Offer> offers = getOffers(rounds);
+                if (offers.isEmpty()) {
+                    System.out.println("Agents have run out of capacity, stopping");
+                    break;
+                }
+
+                long cycleStartNanos = System.nanoTime();
+                scheduler.resourceOffers(driver, offers);
+                callbackNanos.add(System.nanoTime() - cycleStartNanos);
+                awaitPipeline(scheduler);
+                offerCycleNanos.add(System.nanoTime() - cycleStartNanos);
+
+                List<Protos.TaskStatus> runningStatuses = new ArrayList<>();
+                for (QueuedSchedulerDriver.OfferOperations offerOperations : driver.drainAccepted()) {
+                    for (Offer.Operation operation : offerOperations.getOperations()) {
+                        if (operation.getType() != Offer.Operation.Type.LAUNCH) {
+                            continue;
+                        }
+                        for (TaskInfo taskInfo : operation.getLaunch().getTaskInfosList()) {
+                            agents[getAgentIndex(taskInfo.getSlaveId())].launch(taskInfo);
+                            runningStatuses.add(Protos.TaskStatus.newBuilder()
+                                    .setTaskId(taskInfo.getTaskId())
+                                    .setSlaveId(taskInfo.getSlaveId())
+                                    .setState(Protos.TaskState.TASK_RUNNING)
+                                    .build());
+                        }
+                    }
+                }
+                driver.drainDeclined();
+                launchedCount += runningStatuses.size();
+
+                for (Protos.TaskStatus status : runningStatuses) {
+                    long callbackStartNanos = System.nanoTime();
+                    scheduler.statusUpdate(driver, status);
+                    callbackNanos.add(System.nanoTime() - callbackStartNanos);
+                }
+                awaitPipeline(scheduler);
+            }
+            long deployNanos = System.nanoTime() - startNanos;
+
+            System.out.println(String.format(
+                    "Deployed %d/%d tasks across %d agents in %d rounds: deploy plan %s after %d ms",
+                    launchedCount,
+                    taskCount,
+                    agentCount,
+                    rounds,
+                    scheduler.deploymentPlanManager.getPlan().getStatus(),
+                    TimeUnit.NANOSECONDS.toMillis(deployNanos)));
+            System.out.println("Offer cycle latency: " + getPercentiles(offerCycleNanos));
+            System.out.println("Callback latency:    " + getPercentiles(callbackNanos));
+
+            scheduler.awaitTermination();
+        }
+    }
+
+    /**
+     * Returns a fresh offer for each agent which has room for at least one more task.
+     */
+    private List<Offer> getOffers(int round) {
+        List<Offer> offers = new ArrayList<>();
+        for (Agent agent : agents) {
+            if (agent.hasCapacity()) {
+                offers.add(agent.getOffer(round));
+            }
+        }
+        return offers;
+    }
+
+    /**
+     * Waits until all work queued so far has passed through both of the scheduler's pipeline stages.
+     */
+    private static void awaitPipeline(DefaultScheduler scheduler) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.ingestStage.put(() -> {
+            try {
+                scheduler.planStage.put(latch::countDown);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        latch.await();
+    }
+
+    private static int getAgentIndex(Protos.SlaveID agentId) {
+        return Integer.parseInt(agentId.getValue().substring("agent-".length()));
+    }
+
+    private static String getPercentiles(List<Long> nanos) {
+        if (nanos.isEmpty()) {
+            return "no samples";
+        }
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        return String.format("p50=%.3fms p99=%.3fms max=%.3fms (%d samples)",
+                getPercentile(sorted, 0.50) / 1e6,
+                getPercentile(sorted, 0.99) / 1e6,
+                sorted.get(sorted.size() - 1) / 1e6,
+                sorted.size());
+    }
+
+    private static long getPercentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    /**
+     * A synthetic agent, which tracks its unreserved resources as tasks are launched on it.
+     */
+    private static class Agent {
+        private final int index;
+        private double cpus = AGENT_CPUS;
+        private double mem = AGENT_MEM;
+        private double disk = AGENT_DISK;
+
+        private Agent(int index) {
+            this.index = index;
+        }
+
+        private boolean hasCapacity() {
+            return cpus >= TASK_CPUS && mem >= TASK_MEM && disk >= TASK_DISK;
+        }
+
+        private Offer getOffer(int round) {
+            return Offer.newBuilder()
+                    .setId(Protos.OfferID.newBuilder().setValue(String.format("offer-%d-%d", round, index)))
+                    .setFrameworkId(TestConstants.FRAMEWORK_ID)
+                    .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent-" + index))
+                    .setHostname("host-" + index)
+                    .addResources(ResourceTestUtils.getUnreservedCpu(cpus))
+                    .addResources(ResourceTestUtils.getUnreservedMem(mem))
+                    .addResources(ResourceTestUtils.getUnreservedDisk(disk))
+                    .build();
+        }
+
+        private void launch(TaskInfo taskInfo) {
+            for (Resource resource : taskInfo.getResourcesList()) {
+                switch (resource.getName()) {
+                    case "cpus":
+                        cpus -= resource.getScalar().getValue();
+                        break;
+                    case "mem":
+                        mem -= resource.getScalar().getValue();
+                        break;
+                    case "disk":
+                        disk -= resource.getScalar().getValue();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * A {@link DefaultScheduler} which declines unused offers immediately, as every round sends fresh offers for all
+     * agents, and which packs several pods into each offer.
+     */
+    private static class SimulatedScheduler extends DefaultScheduler {
+        private SimulatedScheduler(
+                ServiceSpec serviceSpec,
+                Collection<Plan> plans,
+                StateStore stateStore,
+                ConfigStore<ServiceSpec> configStore,
+                OfferRequirementProvider offerRequirementProvider) {
+            super(
+                    serviceSpec,
+                    plans,
+                    stateStore,
+                    configStore,
+                    offerRequirementProvider,
+                    defaultConfigValidators(),
+                    Optional.empty(),
+                    0);
+        }
+
+        @Override
+        protected Duration getOfferHoldDuration() {
+            return Duration.ZERO;
+        }
+
+        @Override
+        protected boolean isOfferPackingEnabled() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link PlanUtils} queries which are made against a large deploy plan on every offer cycle and every
+ * plan status request, with the plan part way through its deployment.
+ *
+ * Run with: ./gradlew :scheduler:jmh -Pjmh.include=PlanUtilsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PlanUtilsBenchmark {
+
+    @Param({"10"})
+    public int phaseCount;
+
+    @Param({"100", "1000"})
+    public int stepsPerPhase;
+
+    private Plan plan;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // The first half of the phases are complete, and the first phase after those is in progress:
+        List<Phase> phases = new ArrayList<>();
+        for (int i = 0; i < phaseCount; ++i) {
+            List<Step> steps = new ArrayList<>();
+            for (int j = 0; j < stepsPerPhase; ++j) {
+                Status status;
+                if (i < phaseCount / 2) {
+                    status = Status.COMPLETE;
+                } else if (i == phaseCount / 2 && j < stepsPerPhase / 2) {
+                    status = (j % 10 == 0) ? Status.IN_PROGRESS : Status.COMPLETE;
+                } else {
+                    status = Status.PENDING;
+                }
+                steps.add(new DefaultStep(
+                        "pod-" + i + "-" + j, Optional.empty(), status, null, Collections.emptyList()));
+            }
+            phases.add(new DefaultPhase("phase-" + i, steps, new ParallelStrategy<>(), Collections.emptyList()));
+        }
+        plan = new DefaultPlan("deploy", phases, new SerialStrategy<>());
+    }
+
+    @Benchmark
+    public Status getStatus() {
+        return PlanUtils.getStatus(plan);
+    }
+
+    @Benchmark
+    public Collection<? extends Step> getCandidates() {
+        return PlanUtils.getCandidates(plan, Collections.emptyList());
+    }
+
+    @Benchmark
+    public Set<String> getDirtyAssets() {
+        return PlanUtils.getDirtyAssets(plan);
+    }
+}
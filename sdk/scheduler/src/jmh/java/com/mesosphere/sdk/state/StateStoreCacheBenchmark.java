@@ -0,0 +1,111 @@
+package com.mesosphere.sdk.state;
+
+import com.mesosphere.sdk.curator.CuratorStateStore;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StateStoreCache} reads, which are served from memory, and writes, which go through to a
+ * {@link CuratorStateStore} backed by a local ZooKeeper {@link TestingServer}.
+ *
+ * Run with: ./gradlew :scheduler:jmh -Pjmh.include=StateStoreCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StateStoreCacheBenchmark {
+
+    @Param({"1000", "10000"})
+    public int taskCount;
+
+    private TestingServer testingServer;
+    private StateStoreCache cache;
+    private List<String> taskNames;
+    private List<TaskStatus> statuses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        testingServer = new TestingServer();
+        CuratorStateStore store = new CuratorStateStore("benchmark", testingServer.getConnectString());
+
+        List<TaskInfo> tasks = new ArrayList<>();
+        taskNames = new ArrayList<>();
+        statuses = new ArrayList<>();
+        for (int i = 0; i < taskCount; ++i) {
+            String taskName = "node-" + i + "-server";
+            TaskInfo task = TaskTestUtils.getTaskInfo(ResourceTestUtils.getExpectedCpu(1.0)).toBuilder()
+                    .setName(taskName)
+                    .setTaskId(CommonTaskUtils.toTaskId(taskName))
+                    .build();
+            tasks.add(task);
+            taskNames.add(taskName);
+            statuses.add(TaskStatus.newBuilder()
+                    .setTaskId(task.getTaskId())
+                    .setState(TaskState.TASK_RUNNING)
+                    .build());
+        }
+        store.storeTasks(tasks);
+        store.storeStatuses(statuses);
+
+        cache = new StateStoreCache(store);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        testingServer.close();
+    }
+
+    @Benchmark
+    public Collection<TaskInfo> fetchTasks() {
+        return cache.fetchTasks();
+    }
+
+    @Benchmark
+    public Collection<TaskStatus> fetchStatuses() {
+        return cache.fetchStatuses();
+    }
+
+    @Benchmark
+    public Optional<TaskStatus> fetchStatus() {
+        next = (next + 1) % taskNames.size();
+        return cache.fetchStatus(taskNames.get(next));
+    }
+
+    @Benchmark
+    public void storeStatus() {
+        cache.storeStatus(nextStatus());
+    }
+
+    private TaskStatus nextStatus() {
+        next = (next + 1) % statuses.size();
+        return statuses.get(next);
+    }
+}
@@ -0,0 +1,117 @@
+package com.mesosphere.sdk.api;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-only API for the scheduler's metrics. Rates are per second, and timer durations are in milliseconds.
+ */
+@Path("/v1/metrics")
+public class MetricsResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsResource.class);
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MetricRegistry registry;
+
+    public MetricsResource(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Produces the current value of all metrics, grouped by metric type.
+     */
+    @GET
+    public Response getMetrics() {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("counters", getCounters());
+            json.put("gauges", getGauges());
+            json.put("histograms", getHistograms());
+            json.put("meters", getMeters());
+            json.put("timers", getTimers());
+            return Response.ok(json.toString(), MediaType.APPLICATION_JSON).build();
+        } catch (Exception ex) {
+            logger.error("Failed to fetch metrics", ex);
+            return Response.serverError().build();
+        }
+    }
+
+    private JSONObject getCounters() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            json.put(entry.getKey(), entry.getValue().getCount());
+        }
+        return json;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private JSONObject getGauges() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            json.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return json;
+    }
+
+    private JSONObject getHistograms() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            Snapshot snapshot = entry.getValue().getSnapshot();
+            json.put(entry.getKey(), new JSONObject()
+                    .put("count", entry.getValue().getCount())
+                    .put("mean", snapshot.getMean())
+                    .put("p50", snapshot.getMedian())
+                    .put("p99", snapshot.get99thPercentile())
+                    .put("max", snapshot.getMax()));
+        }
+        return json;
+    }
+
+    private JSONObject getMeters() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+            json.put(entry.getKey(), getRates(entry.getValue()));
+        }
+        return json;
+    }
+
+    private JSONObject getTimers() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            Snapshot snapshot = entry.getValue().getSnapshot();
+            json.put(entry.getKey(), getRates(entry.getValue())
+                    .put("mean_ms", snapshot.getMean() / NANOS_PER_MILLI)
+                    .put("p50_ms", snapshot.getMedian() / NANOS_PER_MILLI)
+                    .put("p99_ms", snapshot.get99thPercentile() / NANOS_PER_MILLI)
+                    .put("max_ms", snapshot.getMax() / NANOS_PER_MILLI));
+        }
+        return json;
+    }
+
+    private static JSONObject getRates(Metered metered) {
+        return new JSONObject()
+                .put("count", metered.getCount())
+                .put("mean_rate", metered.getMeanRate())
+                .put("m1_rate", metered.getOneMinuteRate())
+                .put("m5_rate", metered.getFiveMinuteRate())
+                .put("m15_rate", metered.getFifteenMinuteRate());
+    }
+}
@@ -14,6 +14,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -27,6 +29,9 @@ import java.util.UUID;
  *         -> [Config-ID-1] (contains serialized config)
  *         -> ...
  *
+ * Stored configurations are immutable, so recently fetched configurations are cached in their parsed form, along with
+ * the target configuration ID. This assumes that this store is the only writer to its ZK path.
+ *
  * @param <T> The {@code Configuration} object to be serialized and deserialized in the
  *            implementation of this interface
  */
@@ -43,11 +48,30 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
     private static final String TARGET_PATH_NAME = "ConfigTarget";
     private static final String CONFIGURATIONS_PATH_NAME = "Configurations";
 
+    /**
+     * The maximum number of parsed configurations to keep in memory.
+     */
+    private static final int MAX_CACHED_CONFIGS = 32;
+
     private final ConfigurationFactory<T> factory;
     private final CuratorPersister curator;
     private final String configurationsPath;
     private final String targetPath;
 
+    private final Map<UUID, T> configCache = new LinkedHashMap<UUID, T>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, T> eldest) {
+            return size() > MAX_CACHED_CONFIGS;
+        }
+    };
+    // Incremented whenever a configuration is cleared, so that fetches which raced with the clear don't re-cache it.
+    // Guarded by configCache.
+    private long clearGeneration = 0;
+
+    // Guards reads and writes of the target ID in ZK, so that a read of an old target can't overwrite a newer one:
+    private final Object targetLock = new Object();
+    private volatile UUID targetId;
+
     /**
      * Creates a new {@link ConfigStore} which uses Curator with a default {@link RetryPolicy} and
      * connection string.
@@ -117,9 +141,24 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
 
     @Override
     public T fetch(UUID id) throws ConfigStoreException {
+        long generation;
+        synchronized (configCache) {
+            T config = configCache.get(id);
+            if (config != null) {
+                return config;
+            }
+            generation = clearGeneration;
+        }
         String path = getConfigPath(id);
         try {
-            return factory.parse(curator.get(path));
+            T config = factory.parse(curator.get(path));
+            synchronized (configCache) {
+                // Only cache the result if nothing was cleared while we were reading it, as it may be stale.
+                if (generation == clearGeneration) {
+                    configCache.put(id, config);
+                }
+            }
+            return config;
         } catch (Exception e) {
             throw new ConfigStoreException(String.format(
                     "Failed to retrieve or deserialize configuration '%s' from path '%s'",
@@ -141,6 +180,12 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
         } catch (Exception e) {
             throw new ConfigStoreException(String.format(
                     "Failed to delete configuration '%s' at path '%s'", id, path), e);
+        } finally {
+            // Invalidate after the delete, so that any fetch which read the config beforehand won't re-cache it:
+            synchronized (configCache) {
+                configCache.remove(id);
+                ++clearGeneration;
+            }
         }
     }
 
@@ -166,23 +211,41 @@ public class CuratorConfigStore<T extends Configuration> implements ConfigStore<
 
     @Override
     public void setTargetConfig(UUID id) throws ConfigStoreException {
-        try {
-            curator.set(targetPath, CuratorUtils.serialize(id));
-        } catch (Exception e) {
-            throw new ConfigStoreException(String.format(
-                    "Failed to assign current target configuration to '%s' at path '%s'",
-                    id, targetPath), e);
+        synchronized (targetLock) {
+            // Invalidate first: if the write fails then the target is unknown until it's next read.
+            targetId = null;
+            try {
+                curator.set(targetPath, CuratorUtils.serialize(id));
+                targetId = id;
+            } catch (Exception e) {
+                throw new ConfigStoreException(String.format(
+                        "Failed to assign current target configuration to '%s' at path '%s'",
+                        id, targetPath), e);
+            }
         }
     }
 
     @Override
     public UUID getTargetConfig() throws ConfigStoreException {
-        try {
-            return UUID.fromString(CuratorUtils.deserialize(curator.get(targetPath)));
-        } catch (Exception e) {
-            throw new ConfigStoreException(String.format(
-                    "Failed to retrieve current target configuration from path '%s'",
-                    targetPath), e);
+        UUID id = targetId;
+        if (id != null) {
+            return id;
+        }
+        synchronized (targetLock) {
+            // Check again: the target may have been read or set while we were waiting for the lock.
+            id = targetId;
+            if (id != null) {
+                return id;
+            }
+            try {
+                id = UUID.fromString(CuratorUtils.deserialize(curator.get(targetPath)));
+                targetId = id;
+                return id;
+            } catch (Exception e) {
+                throw new ConfigStoreException(String.format(
+                        "Failed to retrieve current target configuration from path '%s'",
+                        targetPath), e);
+            }
         }
     }
 
@@ -1,21 +1,31 @@
 package com.mesosphere.sdk.curator;
 
+import com.codahale.metrics.Timer;
+import com.mesosphere.sdk.metrics.Metrics;
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.api.BackgroundCallback;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import com.mesosphere.sdk.storage.Persister;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The CuratorPersistor implementation of the {@link Persister} interface
@@ -31,8 +41,27 @@ public class CuratorPersister implements Persister {
      */
     private static final int ATOMIC_WRITE_ATTEMPTS = 3;
 
+    /**
+     * How long to wait for a batch of existence checks in setMany(). Curator retries each check according to the
+     * client's retry policy, so this is only a backstop against a callback which never arrives.
+     */
+    private static final long EXISTS_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Timer SET_MANY_TIMER = Metrics.getPersisterTimer("set_many");
+    private static final Timer SET_TIMER = Metrics.getPersisterTimer("set");
+    private static final Timer GET_TIMER = Metrics.getPersisterTimer("get");
+    private static final Timer DELETE_TIMER = Metrics.getPersisterTimer("delete");
+    private static final Timer GET_CHILDREN_TIMER = Metrics.getPersisterTimer("get_children");
+
     private final CuratorFramework client;
 
+    /**
+     * Parent nodes which are known to exist, e.g. "/Tasks", so that setMany() needn't check them again. Entries are
+     * removed when they're deleted via this persister, and all entries are dropped if a transaction fails in case a
+     * node was deleted out-of-band.
+     */
+    private final Set<String> knownParentPaths = ConcurrentHashMap.newKeySet();
+
     public CuratorPersister(String connectionString, RetryPolicy retryPolicy) {
         this(createClient(connectionString, retryPolicy));
     }
@@ -46,11 +75,25 @@ public class CuratorPersister implements Persister {
         if (pathBytesMap.isEmpty()) {
             return;
         }
+        try (Timer.Context context = SET_MANY_TIMER.time()) {
+            setManyAttempts(pathBytesMap);
+        }
+    }
+
+    private void setManyAttempts(Map<String, byte[]> pathBytesMap) throws Exception {
         for (int i = 0; i < ATOMIC_WRITE_ATTEMPTS; ++i) {
-            // Phase 1: Determine which nodes already exist. This determination can be rendered
-            //          invalid by an out-of-band change to the data.
-            final Set<String> pathsWhichExist = selectPathsWhichExist(pathBytesMap.keySet());
+            // Phase 1: Determine which nodes and parent nodes already exist, in a single parallel batch of checks.
+            //          This determination can be rendered invalid by an out-of-band change to the data.
+            Set<String> parentPaths = getUnknownParentPaths(pathBytesMap.keySet());
+            Set<String> pathsToCheck = new LinkedHashSet<>(pathBytesMap.keySet());
+            pathsToCheck.addAll(parentPaths);
+            final Set<String> pathsWhichExist = selectPathsWhichExist(pathsToCheck);
             List<String> parentPathsToCreate = getParentPathsToCreate(pathBytesMap.keySet(), pathsWhichExist);
+            for (String parentPath : parentPaths) {
+                if (pathsWhichExist.contains(parentPath)) {
+                    knownParentPaths.add(parentPath);
+                }
+            }
 
             logger.debug("Atomic write attempt {}/{}:\n-Parent paths: {}\n-All paths: {}\n-Paths which exist: {}",
                     i + 1, ATOMIC_WRITE_ATTEMPTS, parentPathsToCreate, pathBytesMap.keySet(), pathsWhichExist);
@@ -59,45 +102,68 @@ public class CuratorPersister implements Persister {
             //          the above determinations (retry if there's an out-of-band modification)
             final CuratorTransactionFinal transaction =
                     getTransaction(pathBytesMap, pathsWhichExist, parentPathsToCreate);
-            if (i + 1 < ATOMIC_WRITE_ATTEMPTS) {
-                try {
-                    transaction.commit();
-                    break; // Success!
-                } catch (Exception e) {
+            try {
+                transaction.commit();
+            } catch (Exception e) {
+                // A parent which was thought to exist may have been deleted out-of-band:
+                knownParentPaths.clear();
+                if (i + 1 < ATOMIC_WRITE_ATTEMPTS) {
                     // Transaction failed! Bad connection? Existence check rendered invalid?
                     // Swallow exception and try again
                     logger.error(String.format("Failed to complete transaction attempt %d/%d: %s",
                             i + 1, ATOMIC_WRITE_ATTEMPTS, transaction), e);
+                    continue;
                 }
-            } else {
                 // Last try: Any exception should be forwarded upstream
-                transaction.commit();
+                throw e;
             }
+            knownParentPaths.addAll(parentPathsToCreate);
+            break; // Success!
         }
     }
 
     @Override
     public void set(String path, byte[] bytes) throws Exception {
+        try (Timer.Context context = SET_TIMER.time()) {
+            setOrCreate(path, bytes);
+        }
+    }
+
+    private void setOrCreate(String path, byte[] bytes) throws Exception {
+        // Most writes are updates to existing nodes (e.g. TaskStatuses), so try an update first. This avoids a
+        // failed create() round trip in the common case.
         try {
-            client.create().creatingParentsIfNeeded().forPath(path, bytes);
-        } catch (KeeperException.NodeExistsException e) {
             client.setData().forPath(path, bytes);
+        } catch (KeeperException.NoNodeException e) {
+            try {
+                client.create().creatingParentsIfNeeded().forPath(path, bytes);
+            } catch (KeeperException.NodeExistsException e2) {
+                // Lost a race with another writer: the node exists now.
+                client.setData().forPath(path, bytes);
+            }
         }
     }
 
     @Override
     public byte[] get(String path) throws Exception {
-        return client.getData().forPath(path);
+        try (Timer.Context context = GET_TIMER.time()) {
+            return client.getData().forPath(path);
+        }
     }
 
     @Override
     public void delete(String path) throws Exception {
-        client.delete().deletingChildrenIfNeeded().forPath(path);
+        try (Timer.Context context = DELETE_TIMER.time()) {
+            client.delete().deletingChildrenIfNeeded().forPath(path);
+        }
+        knownParentPaths.removeIf(parentPath -> parentPath.equals(path) || parentPath.startsWith(path + "/"));
     }
 
     @Override
     public Collection<String> getChildren(String path) throws Exception {
-        return client.getChildren().forPath(path);
+        try (Timer.Context context = GET_CHILDREN_TIMER.time()) {
+            return client.getChildren().forPath(path);
+        }
     }
 
     @Override
@@ -105,24 +171,71 @@ public class CuratorPersister implements Persister {
         client.close();
     }
 
-    private static CuratorFramework createClient(String connectionString, RetryPolicy retryPolicy) {
+    static CuratorFramework createClient(String connectionString, RetryPolicy retryPolicy) {
         CuratorFramework client = CuratorFrameworkFactory.newClient(connectionString, retryPolicy);
         client.start();
         return client;
     }
 
-    private Set<String> selectPathsWhichExist(Set<String> paths) throws Exception {
-        Set<String> pathsWhichExist = new HashSet<>();
+    /**
+     * Returns the parent paths of the provided paths which aren't already known to exist, in creation order.
+     */
+    private Set<String> getUnknownParentPaths(Collection<String> paths) {
+        Set<String> parentPaths = new LinkedHashSet<>();
         for (String path : paths) {
-            if (client.checkExists().forPath(path) != null) {
-                pathsWhichExist.add(path);
+            for (String parentPath : CuratorUtils.getParentPaths(path)) {
+                if (!knownParentPaths.contains(parentPath)) {
+                    parentPaths.add(parentPath);
+                }
+            }
+        }
+        return parentPaths;
+    }
+
+    /**
+     * Checks whether each of the provided paths exists, in a single parallel batch of checks.
+     */
+    private Set<String> selectPathsWhichExist(Collection<String> paths) throws Exception {
+        return getStats(paths).keySet();
+    }
+
+    /**
+     * Returns the {@link Stat}s of those provided paths which exist, omitting any which don't. The checks are all
+     * issued at once as background operations, rather than making a round trip to ZK for each path in turn.
+     */
+    public Map<String, Stat> getStats(Collection<String> paths) throws Exception {
+        if (paths.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Stat> pathStats = new ConcurrentHashMap<>();
+        final AtomicReference<KeeperException> error = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(paths.size());
+        BackgroundCallback callback = (curatorFramework, event) -> {
+            try {
+                KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+                if (code == KeeperException.Code.OK) {
+                    pathStats.put(event.getPath(), event.getStat());
+                } else if (code != KeeperException.Code.NONODE) {
+                    error.compareAndSet(null, KeeperException.create(code, event.getPath()));
+                }
+            } finally {
+                latch.countDown();
             }
+        };
+        for (String path : paths) {
+            client.checkExists().inBackground(callback).forPath(path);
+        }
+        if (!latch.await(EXISTS_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException(String.format(
+                    "Timed out after %dms waiting for existence checks of %d paths", EXISTS_TIMEOUT_MS, paths.size()));
+        }
+        if (error.get() != null) {
+            throw error.get();
         }
-        return pathsWhichExist;
+        return pathStats;
     }
 
-    private List<String> getParentPathsToCreate(Set<String> paths, Set<String> pathsWhichExist)
-            throws Exception {
+    private List<String> getParentPathsToCreate(Set<String> paths, Set<String> pathsWhichExist) {
         List<String> parentPathsToCreate = new ArrayList<>();
         for (String path : paths) {
             if (pathsWhichExist.contains(path)) {
@@ -130,7 +243,8 @@ public class CuratorPersister implements Persister {
             }
             // Transaction interface doesn't support creatingParentsIfNeeded(), so go manual.
             for (String parentPath : CuratorUtils.getParentPaths(path)) {
-                if (client.checkExists().forPath(parentPath) == null
+                if (!knownParentPaths.contains(parentPath)
+                        && !pathsWhichExist.contains(parentPath)
                         && !parentPathsToCreate.contains(parentPath)) {
                     parentPathsToCreate.add(parentPath);
                 }
@@ -0,0 +1,231 @@
+package com.mesosphere.sdk.curator;
+
+import com.mesosphere.sdk.state.StoredState;
+import org.apache.mesos.Protos;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes compressed snapshots of the content of a {@link CuratorStateStore}, so that a newly elected
+ * scheduler can load its state with a handful of reads rather than one read per TaskInfo, TaskStatus, and property.
+ *
+ * The ZNode structure in Zookeeper is as follows:
+ * <code>
+ * rootPath/
+ *     -> StateSnapshot                 (header: format version, generation, chunk count, cutoff zxid)
+ *         -> [generation]/             (empty, written first: its mzxid is the cutoff zxid)
+ *             -> 0                     (gzip-compressed content, split into chunks which fit within a ZNode)
+ *             -> 1
+ *             -> ...
+ * </code>
+ *
+ * Every change with a zxid at or below the cutoff is included in the snapshot. Nodes which were modified later must be
+ * read individually, which {@link CuratorStateStore#fetchAll()} determines from the {@link Stat#getMzxid()} of each
+ * node. The header is written last, so readers never see a partially written generation.
+ */
+class CuratorStateSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(CuratorStateSnapshots.class);
+
+    static final String SNAPSHOT_PATH_NAME = "StateSnapshot";
+
+    /**
+     * Must be incremented whenever the encoding of the header or content changes. Snapshots in other formats are
+     * ignored, in favor of loading the state node by node.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * ZK rejects nodes larger than 1MB by default, so leave plenty of room for overhead.
+     */
+    private static final int CHUNK_SIZE_BYTES = 512 * 1024;
+
+    /**
+     * The content of a snapshot, along with the zxid of the latest change which it's guaranteed to include.
+     */
+    static class Snapshot {
+        final Map<String, Protos.TaskInfo> tasks;
+        final Map<String, Protos.TaskStatus> statuses;
+        final Map<String, byte[]> properties;
+        final long cutoffZxid;
+
+        private Snapshot(
+                Map<String, Protos.TaskInfo> tasks,
+                Map<String, Protos.TaskStatus> statuses,
+                Map<String, byte[]> properties,
+                long cutoffZxid) {
+            this.tasks = tasks;
+            this.statuses = statuses;
+            this.properties = properties;
+            this.cutoffZxid = cutoffZxid;
+        }
+    }
+
+    private final CuratorPersister curator;
+    private final String snapshotPath;
+
+    CuratorStateSnapshots(CuratorPersister curator, String rootPath) {
+        this.curator = curator;
+        this.snapshotPath = CuratorUtils.join(rootPath, SNAPSHOT_PATH_NAME);
+    }
+
+    /**
+     * Writes a new snapshot and removes any previous ones.
+     *
+     * @param contentSupplier invoked once, must return content reflecting every write which completed before the call
+     */
+    void write(Supplier<StoredState> contentSupplier) throws Exception {
+        String generation = UUID.randomUUID().toString();
+        String generationPath = CuratorUtils.join(snapshotPath, generation);
+
+        // Mark the point in the ZK history which the content will include: any write which completed before this
+        // one is reflected in the content we fetch afterwards, while any later write has a larger zxid.
+        curator.set(generationPath, new byte[0]);
+        Stat stat = curator.getStats(Collections.singletonList(generationPath)).get(generationPath);
+        if (stat == null) {
+            throw new KeeperException.NoNodeException(generationPath);
+        }
+        final long cutoffZxid = stat.getMzxid();
+
+        byte[] content = encode(contentSupplier.get());
+        int chunkCount = (content.length + CHUNK_SIZE_BYTES - 1) / CHUNK_SIZE_BYTES;
+        for (int i = 0; i < chunkCount; ++i) {
+            curator.set(
+                    CuratorUtils.join(generationPath, String.valueOf(i)),
+                    Arrays.copyOfRange(content, i * CHUNK_SIZE_BYTES,
+                            Math.min(content.length, (i + 1) * CHUNK_SIZE_BYTES)));
+        }
+
+        // Only point readers to the new generation once it's complete, then clean up the previous ones:
+        curator.set(snapshotPath, encodeHeader(generation, chunkCount, cutoffZxid));
+        for (String child : curator.getChildren(snapshotPath)) {
+            if (!child.equals(generation)) {
+                curator.delete(CuratorUtils.join(snapshotPath, child));
+            }
+        }
+        logger.info("Wrote state snapshot {} of {} bytes in {} chunks, including changes up to zxid {}",
+                generation, content.length, chunkCount, cutoffZxid);
+    }
+
+    /**
+     * Returns the most recently written snapshot, or an empty Optional if none is available.
+     */
+    Optional<Snapshot> read() throws Exception {
+        byte[] header;
+        try {
+            header = curator.get(snapshotPath);
+        } catch (KeeperException.NoNodeException e) {
+            return Optional.empty();
+        }
+        if (header.length == 0) {
+            // Only the parent of a generation which was never completed.
+            return Optional.empty();
+        }
+
+        DataInputStream headerIn = new DataInputStream(new ByteArrayInputStream(header));
+        int formatVersion = headerIn.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            logger.warn("Ignoring state snapshot with unsupported format version {} (expected {})",
+                    formatVersion, FORMAT_VERSION);
+            return Optional.empty();
+        }
+        String generation = headerIn.readUTF();
+        int chunkCount = headerIn.readInt();
+        long cutoffZxid = headerIn.readLong();
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int i = 0; i < chunkCount; ++i) {
+            content.write(curator.get(CuratorUtils.join(snapshotPath, generation + "/" + i)));
+        }
+        return Optional.of(decode(content.toByteArray(), cutoffZxid));
+    }
+
+    private static byte[] encodeHeader(String generation, int chunkCount, long cutoffZxid) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(generation);
+            out.writeInt(chunkCount);
+            out.writeLong(cutoffZxid);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encode(StoredState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            Collection<Protos.TaskInfo> tasks = state.getTasks();
+            out.writeInt(tasks.size());
+            for (Protos.TaskInfo task : tasks) {
+                writeBytes(out, task.toByteArray());
+            }
+            Collection<Protos.TaskStatus> statuses = state.getStatuses();
+            out.writeInt(statuses.size());
+            for (Protos.TaskStatus status : statuses) {
+                writeBytes(out, status.toByteArray());
+            }
+            Map<String, byte[]> properties = state.getProperties();
+            out.writeInt(properties.size());
+            for (Map.Entry<String, byte[]> entry : properties.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeBytes(out, entry.getValue());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Snapshot decode(byte[] content, long cutoffZxid) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(content)))) {
+            Map<String, Protos.TaskInfo> tasks = new HashMap<>();
+            Map<Protos.TaskID, String> idToName = new HashMap<>();
+            for (int i = in.readInt(); i > 0; --i) {
+                Protos.TaskInfo task = Protos.TaskInfo.parseFrom(readBytes(in));
+                tasks.put(task.getName(), task);
+                idToName.put(task.getTaskId(), task.getName());
+            }
+            Map<String, Protos.TaskStatus> statuses = new HashMap<>();
+            for (int i = in.readInt(); i > 0; --i) {
+                Protos.TaskStatus status = Protos.TaskStatus.parseFrom(readBytes(in));
+                String taskName = idToName.get(status.getTaskId());
+                if (taskName != null) {
+                    statuses.put(taskName, status);
+                }
+            }
+            Map<String, byte[]> properties = new HashMap<>();
+            for (int i = in.readInt(); i > 0; --i) {
+                String key = in.readUTF();
+                properties.put(key, readBytes(in));
+            }
+            return new Snapshot(tasks, statuses, properties, cutoffZxid);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
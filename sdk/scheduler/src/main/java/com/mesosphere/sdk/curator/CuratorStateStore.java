@@ -7,8 +7,8 @@ import org.apache.mesos.Protos;
 import com.mesosphere.sdk.dcos.DcosConstants;
 import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.offer.TaskException;
-import com.mesosphere.sdk.storage.Persister;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +16,7 @@ import com.google.common.annotations.VisibleForTesting;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * CuratorStateStore is an implementation of {@link StateStore} which persists data in Zookeeper.
@@ -34,8 +35,13 @@ import java.util.*;
  *             -> TaskInfo
  *             -> TaskStatus
  *         -> ...
+ *     -> StateSnapshot/
+ *         -> ...
  * </code>
  *
+ * The StateSnapshot node holds a compact copy of the rest of the tree, which is used to quickly load the state on
+ * startup. See {@link CuratorStateSnapshots}.
+ *
  * Note that for frameworks which don't use custom executors, the same structure is used, except
  * where ExecutorName values are equal to TaskName values.
  */
@@ -49,17 +55,19 @@ public class CuratorStateStore implements StateStore {
     private static final int MIN_SUPPORTED_SCHEMA_VERSION = 1;
     private static final int MAX_SUPPORTED_SCHEMA_VERSION = 1;
 
-    private static final String TASK_INFO_PATH_NAME = "TaskInfo";
-    private static final String TASK_STATUS_PATH_NAME = "TaskStatus";
-    private static final String FWK_ID_PATH_NAME = "FrameworkID";
-    private static final String PROPERTIES_PATH_NAME = "Properties";
-    private static final String TASKS_ROOT_NAME = "Tasks";
+    static final String TASK_INFO_PATH_NAME = "TaskInfo";
+    static final String TASK_STATUS_PATH_NAME = "TaskStatus";
+    static final String FWK_ID_PATH_NAME = "FrameworkID";
+    static final String PROPERTIES_PATH_NAME = "Properties";
+    static final String TASKS_ROOT_NAME = "Tasks";
     private static final String SUPPRESSED_KEY = "suppressed";
 
-    private final Persister curator;
+    private final CuratorPersister curator;
     private final TaskPathMapper taskPathMapper;
     private final String fwkIdPath;
     private final String propertiesPath;
+    private final CuratorStateSnapshots snapshots;
+    private final StateStoreNotifier notifier = new StateStoreNotifier();
 
     /**
      * Creates a new {@link StateStore} which uses Curator with a default {@link RetryPolicy} and
@@ -92,7 +100,18 @@ public class CuratorStateStore implements StateStore {
      */
     public CuratorStateStore(
             String frameworkName, String connectionString, RetryPolicy retryPolicy) {
-        this.curator = new CuratorPersister(connectionString, retryPolicy);
+        this(frameworkName, new CuratorPersister(connectionString, retryPolicy));
+    }
+
+    /**
+     * Creates a new {@link StateStore} which uses the provided {@link CuratorPersister}, e.g. to share a Curator
+     * client.
+     *
+     * @param frameworkName    The name of the framework
+     * @param curator          The persister to read and write data with
+     */
+    CuratorStateStore(String frameworkName, CuratorPersister curator) {
+        this.curator = curator;
 
         // Check version up-front:
         int currentVersion = new CuratorSchemaVersionStore(curator, frameworkName).fetch();
@@ -108,6 +127,7 @@ public class CuratorStateStore implements StateStore {
         this.taskPathMapper = new TaskPathMapper(rootPath);
         this.fwkIdPath = CuratorUtils.join(rootPath, FWK_ID_PATH_NAME);
         this.propertiesPath = CuratorUtils.join(rootPath, PROPERTIES_PATH_NAME);
+        this.snapshots = new CuratorStateSnapshots(curator, rootPath);
     }
 
     // Framework ID
@@ -172,52 +192,112 @@ public class CuratorStateStore implements StateStore {
             throw new StateStoreException(String.format(
                     "Failed to store %d TaskInfos", tasks.size()), e);
         }
+        for (Protos.TaskInfo taskInfo : tasks) {
+            notifier.publish(StateStoreEvent.taskStored(taskInfo));
+        }
     }
 
     @Override
     public void storeStatus(Protos.TaskStatus status) throws StateStoreException {
-        String taskName;
+        String taskName = validateStatus(status);
+        String path = taskPathMapper.getTaskStatusPath(taskName);
+        logger.debug("Storing status for '{}' in '{}'", taskName, path);
+
         try {
-            taskName = CommonTaskUtils.toTaskName(status.getTaskId());
-        } catch (TaskException e) {
-            throw new StateStoreException(String.format(
-                    "Failed to parse the Task Name from TaskStatus.task_id: '%s'", status), e);
+            curator.set(path, status.toByteArray());
+        } catch (Exception e) {
+            throw new StateStoreException(e);
         }
+        notifier.publish(StateStoreEvent.statusStored(taskName, status));
+    }
 
-        // Validate that a TaskInfo with the exact same UUID is currently present. We intentionally
-        // ignore TaskStatuses whose TaskID doesn't (exactly) match the current TaskInfo: We will
-        // occasionally get these for stale tasks that have since been changed (with new UUIDs).
-        Optional<Protos.TaskInfo> optionalTaskInfo;
+    @Override
+    public void storeStatuses(Collection<Protos.TaskStatus> statuses) throws StateStoreException {
+        Map<String, byte[]> statusBytesMap = new HashMap<>();
+        List<StateStoreEvent> events = new ArrayList<>();
+        for (Protos.TaskStatus status : statuses) {
+            String taskName = validateStatus(status);
+            String path = taskPathMapper.getTaskStatusPath(taskName);
+            logger.debug("Storing status for '{}' in '{}'", taskName, path);
+            statusBytesMap.put(path, status.toByteArray());
+            events.add(StateStoreEvent.statusStored(taskName, status));
+        }
         try {
-            optionalTaskInfo = fetchTask(taskName);
+            curator.setMany(statusBytesMap);
         } catch (Exception e) {
             throw new StateStoreException(String.format(
-                    "Unable to retrieve matching TaskInfo for the provided TaskStatus name %s.", taskName), e);
+                    "Failed to store %d TaskStatuses", statuses.size()), e);
         }
+        notifier.publishAll(events);
+    }
 
-        if (!optionalTaskInfo.isPresent()) {
-            throw new StateStoreException(
-                    String.format("The following TaskInfo is not present in the StateStore: %s. " +
-                            "TaskInfo must be present in order to store a TaskStatus.", taskName));
+    @Override
+    public void storeValidatedStatuses(Map<String, Protos.TaskStatus> taskNameToStatus) throws StateStoreException {
+        // The caller has already checked each status against the current TaskInfo, so no read-back is needed here.
+        if (taskNameToStatus.size() == 1) {
+            // Avoid transaction overhead in the common case of a single status update:
+            Map.Entry<String, Protos.TaskStatus> entry = taskNameToStatus.entrySet().iterator().next();
+            String path = taskPathMapper.getTaskStatusPath(entry.getKey());
+            logger.debug("Storing validated status for '{}' in '{}'", entry.getKey(), path);
+            try {
+                curator.set(path, entry.getValue().toByteArray());
+            } catch (Exception e) {
+                throw new StateStoreException(e);
+            }
+            notifier.publish(StateStoreEvent.statusStored(entry.getKey(), entry.getValue()));
+            return;
         }
 
-        if (!optionalTaskInfo.get().getTaskId().getValue().equals(status.getTaskId().getValue())) {
+        Map<String, byte[]> statusBytesMap = new HashMap<>();
+        for (Map.Entry<String, Protos.TaskStatus> entry : taskNameToStatus.entrySet()) {
+            String path = taskPathMapper.getTaskStatusPath(entry.getKey());
+            logger.debug("Storing validated status for '{}' in '{}'", entry.getKey(), path);
+            statusBytesMap.put(path, entry.getValue().toByteArray());
+        }
+        try {
+            curator.setMany(statusBytesMap);
+        } catch (Exception e) {
             throw new StateStoreException(String.format(
-                    "Task ID '%s' of updated status doesn't match Task ID '%s' of current TaskInfo."
-                            + " Task IDs must exactly match before status may be updated."
-                            + " NewTaskStatus[%s] CurrentTaskInfo[%s]",
-                    status.getTaskId().getValue(), optionalTaskInfo.get().getTaskId().getValue(),
-                    status, optionalTaskInfo));
+                    "Failed to store %d TaskStatuses", taskNameToStatus.size()), e);
         }
+        for (Map.Entry<String, Protos.TaskStatus> entry : taskNameToStatus.entrySet()) {
+            notifier.publish(StateStoreEvent.statusStored(entry.getKey(), entry.getValue()));
+        }
+    }
 
-        String path = taskPathMapper.getTaskStatusPath(taskName);
-        logger.debug("Storing status for '{}' in '{}'", taskName, path);
-
+    @Override
+    public void storeTasksAndStatuses(Collection<Protos.TaskInfo> tasks, Collection<Protos.TaskStatus> statuses)
+            throws StateStoreException {
+        Map<Protos.TaskID, String> idToName = new HashMap<>();
+        Map<String, byte[]> pathBytesMap = new HashMap<>();
+        List<StateStoreEvent> events = new ArrayList<>();
+        for (Protos.TaskInfo taskInfo : tasks) {
+            String path = taskPathMapper.getTaskInfoPath(taskInfo.getName());
+            logger.debug("Storing Taskinfo for {} in '{}'", taskInfo.getName(), path);
+            pathBytesMap.put(path, taskInfo.toByteArray());
+            idToName.put(taskInfo.getTaskId(), taskInfo.getName());
+            events.add(StateStoreEvent.taskStored(taskInfo));
+        }
+        for (Protos.TaskStatus status : statuses) {
+            // The matching TaskInfos are in hand, so there's no need to fetch them:
+            String taskName = idToName.get(status.getTaskId());
+            if (taskName == null) {
+                throw new StateStoreException(String.format(
+                        "Task ID '%s' of status doesn't match any of the provided TaskInfos: %s",
+                        status.getTaskId().getValue(), idToName.values()));
+            }
+            String path = taskPathMapper.getTaskStatusPath(taskName);
+            logger.debug("Storing status for '{}' in '{}'", taskName, path);
+            pathBytesMap.put(path, status.toByteArray());
+            events.add(StateStoreEvent.statusStored(taskName, status));
+        }
         try {
-            curator.set(path, status.toByteArray());
+            curator.setMany(pathBytesMap);
         } catch (Exception e) {
-            throw new StateStoreException(e);
+            throw new StateStoreException(String.format(
+                    "Failed to store %d TaskInfos and %d TaskStatuses", tasks.size(), statuses.size()), e);
         }
+        notifier.publishAll(events);
     }
 
     @Override
@@ -233,6 +313,7 @@ public class CuratorStateStore implements StateStore {
         } catch (Exception e) {
             throw new StateStoreException(e);
         }
+        notifier.publish(StateStoreEvent.taskCleared(taskName));
     }
 
     // Read Tasks
@@ -340,6 +421,7 @@ public class CuratorStateStore implements StateStore {
         } catch (Exception e) {
             throw new StateStoreException(e);
         }
+        notifier.publish(StateStoreEvent.propertyStored(key, value));
     }
 
     @Override
@@ -381,6 +463,47 @@ public class CuratorStateStore implements StateStore {
         } catch (Exception e) {
             throw new StateStoreException(e);
         }
+        notifier.publish(StateStoreEvent.propertyCleared(key));
+    }
+
+    // Bulk read/write
+
+    /**
+     * Loads the most recent snapshot, then reads only those nodes which have been modified since the snapshot was
+     * written. Falls back to reading every node if no usable snapshot is available.
+     */
+    @Override
+    public StoredState fetchAll() throws StateStoreException {
+        Optional<CuratorStateSnapshots.Snapshot> snapshot;
+        try {
+            snapshot = snapshots.read();
+        } catch (Exception e) {
+            logger.warn("Failed to read state snapshot, loading state node by node", e);
+            snapshot = Optional.empty();
+        }
+        if (!snapshot.isPresent()) {
+            return StateStore.super.fetchAll();
+        }
+        try {
+            return fetchChangesSince(snapshot.get());
+        } catch (Exception e) {
+            logger.warn("Failed to load changes since state snapshot, loading state node by node", e);
+            return StateStore.super.fetchAll();
+        }
+    }
+
+    @Override
+    public void storeSnapshot(Supplier<StoredState> contentSupplier) throws StateStoreException {
+        try {
+            snapshots.write(contentSupplier);
+        } catch (Exception e) {
+            throw new StateStoreException("Failed to store state snapshot", e);
+        }
+    }
+
+    @Override
+    public void subscribe(StateStoreListener listener) {
+        notifier.subscribe(listener);
     }
 
     @VisibleForTesting
@@ -390,26 +513,139 @@ public class CuratorStateStore implements StateStore {
 
     // Internals
 
-    private static class TaskPathMapper {
+    /**
+     * Returns the content of the provided snapshot, updated with any nodes which have been added, modified, or
+     * removed since it was written. The modification zxids of all nodes are fetched in a single parallel batch.
+     */
+    private StoredState fetchChangesSince(CuratorStateSnapshots.Snapshot snapshot) throws Exception {
+        Collection<String> taskNames = fetchTaskNames();
+        Collection<String> propertyKeys = fetchPropertyKeys();
+        List<String> paths = new ArrayList<>();
+        for (String taskName : taskNames) {
+            paths.add(taskPathMapper.getTaskInfoPath(taskName));
+            paths.add(taskPathMapper.getTaskStatusPath(taskName));
+        }
+        for (String key : propertyKeys) {
+            paths.add(CuratorUtils.join(propertiesPath, key));
+        }
+        Map<String, Stat> stats = curator.getStats(paths);
+        int changedCount = 0;
+
+        List<Protos.TaskInfo> taskInfos = new ArrayList<>();
+        List<Protos.TaskStatus> taskStatuses = new ArrayList<>();
+        for (String taskName : taskNames) {
+            String taskInfoPath = taskPathMapper.getTaskInfoPath(taskName);
+            Protos.TaskInfo taskInfo = snapshot.tasks.get(taskName);
+            if (isChangedSince(snapshot, taskInfo, stats.get(taskInfoPath))) {
+                // Throw even for NoNodeException: We should always have a TaskInfo for every entry
+                taskInfo = Protos.TaskInfo.parseFrom(curator.get(taskInfoPath));
+                ++changedCount;
+            }
+            taskInfos.add(taskInfo);
+
+            String taskStatusPath = taskPathMapper.getTaskStatusPath(taskName);
+            Stat taskStatusStat = stats.get(taskStatusPath);
+            if (taskStatusStat == null) {
+                // The task node exists, but it doesn't contain a TaskStatus node.
+                continue;
+            }
+            Protos.TaskStatus taskStatus = snapshot.statuses.get(taskName);
+            if (isChangedSince(snapshot, taskStatus, taskStatusStat)) {
+                taskStatus = Protos.TaskStatus.parseFrom(curator.get(taskStatusPath));
+                ++changedCount;
+            }
+            taskStatuses.add(taskStatus);
+        }
+
+        Map<String, byte[]> properties = new HashMap<>();
+        for (String key : propertyKeys) {
+            String propertyPath = CuratorUtils.join(propertiesPath, key);
+            Stat propertyStat = stats.get(propertyPath);
+            if (propertyStat == null) {
+                // Removed since we listed the keys.
+                continue;
+            }
+            byte[] value = snapshot.properties.get(key);
+            if (isChangedSince(snapshot, value, propertyStat)) {
+                value = curator.get(propertyPath);
+                ++changedCount;
+            }
+            properties.put(key, value);
+        }
+
+        logger.info("Loaded {} tasks, {} statuses, and {} properties from state snapshot, " +
+                "of which {} were read individually due to later changes",
+                taskInfos.size(), taskStatuses.size(), properties.size(), changedCount);
+        return new StoredState(fetchFrameworkId(), taskInfos, taskStatuses, properties);
+    }
+
+    /**
+     * Returns whether a node needs to be read individually, because the snapshot lacks it or it was modified later.
+     */
+    private static boolean isChangedSince(CuratorStateSnapshots.Snapshot snapshot, Object snapshotValue, Stat stat) {
+        return snapshotValue == null || stat == null || stat.getMzxid() > snapshot.cutoffZxid;
+    }
+
+    /**
+     * Validates that a TaskInfo with the exact same UUID as the provided status is currently present, returning the
+     * name of the matching task. We intentionally reject TaskStatuses whose TaskID doesn't (exactly) match the current
+     * TaskInfo: We will occasionally get these for stale tasks that have since been changed (with new UUIDs).
+     */
+    private String validateStatus(Protos.TaskStatus status) throws StateStoreException {
+        String taskName;
+        try {
+            taskName = CommonTaskUtils.toTaskName(status.getTaskId());
+        } catch (TaskException e) {
+            throw new StateStoreException(String.format(
+                    "Failed to parse the Task Name from TaskStatus.task_id: '%s'", status), e);
+        }
+
+        Optional<Protos.TaskInfo> optionalTaskInfo;
+        try {
+            optionalTaskInfo = fetchTask(taskName);
+        } catch (Exception e) {
+            throw new StateStoreException(String.format(
+                    "Unable to retrieve matching TaskInfo for the provided TaskStatus name %s.", taskName), e);
+        }
+
+        if (!optionalTaskInfo.isPresent()) {
+            throw new StateStoreException(
+                    String.format("The following TaskInfo is not present in the StateStore: %s. " +
+                            "TaskInfo must be present in order to store a TaskStatus.", taskName));
+        }
+
+        if (!optionalTaskInfo.get().getTaskId().getValue().equals(status.getTaskId().getValue())) {
+            throw new StateStoreException(String.format(
+                    "Task ID '%s' of updated status doesn't match Task ID '%s' of current TaskInfo."
+                            + " Task IDs must exactly match before status may be updated."
+                            + " NewTaskStatus[%s] CurrentTaskInfo[%s]",
+                    status.getTaskId().getValue(), optionalTaskInfo.get().getTaskId().getValue(),
+                    status, optionalTaskInfo));
+        }
+
+        return taskName;
+    }
+
+    static class TaskPathMapper {
         private final String tasksRootPath;
 
-        private TaskPathMapper(String rootPath) {
+        TaskPathMapper(String rootPath) {
             this.tasksRootPath = CuratorUtils.join(rootPath, TASKS_ROOT_NAME);
         }
 
-        private String getTaskInfoPath(String taskName) {
+        String getTaskInfoPath(String taskName) {
             return CuratorUtils.join(getTaskPath(taskName), TASK_INFO_PATH_NAME);
         }
 
-        private String getTaskStatusPath(String taskName) {
+        String getTaskStatusPath(String taskName) {
             return CuratorUtils.join(getTaskPath(taskName), TASK_STATUS_PATH_NAME);
         }
 
-        private String getTaskPath(String taskName) {
+        String getTaskPath(String taskName) {
             return CuratorUtils.join(getTasksRootPath(), taskName);
         }
 
-        private String getTasksRootPath() {
+        String getTasksRootPath() {
             return tasksRootPath;
         }
     }
@@ -0,0 +1,447 @@
+package com.mesosphere.sdk.curator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.mesosphere.sdk.dcos.DcosConstants;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreEvent;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.state.StateStoreListener;
+import com.mesosphere.sdk.state.StateStoreNotifier;
+import com.mesosphere.sdk.state.StateStoreUtils;
+import com.mesosphere.sdk.state.StoredState;
+import org.apache.curator.RetryPolicy;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.NodeCache;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * TreeCacheStateStore is an implementation of {@link StateStore} which serves reads from a local replica of the
+ * {@link CuratorStateStore} data in Zookeeper. The replica is kept current by Curator caches which only watch the
+ * nodes served by this store: a {@link TreeCache} each for the tasks and properties, and a {@link NodeCache} for the
+ * framework ID. Other nodes under the service root, such as configurations and state snapshots, aren't replicated.
+ * Writes are forwarded to an underlying {@link CuratorStateStore}.
+ *
+ * Because the replica is updated from ZK watches, {@link StateStoreListener}s are notified of all changes to the
+ * data, including changes made by other processes. However, notifications are delivered asynchronously on a
+ * dedicated thread, and reads may briefly lag behind writes, including writes made through this instance. This
+ * makes it suitable for consumers which follow the state of a service, such as the API of a read-only observer, but
+ * not as the {@link StateStore} of the scheduler itself, which must read its own writes.
+ *
+ * Writes made through this store bypass the scheduler's {@link com.mesosphere.sdk.state.StateStoreCache}, so they
+ * would be missing from the state snapshots which the cache writes. Observers should therefore only read while a
+ * scheduler is running against the same service.
+ */
+public class TreeCacheStateStore implements StateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TreeCacheStateStore.class);
+
+    /**
+     * How long to wait for the initial contents of the tree to be loaded before giving up.
+     */
+    private static final long INITIALIZE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final CuratorFramework client;
+    private final CuratorStateStore writer;
+    private final TreeCache tasksCache;
+    private final TreeCache propertiesCache;
+    private final NodeCache fwkIdCache;
+    private final ExecutorService cacheEventExecutor;
+    private final CuratorStateStore.TaskPathMapper taskPathMapper;
+    private final String fwkIdPath;
+    private final String propertiesPath;
+    private final StateStoreNotifier notifier = new StateStoreNotifier();
+
+    /**
+     * Creates a new {@link StateStore} which uses Curator with a default {@link RetryPolicy} and
+     * connection string.
+     *
+     * @param frameworkName    The name of the framework
+     */
+    public TreeCacheStateStore(String frameworkName) {
+        this(frameworkName, DcosConstants.MESOS_MASTER_ZK_CONNECTION_STRING);
+    }
+
+    /**
+     * Creates a new {@link StateStore} which uses Curator with a default {@link RetryPolicy}.
+     *
+     * @param frameworkName    The name of the framework
+     * @param connectionString The host/port of the ZK server, eg "master.mesos:2181"
+     */
+    public TreeCacheStateStore(String frameworkName, String connectionString) {
+        this(frameworkName, connectionString, new ExponentialBackoffRetry(
+                CuratorUtils.DEFAULT_CURATOR_POLL_DELAY_MS,
+                CuratorUtils.DEFAULT_CURATOR_MAX_RETRIES));
+    }
+
+    /**
+     * Creates a new {@link StateStore} which uses Curator with a custom {@link RetryPolicy}. This blocks until the
+     * current content of the store has been loaded.
+     *
+     * @param frameworkName    The name of the framework
+     * @param connectionString The host/port of the ZK server, eg "master.mesos:2181"
+     * @param retryPolicy      The custom {@link RetryPolicy}
+     * @throws StateStoreException if the current content of the store couldn't be loaded
+     */
+    public TreeCacheStateStore(String frameworkName, String connectionString, RetryPolicy retryPolicy) {
+        this.client = CuratorPersister.createClient(connectionString, retryPolicy);
+        this.writer = new CuratorStateStore(frameworkName, new CuratorPersister(client));
+
+        final String rootPath = CuratorUtils.toServiceRootPath(frameworkName);
+        this.taskPathMapper = new CuratorStateStore.TaskPathMapper(rootPath);
+        this.fwkIdPath = CuratorUtils.join(rootPath, CuratorStateStore.FWK_ID_PATH_NAME);
+        this.propertiesPath = CuratorUtils.join(rootPath, CuratorStateStore.PROPERTIES_PATH_NAME);
+
+        // Tasks/[TaskName]/{TaskInfo,TaskStatus} and Properties/[Key]. The caches share a thread, so that listeners see
+        // all changes in the order they were observed:
+        this.cacheEventExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "state-store-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tasksCache = TreeCache.newBuilder(client, taskPathMapper.getTasksRootPath())
+                .setCacheData(true)
+                .setMaxDepth(2)
+                .setExecutor(cacheEventExecutor)
+                .build();
+        this.propertiesCache = TreeCache.newBuilder(client, propertiesPath)
+                .setCacheData(true)
+                .setMaxDepth(1)
+                .setExecutor(cacheEventExecutor)
+                .build();
+        this.fwkIdCache = new NodeCache(client, fwkIdPath);
+
+        final CountDownLatch initialized = new CountDownLatch(2);
+        tasksCache.getListenable().addListener((curatorClient, event) -> {
+            if (event.getType() == TreeCacheEvent.Type.INITIALIZED) {
+                initialized.countDown();
+            } else {
+                handleTaskEvent(event);
+            }
+        });
+        propertiesCache.getListenable().addListener((curatorClient, event) -> {
+            if (event.getType() == TreeCacheEvent.Type.INITIALIZED) {
+                initialized.countDown();
+            } else {
+                handlePropertyEvent(event);
+            }
+        });
+        try {
+            fwkIdCache.start(true);
+            tasksCache.start();
+            propertiesCache.start();
+            if (!initialized.await(INITIALIZE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new StateStoreException(String.format(
+                        "Timed out after %dms waiting for initial content of '%s'", INITIALIZE_TIMEOUT_MS, rootPath));
+            }
+        } catch (Exception e) {
+            close();
+            if (e instanceof StateStoreException) {
+                throw (StateStoreException) e;
+            }
+            throw new StateStoreException(String.format("Failed to load initial content of '%s'", rootPath), e);
+        }
+    }
+
+    // Framework ID
+
+    @Override
+    public void storeFrameworkId(Protos.FrameworkID fwkId) throws StateStoreException {
+        writer.storeFrameworkId(fwkId);
+    }
+
+    @Override
+    public void clearFrameworkId() throws StateStoreException {
+        writer.clearFrameworkId();
+    }
+
+    @Override
+    public Optional<Protos.FrameworkID> fetchFrameworkId() throws StateStoreException {
+        ChildData data = fwkIdCache.getCurrentData();
+        if (data == null || data.getData() == null || data.getData().length == 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Protos.FrameworkID.parseFrom(data.getData()));
+        } catch (InvalidProtocolBufferException e) {
+            throw new StateStoreException(e);
+        }
+    }
+
+    // Write Tasks
+
+    @Override
+    public void storeTasks(Collection<Protos.TaskInfo> tasks) throws StateStoreException {
+        writer.storeTasks(tasks);
+    }
+
+    @Override
+    public void storeStatus(Protos.TaskStatus status) throws StateStoreException {
+        writer.storeStatus(status);
+    }
+
+    @Override
+    public void storeStatuses(Collection<Protos.TaskStatus> statuses) throws StateStoreException {
+        writer.storeStatuses(statuses);
+    }
+
+    @Override
+    public void storeValidatedStatuses(Map<String, Protos.TaskStatus> taskNameToStatus) throws StateStoreException {
+        writer.storeValidatedStatuses(taskNameToStatus);
+    }
+
+    @Override
+    public void storeTasksAndStatuses(Collection<Protos.TaskInfo> tasks, Collection<Protos.TaskStatus> statuses)
+            throws StateStoreException {
+        writer.storeTasksAndStatuses(tasks, statuses);
+    }
+
+    @Override
+    public void clearTask(String taskName) throws StateStoreException {
+        writer.clearTask(taskName);
+    }
+
+    // Read Tasks
+
+    @Override
+    public Collection<String> fetchTaskNames() throws StateStoreException {
+        return getChildNames(tasksCache, taskPathMapper.getTasksRootPath());
+    }
+
+    @Override
+    public Collection<Protos.TaskInfo> fetchTasks() throws StateStoreException {
+        Collection<Protos.TaskInfo> taskInfos = new ArrayList<>();
+        for (String taskName : fetchTaskNames()) {
+            // The replica may briefly contain a task node whose TaskInfo hasn't been loaded yet:
+            Optional<Protos.TaskInfo> taskInfo = fetchTask(taskName);
+            if (taskInfo.isPresent()) {
+                taskInfos.add(taskInfo.get());
+            }
+        }
+        return taskInfos;
+    }
+
+    @Override
+    public Optional<Protos.TaskInfo> fetchTask(String taskName) throws StateStoreException {
+        ChildData data = tasksCache.getCurrentData(taskPathMapper.getTaskInfoPath(taskName));
+        if (data == null) {
+            return Optional.empty();
+        }
+        return Optional.of(parseTaskInfo(data));
+    }
+
+    @Override
+    public Collection<Protos.TaskStatus> fetchStatuses() throws StateStoreException {
+        Collection<Protos.TaskStatus> taskStatuses = new ArrayList<>();
+        for (String taskName : fetchTaskNames()) {
+            Optional<Protos.TaskStatus> taskStatus = fetchStatus(taskName);
+            if (taskStatus.isPresent()) {
+                taskStatuses.add(taskStatus.get());
+            }
+        }
+        return taskStatuses;
+    }
+
+    @Override
+    public Optional<Protos.TaskStatus> fetchStatus(String taskName) throws StateStoreException {
+        ChildData data = tasksCache.getCurrentData(taskPathMapper.getTaskStatusPath(taskName));
+        if (data == null) {
+            return Optional.empty();
+        }
+        return Optional.of(parseTaskStatus(data));
+    }
+
+    // Read/Write Properties
+
+    @Override
+    public void storeProperty(final String key, final byte[] value) throws StateStoreException {
+        writer.storeProperty(key, value);
+    }
+
+    @Override
+    public byte[] fetchProperty(final String key) throws StateStoreException {
+        StateStoreUtils.validateKey(key);
+        ChildData data = propertiesCache.getCurrentData(CuratorUtils.join(propertiesPath, key));
+        if (data == null || data.getData() == null) { // emulate StateStore contract
+            throw new StateStoreException(String.format("Property key does not exist: %s", key));
+        }
+        return data.getData();
+    }
+
+    @Override
+    public Collection<String> fetchPropertyKeys() throws StateStoreException {
+        return getChildNames(propertiesCache, propertiesPath);
+    }
+
+    @Override
+    public void clearProperty(final String key) throws StateStoreException {
+        writer.clearProperty(key);
+    }
+
+    @Override
+    public boolean isSuppressed() throws StateStoreException {
+        return writer.isSuppressed();
+    }
+
+    @Override
+    public void setSuppressed(final boolean suppressed) throws StateStoreException {
+        writer.setSuppressed(suppressed);
+    }
+
+    @Override
+    public void storeSnapshot(Supplier<StoredState> contentSupplier) throws StateStoreException {
+        writer.storeSnapshot(contentSupplier);
+    }
+
+    /**
+     * Listeners are notified of all changes to the data in Zookeeper, whether or not they were made through this
+     * instance. Notifications are delivered on a dedicated event thread, in the order that the changes were observed.
+     */
+    @Override
+    public void subscribe(StateStoreListener listener) {
+        notifier.subscribe(listener);
+    }
+
+    /**
+     * Stops watching Zookeeper and closes the underlying connection. The instance may not be used after this is called.
+     */
+    public void close() {
+        tasksCache.close();
+        propertiesCache.close();
+        try {
+            fwkIdCache.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close framework ID cache", e);
+        }
+        cacheEventExecutor.shutdown();
+        client.close();
+    }
+
+    /**
+     * Returns the replicated content of the provided node, or {@code null} if it isn't present in any of the caches.
+     */
+    @VisibleForTesting
+    ChildData getCachedData(String path) {
+        if (path.equals(fwkIdPath)) {
+            return fwkIdCache.getCurrentData();
+        }
+        ChildData data = tasksCache.getCurrentData(path);
+        return data != null ? data : propertiesCache.getCurrentData(path);
+    }
+
+    // Internals
+
+    private static Collection<String> getChildNames(TreeCache cache, String path) {
+        Map<String, ChildData> children = cache.getCurrentChildren(path);
+        if (children == null) {
+            // Path doesn't exist yet. This is expected when the Framework is being run for the first time.
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(children.keySet());
+    }
+
+    /**
+     * Translates a change to a node in the tasks replica into a {@link StateStoreEvent}, if the node is a TaskInfo,
+     * TaskStatus, or task.
+     */
+    private void handleTaskEvent(TreeCacheEvent event) {
+        ChildData data = event.getData();
+        if (data == null) {
+            logger.info("Received tasks TreeCache event: {}", event.getType());
+            return;
+        }
+        String path = data.getPath();
+        String tasksRootPrefix = taskPathMapper.getTasksRootPath() + "/";
+        if (!path.startsWith(tasksRootPrefix)) {
+            return; // the tasks root itself
+        }
+        String[] elements = path.substring(tasksRootPrefix.length()).split("/");
+        try {
+            switch (event.getType()) {
+            case NODE_ADDED:
+            case NODE_UPDATED:
+                if (elements.length != 2) {
+                    break;
+                }
+                if (elements[1].equals(CuratorStateStore.TASK_INFO_PATH_NAME)) {
+                    notifier.publish(StateStoreEvent.taskStored(parseTaskInfo(data)));
+                } else if (elements[1].equals(CuratorStateStore.TASK_STATUS_PATH_NAME)) {
+                    notifier.publish(StateStoreEvent.statusStored(elements[0], parseTaskStatus(data)));
+                }
+                break;
+            case NODE_REMOVED:
+                if (elements.length == 1) {
+                    notifier.publish(StateStoreEvent.taskCleared(elements[0]));
+                }
+                break;
+            default:
+                break;
+            }
+        } catch (StateStoreException e) {
+            logger.error(String.format("Failed to handle %s event for '%s'", event.getType(), path), e);
+        }
+    }
+
+    /**
+     * Translates a change to a node in the properties replica into a {@link StateStoreEvent}.
+     */
+    private void handlePropertyEvent(TreeCacheEvent event) {
+        ChildData data = event.getData();
+        if (data == null) {
+            logger.info("Received properties TreeCache event: {}", event.getType());
+            return;
+        }
+        String propertiesPrefix = propertiesPath + "/";
+        if (!data.getPath().startsWith(propertiesPrefix)) {
+            return; // the properties root itself
+        }
+        String key = data.getPath().substring(propertiesPrefix.length());
+        switch (event.getType()) {
+        case NODE_ADDED:
+        case NODE_UPDATED:
+            if (data.getData() != null) {
+                notifier.publish(StateStoreEvent.propertyStored(key, data.getData()));
+            }
+            break;
+        case NODE_REMOVED:
+            notifier.publish(StateStoreEvent.propertyCleared(key));
+            break;
+        default:
+            break;
+        }
+    }
+
+    private static Protos.TaskInfo parseTaskInfo(ChildData data) throws StateStoreException {
+        try {
+            return Protos.TaskInfo.parseFrom(data.getData());
+        } catch (InvalidProtocolBufferException e) {
+            throw new StateStoreException(String.format("Failed to parse TaskInfo at '%s'", data.getPath()), e);
+        }
+    }
+
+    private static Protos.TaskStatus parseTaskStatus(ChildData data) throws StateStoreException {
+        try {
+            return Protos.TaskStatus.parseFrom(data.getData());
+        } catch (InvalidProtocolBufferException e) {
+            throw new StateStoreException(String.format("Failed to parse TaskStatus at '%s'", data.getPath()), e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mesosphere.sdk.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.mesosphere.sdk.scheduler.PipelineStage;
+import com.mesosphere.sdk.scheduler.plan.PlanManager;
+import com.mesosphere.sdk.scheduler.plan.Status;
+import org.apache.mesos.Protos;
+
+/**
+ * The scheduler's metrics, which are served by {@link com.mesosphere.sdk.api.MetricsResource}. Reporters may also be
+ * attached to the {@link MetricRegistry} returned by {@link #getRegistry()}.
+ *
+ * Metrics are process-wide, as there is a single scheduler per process. Any components which are constructed more than
+ * once (e.g. in tests) update the same metrics.
+ */
+public class Metrics {
+
+    // Offer cycle phases:
+    public static final String OFFER_CYCLE = "offers.cycle";
+    public static final String OFFER_CYCLE_RECONCILE = "offers.cycle.reconcile";
+    public static final String OFFER_CYCLE_PLANS = "offers.cycle.plans";
+    public static final String OFFER_CYCLE_EVALUATE = "offers.cycle.evaluate";
+    public static final String OFFER_CYCLE_CLEANER = "offers.cycle.cleaner";
+    public static final String OFFER_CYCLE_DECLINE = "offers.cycle.decline";
+
+    // Offer outcomes:
+    public static final String OFFERS_RECEIVED = "offers.received";
+    public static final String OFFERS_ACCEPTED = "offers.accepted";
+    public static final String OFFERS_DECLINED = "offers.declined";
+
+    private static final String TASK_STATUS_PREFIX = "task_status";
+    private static final String PERSISTER_PREFIX = "persister";
+    private static final String PLANS_PREFIX = "plans";
+    private static final String PIPELINE_PREFIX = "pipeline";
+
+    private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    private Metrics() {
+        // do not instantiate
+    }
+
+    public static MetricRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    public static Timer getTimer(String name) {
+        return REGISTRY.timer(name);
+    }
+
+    public static Counter getCounter(String name) {
+        return REGISTRY.counter(name);
+    }
+
+    /**
+     * Returns the rate of status updates received with the provided state, e.g. {@code task_status.task_running}.
+     */
+    public static Meter getTaskStatusMeter(Protos.TaskState state) {
+        return REGISTRY.meter(MetricRegistry.name(TASK_STATUS_PREFIX, state.name().toLowerCase()));
+    }
+
+    /**
+     * Returns the latency of the provided persister operation, e.g. {@code persister.set}.
+     */
+    public static Timer getPersisterTimer(String operation) {
+        return REGISTRY.timer(MetricRegistry.name(PERSISTER_PREFIX, operation));
+    }
+
+    /**
+     * Registers gauges for the number of steps in each {@link Status} within the provided {@link PlanManager}'s plan,
+     * e.g. {@code plans.deploy.steps.complete}. The plan is fetched from the manager whenever the gauges are read, so
+     * plans which are replaced over time are tracked. Any gauges previously registered for a plan of the same name are
+     * replaced.
+     */
+    public static void registerPlanGauges(PlanManager planManager) {
+        String planName = planManager.getPlan().getName();
+        for (Status status : Status.values()) {
+            String name = MetricRegistry.name(PLANS_PREFIX, planName, "steps", status.name().toLowerCase());
+            REGISTRY.remove(name);
+            REGISTRY.register(name, (Gauge<Long>) () -> planManager.getPlan().getChildren().stream()
+                    .flatMap(phase -> phase.getChildren().stream())
+                    .filter(step -> step.getStatus() == status)
+                    .count());
+        }
+    }
+
+    /**
+     * Registers gauges for the backpressure of the provided {@link PipelineStage}, e.g. {@code pipeline.plan.queued},
+     * {@code pipeline.plan.dropped}, and {@code pipeline.plan.latency.max_ms}. Any gauges previously registered for a
+     * stage of the same name are replaced.
+     */
+    public static void registerPipelineStageGauges(PipelineStage stage) {
+        registerGauge(MetricRegistry.name(PIPELINE_PREFIX, stage.getName(), "queued"),
+                () -> (long) stage.getQueueDepth());
+        registerGauge(MetricRegistry.name(PIPELINE_PREFIX, stage.getName(), "completed"),
+                stage::getCompletedCount);
+        registerGauge(MetricRegistry.name(PIPELINE_PREFIX, stage.getName(), "dropped"),
+                stage::getDroppedCount);
+        registerGauge(MetricRegistry.name(PIPELINE_PREFIX, stage.getName(), "latency", "mean_ms"),
+                () -> stage.getMeanLatency().toMillis());
+        registerGauge(MetricRegistry.name(PIPELINE_PREFIX, stage.getName(), "latency", "max_ms"),
+                () -> stage.getMaxLatency().toMillis());
+    }
+
+    private static void registerGauge(String name, Gauge<Long> gauge) {
+        REGISTRY.remove(name);
+        REGISTRY.register(name, gauge);
+    }
+}
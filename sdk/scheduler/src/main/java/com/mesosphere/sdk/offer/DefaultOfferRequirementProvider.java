@@ -55,7 +55,8 @@ public class DefaultOfferRequirementProvider implements OfferRequirementProvider
                 podInstance.getIndex(),
                 taskInfos,
                 Optional.of(executorInfo),
-                podInstance.getPod().getPlacementRule());
+                podInstance.getPod().getPlacementRule())
+                .withOfferScorer(podInstance.getPod().getOfferScorer());
     }
 
     @Override
@@ -98,7 +99,8 @@ public class DefaultOfferRequirementProvider implements OfferRequirementProvider
                 podInstance.getIndex(),
                 taskRequirements,
                 executorRequirement,
-                podInstance.getPod().getPlacementRule());
+                podInstance.getPod().getPlacementRule())
+                .withOfferScorer(podInstance.getPod().getOfferScorer());
     }
 
 
@@ -3,6 +3,7 @@ package com.mesosphere.sdk.offer;
 import org.apache.mesos.Protos;
 
 import java.util.Arrays;
+import java.util.OptionalLong;
 
 /**
  * This class allows the expression of a desire for a random port designated by a name which will be injected into the
@@ -11,10 +12,20 @@ import java.util.Arrays;
 public class DynamicPortRequirement extends ResourceRequirement {
     private static final String DYNAMIC_PORT_KEY = "dynamic_port";
     private String name;
+    private final OptionalLong preferredPort;
 
     public DynamicPortRequirement(Protos.Resource resource) throws DynamicPortException {
+        this(resource, OptionalLong.empty());
+    }
+
+    /**
+     * Creates a requirement which will be assigned the provided port if it's available in an offer, or any other
+     * available port otherwise.
+     */
+    public DynamicPortRequirement(Protos.Resource resource, OptionalLong preferredPort) throws DynamicPortException {
         super(resource);
         this.name = getPortName(resource);
+        this.preferredPort = preferredPort;
         validate();
     }
 
@@ -22,6 +33,10 @@ public class DynamicPortRequirement extends ResourceRequirement {
         return name;
     }
 
+    public OptionalLong getPreferredPort() {
+        return preferredPort;
+    }
+
     public static Protos.Resource getDesiredDynamicPort(String name, String role, String principal) {
         return ResourceUtils.setDynamicPortName(
                 ResourceUtils.getDesiredRanges(
@@ -61,7 +61,8 @@ public class ExecutorRequirement {
         this.resourceRequirements =
                 RequirementUtils.getResourceRequirements(executorInfo.getResourcesList());
         // These are managed in a separate collection, since the actual ports can only be fulfilled at offer time.
-        this.dynamicPortRequirements = RequirementUtils.getDynamicPortRequirements(executorInfo.getResourcesList());
+        this.dynamicPortRequirements = RequirementUtils.getDynamicPortRequirements(
+                executorInfo.getResourcesList(), executorInfo.getCommand().getEnvironment());
         this.namedVIPPortRequirements = RequirementUtils.getNamedVIPPortRequirements(executorInfo.getResourcesList());
     }
 
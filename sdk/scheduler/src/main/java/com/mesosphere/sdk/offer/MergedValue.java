@@ -0,0 +1,148 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value;
+
+import java.util.OptionalLong;
+
+/**
+ * The available amount of a mergeable resource within a {@link MesosResourcePool}, held as primitives so that
+ * consumption and release don't need to build {@link Value} protobufs. Scalars are held as a {@code double}, while
+ * ranges are held in a {@link RangeAllocator}. A {@link Value} is only built when one is requested via
+ * {@link #toValue()}.
+ *
+ * Only {@link Value.Type#SCALAR} and {@link Value.Type#RANGES} values are supported, see
+ * {@link #isSupported(Value.Type)}.
+ *
+ * This class is not thread-safe.
+ */
+final class MergedValue {
+
+    private final Value.Type type;
+    private double scalar;
+    private final RangeAllocator ranges;
+
+    private MergedValue(Value.Type type) {
+        this.type = type;
+        this.scalar = 0;
+        this.ranges = new RangeAllocator();
+    }
+
+    /**
+     * Returns whether values of the provided type may be represented by this class.
+     */
+    static boolean isSupported(Value.Type type) {
+        return type == Value.Type.SCALAR || type == Value.Type.RANGES;
+    }
+
+    /**
+     * Returns a new empty value of the provided type.
+     *
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    static MergedValue zero(Value.Type type) {
+        if (!isSupported(type)) {
+            throw new IllegalArgumentException("Unsupported value type: " + type);
+        }
+        return new MergedValue(type);
+    }
+
+    Value.Type getType() {
+        return type;
+    }
+
+    /**
+     * Adds the provided value to this value. Values of a different type are ignored.
+     */
+    void add(Value value) {
+        if (value.getType() != type) {
+            return;
+        }
+        switch (type) {
+            case SCALAR:
+                scalar += value.getScalar().getValue();
+                break;
+            case RANGES:
+                ranges.addAll(value.getRanges().getRangeList());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns whether the provided value is fully contained within this value. A value of a different type is never
+     * contained.
+     */
+    boolean contains(Value value) {
+        if (value.getType() != type) {
+            return false;
+        }
+        switch (type) {
+            case SCALAR:
+                return value.getScalar().getValue() <= scalar;
+            case RANGES:
+                return ranges.containsAll(value.getRanges().getRangeList());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Removes the provided value from this value. Values of a different type are ignored.
+     */
+    void subtract(Value value) {
+        if (value.getType() != type) {
+            return;
+        }
+        switch (type) {
+            case SCALAR:
+                scalar -= value.getScalar().getValue();
+                break;
+            case RANGES:
+                ranges.removeAll(value.getRanges().getRangeList());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns whether nothing is left in this value.
+     */
+    boolean isEmpty() {
+        return type == Value.Type.SCALAR ? scalar <= 0 : ranges.isEmpty();
+    }
+
+    /**
+     * Removes and returns a single value from these ranges, see {@link RangeAllocator#allocate(OptionalLong)}. Returns
+     * an empty value if these aren't ranges or no ranges are left.
+     */
+    OptionalLong allocate(OptionalLong preferredValue) {
+        return type == Value.Type.RANGES ? ranges.allocate(preferredValue) : OptionalLong.empty();
+    }
+
+    /**
+     * Returns a new {@link Value} protobuf representing this value.
+     */
+    Value toValue() {
+        Value.Builder builder = Value.newBuilder().setType(type);
+        switch (type) {
+            case SCALAR:
+                builder.getScalarBuilder().setValue(scalar);
+                break;
+            case RANGES:
+                builder.getRangesBuilder().addAllRange(ranges.toRanges());
+                break;
+            default:
+                break;
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return type == Value.Type.SCALAR
+                ? String.format("MergedValue{scalar=%s}", scalar)
+                : String.format("MergedValue{ranges=%s}", ranges);
+    }
+}
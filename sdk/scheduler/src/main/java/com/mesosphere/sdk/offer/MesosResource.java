@@ -18,10 +18,12 @@ public class MesosResource {
 
     private final Resource resource;
     private final String resourceId;
+    private final Value value;
 
     public MesosResource(Resource resource) {
         this.resource = resource;
         this.resourceId = getResourceIdInternal();
+        this.value = ValueUtils.getValue(resource);
     }
 
     public Resource getResource() {
@@ -55,7 +57,7 @@ public class MesosResource {
     }
 
     public Value getValue() {
-        return ValueUtils.getValue(resource);
+        return value;
     }
 
     public String getRole() {
@@ -20,7 +20,7 @@ public class MesosResourcePool {
 
     private final Offer offer;
     private final Map<String, List<MesosResource>> unreservedAtomicPool;
-    private final Map<String, Value> unreservedMergedPool;
+    private final Map<String, MergedValue> unreservedMergedPool;
     private final Map<String, MesosResource> reservedPool;
 
     /**
@@ -51,10 +51,15 @@ public class MesosResourcePool {
 
     /**
      * Returns the unreserved resources of which a subset can be consumed from an Offer. For
-     * example, an offer may contain 4.0 CPUs and 2.4 of those CPUs can be reserved.
+     * example, an offer may contain 4.0 CPUs and 2.4 of those CPUs can be reserved. The returned map
+     * is a snapshot of the pool's current state.
      */
     public Map<String, Value> getUnreservedMergedPool() {
-        return unreservedMergedPool;
+        Map<String, Value> pool = new HashMap<>();
+        for (Map.Entry<String, MergedValue> entry : unreservedMergedPool.entrySet()) {
+            pool.put(entry.getKey(), entry.getValue().toValue());
+        }
+        return pool;
     }
 
     /**
@@ -64,6 +69,31 @@ public class MesosResourcePool {
         return reservedPool;
     }
 
+    /**
+     * Returns a copy of the underlying offer which only contains the resources which haven't been
+     * consumed from this pool, so that further requirements may be evaluated against the remainder of
+     * the offer. Unreserved mergeable resources are returned with the default role, matching how they
+     * are produced when consumed.
+     */
+    public Offer getRemainingOffer() {
+        Offer.Builder offerBuilder = offer.toBuilder().clearResources();
+        for (MesosResource mesosResource : reservedPool.values()) {
+            offerBuilder.addResources(mesosResource.getResource());
+        }
+        for (List<MesosResource> mesosResources : unreservedAtomicPool.values()) {
+            for (MesosResource mesosResource : mesosResources) {
+                offerBuilder.addResources(mesosResource.getResource());
+            }
+        }
+        for (Map.Entry<String, MergedValue> entry : unreservedMergedPool.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                offerBuilder.addResources(
+                        ResourceUtils.getUnreservedResource(entry.getKey(), entry.getValue().toValue()));
+            }
+        }
+        return offerBuilder.build();
+    }
+
     /**
      * Consumes and returns a {@link MesosResource} which meets the provided
      * {@link ResourceRequirement}, or does nothing and returns an empty {@link Optional} if no
@@ -92,33 +122,32 @@ public class MesosResourcePool {
     /**
      * Consumes and returns a {@link MesosResource} which meets the provided
      * {@link DynamicPortRequirement}, or does nothing and returns an empty {@link Optional} if no
-     * available resources meet the requirement.
+     * available resources meet the requirement. The requirement's preferred port is used if it's
+     * available, otherwise the lowest available port is used.
      */
     public Optional<MesosResource> consume(DynamicPortRequirement dynamicPortRequirement) {
-        Value availableValue = unreservedMergedPool.get(dynamicPortRequirement.getName());
+        MergedValue availableValue = unreservedMergedPool.get(dynamicPortRequirement.getName());
 
         if (availableValue == null) {
             return Optional.empty();
         }
 
-        // Choose first available port
-        if (availableValue.getRanges().getRangeCount() > 0) {
-            Value.Range range = availableValue.getRanges().getRange(0);
-            Resource resource = ResourceUtils.getUnreservedResource(
-                    dynamicPortRequirement.getName(),
-                    Value.newBuilder()
-                        .setType(Value.Type.RANGES)
-                        .setRanges(Value.Ranges.newBuilder()
-                                .addRange(Value.Range.newBuilder()
-                                        .setBegin(range.getBegin())
-                                        // Use getBegin again, since we just want the one port.
-                                        .setEnd(range.getBegin())))
-                        .build());
-
-            return consumeUnreservedMerged(new ResourceRequirement(resource));
+        OptionalLong port = availableValue.allocate(dynamicPortRequirement.getPreferredPort());
+        if (!port.isPresent()) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        Resource resource = ResourceUtils.getUnreservedResource(
+                dynamicPortRequirement.getName(),
+                Value.newBuilder()
+                    .setType(Value.Type.RANGES)
+                    .setRanges(Value.Ranges.newBuilder()
+                            .addRange(Value.Range.newBuilder()
+                                    .setBegin(port.getAsLong())
+                                    // Use the same port again, since we just want the one port.
+                                    .setEnd(port.getAsLong())))
+                    .build());
+        return Optional.of(new MesosResource(resource));
     }
 
     /**
@@ -135,14 +164,7 @@ public class MesosResourcePool {
     }
 
     private void releaseMergedResource(MesosResource mesosResource) {
-        Value currValue = unreservedMergedPool.get(mesosResource.getName());
-
-        if (currValue == null) {
-            currValue = ValueUtils.getZero(mesosResource.getType());
-        }
-
-        Value updatedValue = ValueUtils.add(currValue, mesosResource.getValue());
-        unreservedMergedPool.put(mesosResource.getName(), updatedValue);
+        addMergedValue(unreservedMergedPool, mesosResource);
     }
 
     private void releaseAtomicResource(MesosResource mesosResource) {
@@ -222,10 +244,10 @@ public class MesosResourcePool {
 
     private Optional<MesosResource> consumeUnreservedMerged(ResourceRequirement resourceRequirement) {
         Value desiredValue = resourceRequirement.getValue();
-        Value availableValue = unreservedMergedPool.get(resourceRequirement.getName());
+        MergedValue availableValue = unreservedMergedPool.get(resourceRequirement.getName());
 
-        if (sufficientValue(desiredValue, availableValue)) {
-            unreservedMergedPool.put(resourceRequirement.getName(), ValueUtils.subtract(availableValue, desiredValue));
+        if (availableValue != null && desiredValue != null && availableValue.contains(desiredValue)) {
+            availableValue.subtract(desiredValue);
             Resource resource = ResourceUtils.getUnreservedResource(resourceRequirement.getName(), desiredValue);
             return Optional.of(new MesosResource(resource));
         } else {
@@ -286,22 +308,32 @@ public class MesosResourcePool {
         return pool;
     }
 
-    private static Map<String, Value> getUnreservedMergedPool(
+    private static Map<String, MergedValue> getUnreservedMergedPool(
             Collection<MesosResource> mesosResources) {
-        Map<String, Value> pool = new HashMap<String, Value>();
+        Map<String, MergedValue> pool = new HashMap<String, MergedValue>();
 
         for (MesosResource mesosResource : getUnreservedMergedResources(mesosResources)) {
-            String name = mesosResource.getName();
-            Value currValue = pool.get(name);
+            addMergedValue(pool, mesosResource);
+        }
 
-            if (currValue == null) {
-                currValue = ValueUtils.getZero(mesosResource.getType());
-            }
+        return pool;
+    }
 
-            pool.put(name, ValueUtils.add(currValue, mesosResource.getValue()));
+    private static void addMergedValue(Map<String, MergedValue> pool, MesosResource mesosResource) {
+        if (!MergedValue.isSupported(mesosResource.getType())) {
+            logger.warn("Ignoring unreserved resource with unsupported type {}: {}",
+                    mesosResource.getType(), TextFormat.shortDebugString(mesosResource.getResource()));
+            return;
         }
 
-        return pool;
+        MergedValue currValue = pool.get(mesosResource.getName());
+
+        if (currValue == null) {
+            currValue = MergedValue.zero(mesosResource.getType());
+            pool.put(mesosResource.getName(), currValue);
+        }
+
+        currValue.add(mesosResource.getValue());
     }
 
     private static Collection<MesosResource> getUnreservedAtomicResources(
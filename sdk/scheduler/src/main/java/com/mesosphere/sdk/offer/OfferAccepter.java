@@ -50,17 +50,48 @@ public class OfferAccepter {
             return new ArrayList<>();
         }
 
-        List<OfferID> offerIds = getOfferIds(recommendations);
-        List<Operation> operations = getOperations(recommendations);
+        if (!record(recommendations)) {
+            return new ArrayList<>();
+        }
 
-        logOperations(operations);
+        return acceptRecorded(driver, recommendations, filters);
+    }
 
+    /**
+     * Records the Operations in the provided recommendations without accepting any Offers. This allows the
+     * recommendations for several requirements to be recorded as they're produced, and then accepted together with
+     * {@link #acceptRecorded(SchedulerDriver, List)}.
+     *
+     * @return whether the recommendations were successfully recorded, in which case they may be accepted
+     */
+    public boolean record(List<OfferRecommendation> recommendations) {
         try {
-            record(recommendations);
+            for (OfferRecommendation recommendation : recommendations) {
+                for (OperationRecorder recorder : recorders) {
+                    recorder.record(recommendation.getOperation(), recommendation.getOffer());
+                }
+            }
+            return true;
         } catch (Exception ex) {
             logger.error("Failed to record Operations so not launching Task", ex);
-            return new ArrayList<>();
+            return false;
         }
+    }
+
+    /**
+     * Accepts Offers with the Operations in the provided recommendations, which must have already been recorded with
+     * {@link #record(List)}. All of the Operations are performed in a single accept call.
+     */
+    public List<OfferID> acceptRecorded(SchedulerDriver driver, List<OfferRecommendation> recommendations) {
+        return acceptRecorded(driver, recommendations, getFilters());
+    }
+
+    private List<OfferID> acceptRecorded(
+            SchedulerDriver driver, List<OfferRecommendation> recommendations, Filters filters) {
+        List<OfferID> offerIds = getOfferIds(recommendations);
+        List<Operation> operations = getOperations(recommendations);
+
+        logOperations(operations);
 
         if (CollectionUtils.isNotEmpty(operations)) {
             driver.acceptOffers(offerIds, operations, filters);
@@ -71,14 +102,6 @@ public class OfferAccepter {
         return offerIds;
     }
 
-    private void record(List<OfferRecommendation> recommendations) throws Exception {
-        for (OfferRecommendation recommendation : recommendations) {
-            for (OperationRecorder recorder : recorders) {
-                recorder.record(recommendation.getOperation(), recommendation.getOffer());
-            }
-        }
-    }
-
     private static List<Operation> getOperations(List<OfferRecommendation> recommendations) {
         List<Operation> operations = new ArrayList<>();
 
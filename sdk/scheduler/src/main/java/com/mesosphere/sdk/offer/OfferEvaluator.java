@@ -3,6 +3,7 @@ package com.mesosphere.sdk.offer;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.ExecutorInfo;
 import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
 import org.apache.mesos.Protos.Resource;
 import org.apache.mesos.Protos.Resource.DiskInfo;
 import org.apache.mesos.Protos.Resource.DiskInfo.Persistence;
@@ -10,7 +11,9 @@ import org.apache.mesos.Protos.Resource.ReservationInfo;
 import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.Value;
 import com.mesosphere.sdk.executor.ExecutorUtils;
+import com.mesosphere.sdk.offer.constrain.PlacementContext;
 import com.mesosphere.sdk.offer.constrain.PlacementRule;
+import com.mesosphere.sdk.offer.score.OfferScorer;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreException;
 import org.slf4j.Logger;
@@ -20,6 +23,7 @@ import com.google.inject.Inject;
 import com.google.protobuf.TextFormat;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,55 +33,208 @@ import java.util.stream.Stream;
  * in reference to the {@link OfferRequirement with which it was constructed.  In the
  * case where an OfferRequirement has not been provided no {@link OfferRecommendation}s
  * are ever returned.
+ *
+ * When more than one offer passes evaluation, the offer is selected using the {@link OfferScorer} configured on the
+ * {@link OfferRequirement}, or else the evaluator's default scorer. Without any scorer, the first passing offer is
+ * selected. Offers may optionally be evaluated concurrently using a {@link ForkJoinPool}, in which case the selected
+ * offer is the same as it would be with sequential evaluation.
  */
 public class OfferEvaluator {
     private static final Logger logger = LoggerFactory.getLogger(OfferEvaluator.class);
 
     private final StateStore stateStore;
+    private final Optional<ForkJoinPool> forkJoinPool;
+    private final Optional<OfferScorer> defaultOfferScorer;
 
+    /**
+     * Creates a new evaluator which evaluates offers sequentially, and which selects the first passing offer unless
+     * the {@link OfferRequirement} has a scorer.
+     */
     @Inject
     public OfferEvaluator(StateStore stateStore) {
+        this(stateStore, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a new evaluator which evaluates offers sequentially, and which selects among passing offers using the
+     * provided scorer unless the {@link OfferRequirement} has its own scorer.
+     */
+    public OfferEvaluator(StateStore stateStore, OfferScorer defaultOfferScorer) {
+        this(stateStore, Optional.empty(), Optional.of(defaultOfferScorer));
+    }
+
+    /**
+     * Creates a new evaluator which evaluates offers concurrently within the provided pool, and which selects among
+     * passing offers using the provided scorer, if any, unless the {@link OfferRequirement} has its own scorer.
+     */
+    public OfferEvaluator(
+            StateStore stateStore, ForkJoinPool forkJoinPool, Optional<OfferScorer> defaultOfferScorer) {
+        this(stateStore, Optional.of(forkJoinPool), defaultOfferScorer);
+    }
+
+    private OfferEvaluator(
+            StateStore stateStore,
+            Optional<ForkJoinPool> forkJoinPool,
+            Optional<OfferScorer> defaultOfferScorer) {
         this.stateStore = stateStore;
+        this.forkJoinPool = forkJoinPool;
+        this.defaultOfferScorer = defaultOfferScorer;
     }
 
     public List<OfferRecommendation> evaluate(OfferRequirement offerRequirement, List<Offer> offers)
             throws StateStoreException {
+        return evaluate(offerRequirement, offers, Collections.emptyMap());
+    }
+
+    /**
+     * Evaluates the provided offers as with {@link #evaluate(OfferRequirement, List)}, using the provided
+     * {@link ResourceSummary}s of the offers rather than recomputing them. These may be shared across the evaluations
+     * of several requirements against the same offers, see {@link ResourceSummary#ofOffers(List)}. Offers which are
+     * missing from the map are summarized as needed.
+     */
+    public List<OfferRecommendation> evaluate(
+            OfferRequirement offerRequirement, List<Offer> offers, Map<OfferID, ResourceSummary> offerSupplies)
+            throws StateStoreException {
+        Optional<OfferEvaluation> selected = select(offerRequirement, offers, offerSupplies);
+        return selected.isPresent() ? selected.get().getRecommendations() : Collections.emptyList();
+    }
+
+    /**
+     * Evaluates the provided offers as with {@link #evaluate(OfferRequirement, List)}, returning the evaluation of the
+     * selected offer, or an empty {@link Optional} if no offer passed.
+     */
+    public Optional<OfferEvaluation> select(OfferRequirement offerRequirement, List<Offer> offers)
+            throws StateStoreException {
+        return select(offerRequirement, offers, Collections.emptyMap());
+    }
+
+    /**
+     * Evaluates the provided offers as with {@link #evaluate(OfferRequirement, List, Map)}, returning the evaluation
+     * of the selected offer, or an empty {@link Optional} if no offer passed.
+     */
+    public Optional<OfferEvaluation> select(
+            OfferRequirement offerRequirement, List<Offer> offers, Map<OfferID, ResourceSummary> offerSupplies)
+            throws StateStoreException {
+
+        // First, cheaply reject any offers which are too small to ever fit the requirement
+        List<Offer> sufficientOffers = filterInsufficientOffers(offerRequirement, offers, offerSupplies);
+        if (sufficientOffers.isEmpty()) {
+            logger.info("No offers have enough total resources for {}, skipping evaluation.",
+                    offerRequirement.getResourceDemand());
+            return Optional.empty();
+        }
 
-        // First, check placement constraints (to filter offers)
+        // Then check placement constraints (to filter offers)
         List<Offer> filteredOffers = new ArrayList<>();
         Optional<PlacementRule> placementRuleOptional = offerRequirement.getPlacementRuleOptional();
         if (placementRuleOptional.isPresent()) {
-            filteredOffers = evaluatePlacementRule(placementRuleOptional.get(), offerRequirement, offers);
+            filteredOffers = evaluatePlacementRule(placementRuleOptional.get(), offerRequirement, sufficientOffers);
             if (filteredOffers.isEmpty()) {
                 logger.info("No offers survived placement constraint evaluation, skipping resource evaluation.");
-                return Collections.emptyList();
+                return Optional.empty();
             }
         } else {
             // No filtering, all offers pass:
-            filteredOffers.addAll(offers);
+            filteredOffers.addAll(sufficientOffers);
         }
 
         // Then perform offer resource evaluation against the placement-filtered result.
         logger.info("Evaluating up to {} offers for match against resource requirements:", filteredOffers.size());
-        for (int index = 0; index < filteredOffers.size(); ++index) {
-            Offer offer = filteredOffers.get(index);
-            List<OfferRecommendation> recommendations = evaluateInternal(offerRequirement, offer);
-            if (!recommendations.isEmpty()) {
-                logger.info("- {}: passed resource requirements, returning {} recommendations: {}",
-                        index + 1, recommendations.size(), TextFormat.shortDebugString(offer));
-                return recommendations;
-            } else {
+        Optional<OfferScorer> offerScorer = offerRequirement.getOfferScorerOptional().isPresent()
+                ? offerRequirement.getOfferScorerOptional()
+                : defaultOfferScorer;
+        if (!forkJoinPool.isPresent() && !offerScorer.isPresent()) {
+            // Shortcut: stop at the first passing offer
+            for (int index = 0; index < filteredOffers.size(); ++index) {
+                OfferEvaluation evaluation = evaluateOffer(offerRequirement, filteredOffers.get(index));
+                if (evaluation.passed()) {
+                    logger.info("- {}: passed resource requirements, returning {} recommendations: {}",
+                            index + 1,
+                            evaluation.recommendations.size(),
+                            TextFormat.shortDebugString(evaluation.offer));
+                    return Optional.of(evaluation);
+                } else {
+                    logger.info("- {}: did not pass resource requirements: {}",
+                            index + 1, TextFormat.shortDebugString(evaluation.offer));
+                }
+            }
+            return Optional.empty();
+        }
+
+        final List<Offer> offersToEvaluate = filteredOffers;
+        final List<OfferEvaluation> evaluations;
+        if (forkJoinPool.isPresent()) {
+            // Evaluations are returned in offer order, regardless of the order in which they were performed:
+            evaluations = forkJoinPool.get().submit(() -> offersToEvaluate.parallelStream()
+                    .map(offer -> evaluateOffer(offerRequirement, offer))
+                    .collect(Collectors.toList()))
+                    .join();
+        } else {
+            evaluations = offersToEvaluate.stream()
+                    .map(offer -> evaluateOffer(offerRequirement, offer))
+                    .collect(Collectors.toList());
+        }
+
+        int selectedIndex = -1;
+        double selectedScore = 0;
+        for (int index = 0; index < evaluations.size(); ++index) {
+            OfferEvaluation evaluation = evaluations.get(index);
+            if (!evaluation.passed()) {
                 logger.info("- {}: did not pass resource requirements: {}",
-                        index + 1, TextFormat.shortDebugString(offer));
+                        index + 1, TextFormat.shortDebugString(evaluation.offer));
+                continue;
+            }
+            if (!offerScorer.isPresent()) {
+                selectedIndex = index;
+                break;
+            }
+            double score = offerScorer.get().score(evaluation.offer, evaluation.pool);
+            logger.info("- {}: passed resource requirements with score {} from {}: {}",
+                    index + 1, score, offerScorer.get(), TextFormat.shortDebugString(evaluation.offer));
+            // Ties are broken by offer order:
+            if (selectedIndex < 0 || score > selectedScore) {
+                selectedIndex = index;
+                selectedScore = score;
+            }
+        }
+        if (selectedIndex < 0) {
+            return Optional.empty();
+        }
+        OfferEvaluation selected = evaluations.get(selectedIndex);
+        logger.info("- {}: selected, returning {} recommendations: {}",
+                selectedIndex + 1, selected.recommendations.size(), TextFormat.shortDebugString(selected.offer));
+        return Optional.of(selected);
+    }
+
+    private static List<Offer> filterInsufficientOffers(
+            OfferRequirement offerRequirement, List<Offer> offers, Map<OfferID, ResourceSummary> offerSupplies) {
+        ResourceSummary demand = offerRequirement.getResourceDemand();
+        List<Offer> sufficientOffers = new ArrayList<>(offers.size());
+        for (Offer offer : offers) {
+            ResourceSummary supply = offerSupplies.get(offer.getId());
+            if (supply == null) {
+                supply = ResourceSummary.ofOffer(offer);
+            }
+            if (supply.covers(demand)) {
+                sufficientOffers.add(offer);
+            } else {
+                logger.info("- Offer {} has insufficient total resources {} for {}",
+                        offer.getId().getValue(), supply, demand);
             }
         }
-        return Collections.emptyList();
+        return sufficientOffers;
+    }
+
+    private OfferEvaluation evaluateOffer(OfferRequirement offerRequirement, Offer offer) {
+        MesosResourcePool pool = new MesosResourcePool(offer);
+        return new OfferEvaluation(offer, pool, evaluateInternal(offerRequirement, offer, pool));
     }
 
     private List<Offer> evaluatePlacementRule(
             PlacementRule placementRule, OfferRequirement offerRequirement, List<Offer> offers) {
-        // Just fetch the tasks once, they shouldn't change within this evaluate() call:
-        Collection<TaskInfo> tasks = stateStore.fetchTasks();
+        // Just fetch the tasks once, they shouldn't change within this evaluate() call. Rules may then share any
+        // tallies of those tasks across all the offers being evaluated:
+        PlacementContext placementContext = new PlacementContext(offerRequirement, stateStore.fetchTasks());
         // The reference PlacementRules all have custom toString()s, so this should give a good
         // representation of the filter:
         logger.info("Evaluating {} offers against placement constraint '{}':", offers.size(), placementRule);
@@ -86,7 +243,7 @@ public class OfferEvaluator {
             // Pass offer with filtered resources removed:
             Offer offer = offers.get(index);
             int originalCount = offer.getResourcesCount();
-            offer = placementRule.filter(offer, offerRequirement, tasks);
+            offer = placementRule.filter(offer, placementContext);
             int filteredCount = offer.getResourcesCount();
             if (filteredCount == originalCount) {
                 logger.info("- {}: Fully passed placement constraint, " +
@@ -108,9 +265,8 @@ public class OfferEvaluator {
         return filteredOffers;
     }
 
-    private List<OfferRecommendation> evaluateInternal(OfferRequirement offerRequirement, Offer offer) {
-
-        MesosResourcePool pool = new MesosResourcePool(offer);
+    private List<OfferRecommendation> evaluateInternal(
+            OfferRequirement offerRequirement, Offer offer, MesosResourcePool pool) {
 
         List<OfferRecommendation> unreserves = new ArrayList<>();
         List<OfferRecommendation> reserves = new ArrayList<>();
@@ -201,6 +357,49 @@ public class OfferEvaluator {
         return recommendations;
     }
 
+    /**
+     * The result of evaluating an {@link OfferRequirement} against a single offer.
+     */
+    public static class OfferEvaluation {
+        private final Offer offer;
+        private final MesosResourcePool pool;
+        private final List<OfferRecommendation> recommendations;
+
+        private OfferEvaluation(Offer offer, MesosResourcePool pool, List<OfferRecommendation> recommendations) {
+            this.offer = offer;
+            this.pool = pool;
+            this.recommendations = recommendations;
+        }
+
+        /**
+         * Returns the offer which was evaluated, after any filtering by placement rules.
+         */
+        public Offer getOffer() {
+            return offer;
+        }
+
+        /**
+         * Returns the recommendations for launching the requirement against the offer, or an empty list if the offer
+         * didn't pass.
+         */
+        public List<OfferRecommendation> getRecommendations() {
+            return recommendations;
+        }
+
+        /**
+         * Returns a copy of the offer with the resources used by the recommendations removed.
+         *
+         * @see MesosResourcePool#getRemainingOffer()
+         */
+        public Offer getRemainingOffer() {
+            return pool.getRemainingOffer();
+        }
+
+        private boolean passed() {
+            return !recommendations.isEmpty();
+        }
+    }
+
     private static class FulfilledRequirement {
         private List<Resource> fulfilledResources = new ArrayList<>();
         private List<OfferRecommendation> unreserveRecommendations = new ArrayList<>();
@@ -0,0 +1,116 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thread-safe inventory of the offers which are currently held by the scheduler, keyed by {@link OfferID}.
+ *
+ * Offers are added as they're received from Mesos, and removed when they're accepted, declined, or rescinded. Offers
+ * which go unused in an offer cycle may be held for up to a configured duration, so that they may be used by later
+ * plan steps without waiting for Mesos to offer the resources again. Once an offer has been held for longer than that
+ * duration, it's returned by {@link #removeExpired(Collection)} so that it may be declined.
+ */
+public class OfferInventory {
+
+    private final Duration holdDuration;
+    // Insertion order is retained so that offers are evaluated in the order that they were received:
+    private final Map<OfferID, HeldOffer> offers = new LinkedHashMap<>();
+
+    /**
+     * Creates a new inventory which holds unused offers for up to the provided duration.
+     */
+    public OfferInventory(Duration holdDuration) {
+        this.holdDuration = holdDuration;
+    }
+
+    /**
+     * Adds newly received offers to the inventory.
+     */
+    public synchronized void add(Collection<Offer> newOffers) {
+        long nowMs = getCurrentTimeMs();
+        for (Offer offer : newOffers) {
+            offers.put(offer.getId(), new HeldOffer(offer, nowMs));
+        }
+    }
+
+    /**
+     * Removes a rescinded offer from the inventory.
+     *
+     * @return whether the offer was present in the inventory
+     */
+    public synchronized boolean rescind(OfferID offerId) {
+        return offers.remove(offerId) != null;
+    }
+
+    /**
+     * Removes the offers with the provided IDs, e.g. because they were accepted or declined. Unknown IDs are ignored.
+     */
+    public synchronized void remove(Collection<OfferID> offerIds) {
+        for (OfferID offerId : offerIds) {
+            offers.remove(offerId);
+        }
+    }
+
+    /**
+     * Removes and returns those of the provided offers which are still in the inventory and have been held for at
+     * least the hold duration. Only the provided offers are considered, so that offers which arrived after the
+     * caller's evaluation aren't removed before they've been evaluated.
+     */
+    public synchronized List<Offer> removeExpired(Collection<Offer> evaluatedOffers) {
+        long expiredBeforeMs = getCurrentTimeMs() - holdDuration.toMillis();
+        List<Offer> expired = new ArrayList<>();
+        for (Offer offer : evaluatedOffers) {
+            HeldOffer heldOffer = offers.get(offer.getId());
+            if (heldOffer != null && heldOffer.receivedMs <= expiredBeforeMs) {
+                expired.add(heldOffer.offer);
+                offers.remove(offer.getId());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Returns a snapshot of all offers in the inventory, in the order that they were received.
+     */
+    public synchronized List<Offer> getOffers() {
+        List<Offer> snapshot = new ArrayList<>(offers.size());
+        for (HeldOffer heldOffer : offers.values()) {
+            snapshot.add(heldOffer.offer);
+        }
+        return snapshot;
+    }
+
+    public synchronized boolean isEmpty() {
+        return offers.isEmpty();
+    }
+
+    public synchronized int size() {
+        return offers.size();
+    }
+
+    public Duration getHoldDuration() {
+        return holdDuration;
+    }
+
+    protected long getCurrentTimeMs() {
+        return System.currentTimeMillis();
+    }
+
+    private static class HeldOffer {
+        private final Offer offer;
+        private final long receivedMs;
+
+        private HeldOffer(Offer offer, long receivedMs) {
+            this.offer = offer;
+            this.receivedMs = receivedMs;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.mesos.Protos.ExecutorInfo;
 import org.apache.mesos.Protos.TaskInfo;
 import com.mesosphere.sdk.offer.constrain.PlacementRule;
+import com.mesosphere.sdk.offer.score.OfferScorer;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -16,14 +17,16 @@ import java.util.Optional;
  * In general these are Resource requirements, such as requiring a certain amount of cpu, memory,
  * and disk, as encapsulated by {@link TaskRequirement} and {@link ExecutorRequirement}.
  * More dynamic requirements may also be defined on the placement of the new task, as evaluated
- * by the provided {@link PlacementRule}s.
+ * by the provided {@link PlacementRule}s, and the offers which pass may be ranked by an {@link OfferScorer}.
  */
 public class OfferRequirement {
     private final String type;
     private final Collection<TaskRequirement> taskRequirements;
     private final Optional<ExecutorRequirement> executorRequirementOptional;
     private final Optional<PlacementRule> placementRuleOptional;
+    private final Optional<OfferScorer> offerScorerOptional;
     private final Integer index;
+    private final ResourceSummary resourceDemand;
 
     /**
      * Creates a new {@link OfferRequirement}.
@@ -50,7 +53,8 @@ public class OfferRequirement {
                 executorInfoOptional.isPresent() ?
                         Optional.of(ExecutorRequirement.create(executorInfoOptional.get())) :
                         Optional.empty(),
-                placementRuleOptional);
+                placementRuleOptional,
+                Optional.empty());
     }
 
     /**
@@ -83,7 +87,17 @@ public class OfferRequirement {
      * Creates and returns a new {@link OfferRequirement} with any placement rules removed.
      */
     public OfferRequirement withoutPlacementRules() {
-        return new OfferRequirement(type, index, taskRequirements, executorRequirementOptional, Optional.empty());
+        return new OfferRequirement(
+                type, index, taskRequirements, executorRequirementOptional, Optional.empty(), offerScorerOptional);
+    }
+
+    /**
+     * Creates and returns a new {@link OfferRequirement} which selects among passing offers using the provided
+     * scorer, if any.
+     */
+    public OfferRequirement withOfferScorer(Optional<OfferScorer> offerScorerOptional) {
+        return new OfferRequirement(
+                type, index, taskRequirements, executorRequirementOptional, placementRuleOptional, offerScorerOptional);
     }
 
     public static OfferRequirement create(
@@ -94,7 +108,7 @@ public class OfferRequirement {
             Optional<PlacementRule> placementRuleOptional) {
 
         return new OfferRequirement(taskType, index, taskRequirements, Optional.of(executorRequirement),
-                placementRuleOptional);
+                placementRuleOptional, Optional.empty());
     }
 
 
@@ -103,12 +117,15 @@ public class OfferRequirement {
             Integer index,
             Collection<TaskRequirement> taskRequirements,
             Optional<ExecutorRequirement> executorRequirementOptional,
-            Optional<PlacementRule> placementRuleOptional) {
+            Optional<PlacementRule> placementRuleOptional,
+            Optional<OfferScorer> offerScorerOptional) {
         this.type = type;
         this.index = index;
         this.taskRequirements = taskRequirements;
         this.executorRequirementOptional = executorRequirementOptional;
         this.placementRuleOptional = placementRuleOptional;
+        this.offerScorerOptional = offerScorerOptional;
+        this.resourceDemand = ResourceSummary.ofRequirements(executorRequirementOptional, taskRequirements);
     }
 
     public String getType() {
@@ -131,6 +148,18 @@ public class OfferRequirement {
         return placementRuleOptional;
     }
 
+    public Optional<OfferScorer> getOfferScorerOptional() {
+        return offerScorerOptional;
+    }
+
+    /**
+     * Returns the total resources which this requirement would consume from an offer, for quickly rejecting offers
+     * which are too small.
+     */
+    public ResourceSummary getResourceDemand() {
+        return resourceDemand;
+    }
+
     public Collection<String> getResourceIds() {
         Collection<String> resourceIds = new ArrayList<String>();
 
@@ -1,10 +1,7 @@
 package com.mesosphere.sdk.offer;
 
-import org.antlr.v4.runtime.misc.Interval;
-import org.antlr.v4.runtime.misc.IntervalSet;
 import org.apache.mesos.Protos.Value.Range;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,79 +17,24 @@ final class RangeAlgorithms {
      * Combines and flattens the provided sets of ranges into a unified set.
      */
     static List<Range> mergeRanges(List<Range> r1, List<Range> r2) {
-        List<Interval> intervals = rangesToIntervals(r1);
-        intervals.addAll(rangesToIntervals(r2));
-        IntervalSet intervalSet = intervalsToIntervalSet(intervals);
-
-        return intervalsToRanges(intervalSet.getIntervals());
+        RangeAllocator allocator = RangeAllocator.of(r1);
+        allocator.addAll(r2);
+        return allocator.toRanges();
     }
 
     /**
      * Removes the range intervals listed in {@code subtrahend} from {@code minuend}.
      */
     static List<Range> subtractRanges(List<Range> minuend, List<Range> subtrahend) {
-        IntervalSet iMinuend = intervalsToIntervalSet(rangesToIntervals(minuend));
-        IntervalSet iSubtrahend = intervalsToIntervalSet(rangesToIntervals(subtrahend));
-        IntervalSet iDifference = IntervalSet.subtract(iMinuend, iSubtrahend);
-        return intervalSetToRanges(iDifference);
+        RangeAllocator allocator = RangeAllocator.of(minuend);
+        allocator.removeAll(subtrahend);
+        return allocator.toRanges();
     }
 
     /**
      * Returns whether the provided sets of ranges are equivalent when any overlaps are flattened.
      */
     static boolean rangesEqual(List<Range> list1, List<Range> list2) {
-        IntervalSet i1 = intervalsToIntervalSet(rangesToIntervals(list1));
-        IntervalSet i2 = intervalsToIntervalSet(rangesToIntervals(list2));
-        return i1.equals(i2);
-    }
-
-    private static Interval rangeToInterval(Range range) {
-        return Interval.of((int) range.getBegin(), (int) range.getEnd());
-    }
-
-    private static Range intervalToRange(Interval interval) {
-        Range.Builder builder = Range.newBuilder();
-        builder.setBegin(interval.a);
-        builder.setEnd(interval.b);
-
-        return builder.build();
-    }
-
-    private static List<Interval> rangesToIntervals(List<Range> ranges) {
-        List<Interval> intervals = new ArrayList<Interval>();
-
-        for (Range range : ranges) {
-            intervals.add(rangeToInterval(range));
-        }
-
-        return intervals;
-    }
-
-    private static List<Range> intervalsToRanges(List<Interval> intervals) {
-        List<Range> ranges = new ArrayList<Range>();
-
-        for (Interval interval : intervals) {
-            ranges.add(intervalToRange(interval));
-        }
-
-        return ranges;
-    }
-
-    private static IntervalSet intervalsToIntervalSet(List<Interval> intervals) {
-        IntervalSet intervalSet = new IntervalSet();
-        for (Interval interval : intervals) {
-            intervalSet.add(interval.a, interval.b);
-        }
-
-        return intervalSet;
-    }
-
-    private static List<Range> intervalSetToRanges(IntervalSet intervalSet) {
-        if (intervalSet.isNil()) {
-            return new ArrayList<Range>();
-        }
-
-        List<Interval> intervals = intervalSet.getIntervals();
-        return intervalsToRanges(intervals);
+        return RangeAllocator.of(list1).equals(RangeAllocator.of(list2));
     }
 }
@@ -0,0 +1,256 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A mutable set of inclusive ranges, such as the ports available in an offer, from which individual values may be
+ * allocated and released.
+ *
+ * Ranges are held as a sorted array of non-overlapping, non-adjacent intervals in the form
+ * {@code [begin0, end0, begin1, end1, ...]}. Intervals are located with a binary search, so lookups, allocations and
+ * releases take O(log n) for n disjoint intervals, plus an array shift when an interval is split or when intervals
+ * are merged. Allocating the lowest available value, or any value at the edge of an interval, never shifts.
+ *
+ * This class is not thread-safe.
+ */
+final class RangeAllocator {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] intervals;
+    private int length;
+
+    RangeAllocator() {
+        this.intervals = new long[INITIAL_CAPACITY];
+        this.length = 0;
+    }
+
+    /**
+     * Returns a new allocator containing the provided ranges, which may overlap or be unsorted.
+     */
+    static RangeAllocator of(List<Range> ranges) {
+        RangeAllocator allocator = new RangeAllocator();
+        allocator.addAll(ranges);
+        return allocator;
+    }
+
+    /**
+     * Adds all of the provided ranges to this allocator.
+     */
+    void addAll(List<Range> ranges) {
+        for (Range range : ranges) {
+            add(range.getBegin(), range.getEnd());
+        }
+    }
+
+    /**
+     * Removes all of the provided ranges from this allocator.
+     */
+    void removeAll(List<Range> ranges) {
+        for (Range range : ranges) {
+            remove(range.getBegin(), range.getEnd());
+        }
+    }
+
+    /**
+     * Returns whether all of the provided ranges are available in this allocator.
+     */
+    boolean containsAll(List<Range> ranges) {
+        for (Range range : ranges) {
+            if (!contains(range.getBegin(), range.getEnd())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the inclusive range {@code [begin, end]} to this allocator, merging it with any overlapping or adjacent
+     * intervals.
+     */
+    void add(long begin, long end) {
+        if (begin > end) {
+            return;
+        }
+        // The intervals to merge are those which overlap or touch [begin - 1, end + 1]:
+        int first = floorInterval(begin);
+        if (first < 0 || intervals[2 * first + 1] < decrement(begin)) {
+            ++first;
+        }
+        int last = floorInterval(increment(end));
+        if (first <= last) {
+            begin = Math.min(begin, intervals[2 * first]);
+            end = Math.max(end, intervals[2 * last + 1]);
+        }
+        replace(first, last, 1, begin, end, 0, 0);
+    }
+
+    /**
+     * Removes the inclusive range {@code [begin, end]} from this allocator. Any part of the range which isn't
+     * available is ignored.
+     */
+    void remove(long begin, long end) {
+        if (begin > end) {
+            return;
+        }
+        int first = floorInterval(begin);
+        if (first < 0 || intervals[2 * first + 1] < begin) {
+            ++first;
+        }
+        int last = floorInterval(end);
+        if (first > last) {
+            return; // no overlap
+        }
+        long firstBegin = intervals[2 * first];
+        long lastEnd = intervals[2 * last + 1];
+        if (firstBegin < begin && lastEnd > end) {
+            replace(first, last, 2, firstBegin, begin - 1, end + 1, lastEnd);
+        } else if (firstBegin < begin) {
+            replace(first, last, 1, firstBegin, begin - 1, 0, 0);
+        } else if (lastEnd > end) {
+            replace(first, last, 1, end + 1, lastEnd, 0, 0);
+        } else {
+            replace(first, last, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Returns whether the inclusive range {@code [begin, end]} is fully available in this allocator.
+     */
+    boolean contains(long begin, long end) {
+        // Intervals are non-adjacent, so an available range must lie within a single interval:
+        int index = floorInterval(begin);
+        return index >= 0 && end <= intervals[2 * index + 1];
+    }
+
+    /**
+     * Removes and returns the lowest available value, or returns an empty value if nothing is available.
+     */
+    OptionalLong allocate() {
+        if (length == 0) {
+            return OptionalLong.empty();
+        }
+        long value = intervals[0];
+        remove(value, value);
+        return OptionalLong.of(value);
+    }
+
+    /**
+     * Removes and returns the preferred value if it's available, or otherwise the lowest available value. Returns an
+     * empty value if nothing is available.
+     */
+    OptionalLong allocate(OptionalLong preferredValue) {
+        if (preferredValue.isPresent() && contains(preferredValue.getAsLong(), preferredValue.getAsLong())) {
+            remove(preferredValue.getAsLong(), preferredValue.getAsLong());
+            return preferredValue;
+        }
+        return allocate();
+    }
+
+    /**
+     * Marks the provided value as available again.
+     */
+    void release(long value) {
+        add(value, value);
+    }
+
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the available ranges, sorted and with any adjacent ranges merged.
+     */
+    List<Range> toRanges() {
+        List<Range> ranges = new ArrayList<>(length / 2);
+        for (int i = 0; i < length; i += 2) {
+            ranges.add(Range.newBuilder().setBegin(intervals[i]).setEnd(intervals[i + 1]).build());
+        }
+        return ranges;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RangeAllocator)) {
+            return false;
+        }
+        RangeAllocator other = (RangeAllocator) o;
+        if (length != other.length) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (intervals[i] != other.intervals[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(Arrays.copyOf(intervals, length));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RangeAllocator{intervals=%s}", Arrays.toString(Arrays.copyOf(intervals, length)));
+    }
+
+    /**
+     * Returns the index of the last interval which begins at or before the provided value, or -1 if there is none.
+     */
+    private int floorInterval(long value) {
+        int low = 0;
+        int high = length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (intervals[2 * mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Replaces the intervals at indexes {@code [first, last]}, which may be empty when {@code last < first}, with
+     * {@code count} (0 to 2) new intervals.
+     */
+    private void replace(int first, int last, int count, long begin0, long end0, long begin1, long end1) {
+        int removed = Math.max(0, last - first + 1);
+        int tailStart = 2 * (first + removed);
+        int newLength = length + 2 * (count - removed);
+        if (newLength > intervals.length) {
+            intervals = Arrays.copyOf(intervals, Math.max(newLength, intervals.length * 2));
+        }
+        if (count != removed) {
+            System.arraycopy(intervals, tailStart, intervals, 2 * (first + count), length - tailStart);
+        }
+        if (count > 0) {
+            intervals[2 * first] = begin0;
+            intervals[2 * first + 1] = end0;
+        }
+        if (count > 1) {
+            intervals[2 * first + 2] = begin1;
+            intervals[2 * first + 3] = end1;
+        }
+        length = newLength;
+    }
+
+    private static long decrement(long value) {
+        return value == Long.MIN_VALUE ? value : value - 1;
+    }
+
+    private static long increment(long value) {
+        return value == Long.MAX_VALUE ? value : value + 1;
+    }
+}
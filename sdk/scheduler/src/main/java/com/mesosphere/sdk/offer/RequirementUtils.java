@@ -6,6 +6,7 @@ import org.apache.mesos.Protos.Resource;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.OptionalLong;
 
 /**
  * Implementations for common operations on Task/Executor/Resource requirements.
@@ -51,11 +52,22 @@ public class RequirementUtils {
 
     public static Collection<DynamicPortRequirement> getDynamicPortRequirements(List<Resource> resources)
                     throws DynamicPortRequirement.DynamicPortException {
+        return getDynamicPortRequirements(resources, Protos.Environment.getDefaultInstance());
+    }
+
+    /**
+     * Returns the dynamic port requirements within the provided resources. If the provided environment already
+     * assigns a port number to a dynamic port's name, then that port is preferred when the requirement is fulfilled.
+     */
+    public static Collection<DynamicPortRequirement> getDynamicPortRequirements(
+            List<Resource> resources, Protos.Environment environment)
+                    throws DynamicPortRequirement.DynamicPortException {
         Collection<DynamicPortRequirement> portRequirements = new ArrayList<>();
 
         for (Resource resource : resources) {
             if (isDynamicPort(resource)) {
-                portRequirements.add(new DynamicPortRequirement(resource));
+                portRequirements.add(new DynamicPortRequirement(
+                        resource, getPreferredPort(DynamicPortRequirement.getPortName(resource), environment)));
             }
         }
 
@@ -75,6 +87,22 @@ public class RequirementUtils {
         return portRequirements;
     }
 
+    private static OptionalLong getPreferredPort(String portName, Protos.Environment environment) {
+        if (portName == null) {
+            return OptionalLong.empty();
+        }
+        for (Protos.Environment.Variable variable : environment.getVariablesList()) {
+            if (variable.getName().equals(portName)) {
+                try {
+                    return OptionalLong.of(Long.parseLong(variable.getValue()));
+                } catch (NumberFormatException e) {
+                    return OptionalLong.empty();
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
     static boolean isDynamicPort(Resource resource) {
         if (resource.getName().equals("ports")) {
             List<Protos.Value.Range> ranges = resource.getRanges().getRangeList();
@@ -8,37 +8,99 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Offer.Operation;
 import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.TaskInfo;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreEvent;
 import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.state.StateStoreListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The Resource Cleaner provides recommended operations for cleaning up
  * unexpected Reserved resources and persistent volumes.
+ *
+ * The expected resources are read from the {@link StateStore} once at construction, and are then kept up to date
+ * incrementally: as an {@link OperationRecorder} the cleaner observes the tasks which are launched, and as a
+ * {@link StateStoreListener} it observes the tasks which are cleared from the {@link StateStore}, so that their
+ * resources are then cleaned up.
  */
-public class ResourceCleaner {
+public class ResourceCleaner implements OperationRecorder, StateStoreListener {
     private static final Logger logger = LoggerFactory.getLogger(ResourceCleaner.class);
 
+    // The expected resource ids of each task, keyed by task name:
+    private final Map<String, ExpectedIds> expectedIdsByTask = new HashMap<>();
+    // The following map each expected id to the number of tasks referencing it, as tasks within a pod share their
+    // executor's resources.
     // Only Persistent Volumes are DESTROYed
-    private final Set<String> expectedPersistentVolumeIds;
+    private final Map<String, Integer> expectedPersistentVolumeIds = new HashMap<>();
     // Both Persistent Volumes AND Reserved Resources are UNRESERVEd
-    private final Set<String> expectedReservedResourceIds;
+    private final Map<String, Integer> expectedReservedResourceIds = new HashMap<>();
 
     /**
      * Creates a new {@link ResourceCleaner} which retrieves expected resource
-     * information from the provided {@link StateStore}.
+     * information from the provided {@link StateStore}, and subscribes to it for tasks which are cleared.
      *
      * @throws StateStoreException
      *             if there's a failure when retrieving resource information
      */
     public ResourceCleaner(StateStore stateStore) {
-        Collection<Resource> expectedResources = getExpectedResources(stateStore);
-        this.expectedPersistentVolumeIds = getPersistentVolumeIds(expectedResources);
-        this.expectedReservedResourceIds = getReservedResourceIds(expectedResources);
+        try {
+            stateStore.subscribe(this);
+        } catch (UnsupportedOperationException e) {
+            logger.warn("State store doesn't support change notifications: resources of cleared tasks will only be " +
+                    "cleaned up after the scheduler is restarted", e);
+        }
+        updateTasks(stateStore.fetchTasks());
+    }
+
+    /**
+     * Removes the expected resources of any task which is cleared from the {@link StateStore}.
+     */
+    @Override
+    public void onEvent(StateStoreEvent event) {
+        if (event.getType() == StateStoreEvent.Type.TASK_CLEARED) {
+            removeTask(event.getName());
+        }
+    }
+
+    /**
+     * Updates the expected resources with those of any tasks launched by the provided {@link Operation}.
+     */
+    @Override
+    public void record(Operation operation, Offer offer) {
+        if (operation.getType() == Operation.Type.LAUNCH) {
+            updateTasks(operation.getLaunch().getTaskInfosList());
+        }
+    }
+
+    /**
+     * Replaces the expected resources of the provided tasks, matched by task name.
+     */
+    public synchronized void updateTasks(Collection<TaskInfo> taskInfos) {
+        for (TaskInfo taskInfo : taskInfos) {
+            removeTask(taskInfo.getName());
+            Collection<Resource> resources = getExpectedResources(taskInfo);
+            ExpectedIds expectedIds = new ExpectedIds(
+                    getPersistentVolumeIds(resources), getReservedResourceIds(resources));
+            expectedIdsByTask.put(taskInfo.getName(), expectedIds);
+            addAll(expectedPersistentVolumeIds, expectedIds.persistentVolumeIds);
+            addAll(expectedReservedResourceIds, expectedIds.reservedResourceIds);
+        }
+    }
+
+    /**
+     * Removes the expected resources of the task with the provided name. Unknown task names are ignored.
+     */
+    public synchronized void removeTask(String taskName) {
+        ExpectedIds expectedIds = expectedIdsByTask.remove(taskName);
+        if (expectedIds != null) {
+            removeAll(expectedPersistentVolumeIds, expectedIds.persistentVolumeIds);
+            removeAll(expectedReservedResourceIds, expectedIds.reservedResourceIds);
+        }
     }
 
     /**
@@ -46,7 +108,7 @@ public class ResourceCleaner {
      * from Mesos. The returned operations MUST be performed in the order in which they are
      * provided.
      */
-    public List<OfferRecommendation> evaluate(List<Offer> offers) {
+    public synchronized List<OfferRecommendation> evaluate(List<Offer> offers) {
         // ORDERING IS IMPORTANT:
         //    The resource lifecycle is RESERVE -> CREATE -> DESTROY -> UNRESERVE
         // Therefore we *must* put any DESTROY calls before any UNRESERVE calls
@@ -57,7 +119,7 @@ public class ResourceCleaner {
         for (Offer offer : offers) {
             offerResourceCount += offer.getResourcesCount();
             for (Resource toDestroy : selectUnexpectedResources(
-                    expectedPersistentVolumeIds, getPersistentVolumesById(offer))) {
+                    expectedPersistentVolumeIds.keySet(), getPersistentVolumesById(offer))) {
                 recommendations.add(new DestroyOfferRecommendation(offer, toDestroy));
             }
         }
@@ -67,7 +129,7 @@ public class ResourceCleaner {
         // (both) be UNRESERVEd
         for (Offer offer : offers) {
             for (Resource toUnreserve : selectUnexpectedResources(
-                    expectedReservedResourceIds, getReservedResourcesById(offer))) {
+                    expectedReservedResourceIds.keySet(), getReservedResourcesById(offer))) {
                 recommendations.add(new UnreserveOfferRecommendation(offer, toUnreserve));
             }
         }
@@ -97,24 +159,33 @@ public class ResourceCleaner {
     }
 
     /**
-     * Returns a list of all expected resources, which are extracted from all {@link org.apache.mesos.Protos.TaskInfo}s
-     * produced by the provided {@link StateStore}.
+     * Returns a list of all expected resources of the provided {@link TaskInfo}.
      */
-    private static Collection<Resource> getExpectedResources(StateStore stateStore)
-            throws StateStoreException {
+    private static Collection<Resource> getExpectedResources(TaskInfo taskInfo) {
         Collection<Resource> resources = new ArrayList<>();
 
-        for (Protos.TaskInfo taskInfo : stateStore.fetchTasks()) {
-            // get all resources from both the task level and the executor level
-            resources.addAll(taskInfo.getResourcesList());
-            if (taskInfo.hasExecutor()) {
-                resources.addAll(taskInfo.getExecutor().getResourcesList());
-            }
+        // get all resources from both the task level and the executor level
+        resources.addAll(taskInfo.getResourcesList());
+        if (taskInfo.hasExecutor()) {
+            resources.addAll(taskInfo.getExecutor().getResourcesList());
         }
 
         return resources;
     }
 
+    private static void addAll(Map<String, Integer> idCounts, Set<String> ids) {
+        for (String id : ids) {
+            idCounts.merge(id, 1, Integer::sum);
+        }
+    }
+
+    private static void removeAll(Map<String, Integer> idCounts, Set<String> ids) {
+        for (String id : ids) {
+            // Drop the entry entirely once no tasks reference the id:
+            idCounts.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
     /**
      * Returns the resource ids for all {@code resources} which represent persistent volumes, or
      * an empty list if no persistent volume resources were found.
@@ -184,4 +255,17 @@ public class ResourceCleaner {
 
         return reservedResources;
     }
+
+    /**
+     * The expected resource ids of a single task.
+     */
+    private static class ExpectedIds {
+        private final Set<String> persistentVolumeIds;
+        private final Set<String> reservedResourceIds;
+
+        private ExpectedIds(Set<String> persistentVolumeIds, Set<String> reservedResourceIds) {
+            this.persistentVolumeIds = persistentVolumeIds;
+            this.reservedResourceIds = reservedResourceIds;
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.ExecutorInfo;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Aggregate totals of the cpus, mem, disk, and ports within an {@link Offer} (its supply) or needed by an
+ * {@link OfferRequirement} (its demand). Reserved and unreserved resources are counted alike, so an offer whose supply
+ * doesn't cover a requirement's demand can't possibly pass a full evaluation, and may be rejected without building a
+ * {@link MesosResourcePool}. The reverse doesn't hold: an offer whose supply covers the demand may still fail.
+ */
+public final class ResourceSummary {
+
+    /**
+     * Tolerance for rounding differences between summing resources here and consuming them in a resource pool. This
+     * only ever lets more offers through to the full evaluation.
+     */
+    private static final double TOLERANCE = 1e-6;
+
+    private final double cpus;
+    private final double mem;
+    private final double disk;
+    private final long ports;
+
+    private ResourceSummary(double cpus, double mem, double disk, long ports) {
+        this.cpus = cpus;
+        this.mem = mem;
+        this.disk = disk;
+        this.ports = ports;
+    }
+
+    /**
+     * Returns the total resources offered by the provided offer.
+     */
+    public static ResourceSummary ofOffer(Offer offer) {
+        return new Builder().addAll(offer.getResourcesList()).build();
+    }
+
+    /**
+     * Returns the total resources offered by each of the provided offers, keyed by offer ID.
+     */
+    public static Map<OfferID, ResourceSummary> ofOffers(List<Offer> offers) {
+        Map<OfferID, ResourceSummary> summaries = new HashMap<>();
+        for (Offer offer : offers) {
+            summaries.put(offer.getId(), ofOffer(offer));
+        }
+        return summaries;
+    }
+
+    /**
+     * Returns the total resources which would be consumed from an offer by the provided requirements. Executor
+     * resources are only included when the executor needs to be launched.
+     */
+    static ResourceSummary ofRequirements(
+            Optional<ExecutorRequirement> executorRequirementOptional,
+            Iterable<TaskRequirement> taskRequirements) {
+        Builder builder = new Builder();
+        if (executorRequirementOptional.isPresent()) {
+            ExecutorRequirement executorRequirement = executorRequirementOptional.get();
+            ExecutorInfo executorInfo = executorRequirement.getExecutorInfo();
+            if (executorRequirement.desiresResources() || executorInfo.getExecutorId().getValue().isEmpty()) {
+                builder.addAll(executorInfo.getResourcesList());
+            }
+        }
+        for (TaskRequirement taskRequirement : taskRequirements) {
+            builder.addAll(taskRequirement.getTaskInfo().getResourcesList());
+        }
+        return builder.build();
+    }
+
+    public double getCpus() {
+        return cpus;
+    }
+
+    public double getMem() {
+        return mem;
+    }
+
+    public double getDisk() {
+        return disk;
+    }
+
+    public long getPorts() {
+        return ports;
+    }
+
+    /**
+     * Returns whether this supply is large enough to cover the provided demand.
+     */
+    public boolean covers(ResourceSummary demand) {
+        return demand.cpus <= cpus + TOLERANCE
+                && demand.mem <= mem + TOLERANCE
+                && demand.disk <= disk + TOLERANCE
+                && demand.ports <= ports;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResourceSummary{cpus=%s, mem=%s, disk=%s, ports=%d}", cpus, mem, disk, ports);
+    }
+
+    private static class Builder {
+        private double cpus;
+        private double mem;
+        private double disk;
+        private long ports;
+
+        private Builder addAll(List<Resource> resources) {
+            for (Resource resource : resources) {
+                add(resource);
+            }
+            return this;
+        }
+
+        private void add(Resource resource) {
+            switch (resource.getName()) {
+                case "cpus":
+                    cpus += getScalar(resource);
+                    break;
+                case "mem":
+                    mem += getScalar(resource);
+                    break;
+                case "disk":
+                    disk += getScalar(resource);
+                    break;
+                case "ports":
+                    if (resource.getType() == Value.Type.RANGES) {
+                        for (Value.Range range : resource.getRanges().getRangeList()) {
+                            // Dynamic ports are requested as [0, 0], which likewise counts as a single port:
+                            ports += range.getEnd() - range.getBegin() + 1;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private static double getScalar(Resource resource) {
+            return resource.getType() == Value.Type.SCALAR ? resource.getScalar().getValue() : 0;
+        }
+
+        private ResourceSummary build() {
+            return new ResourceSummary(cpus, mem, disk, ports);
+        }
+    }
+}
@@ -25,7 +25,8 @@ public class TaskRequirement {
         this.resourceRequirements =
                 RequirementUtils.getResourceRequirements(taskInfo.getResourcesList());
         this.dynamicPortRequirements =
-                RequirementUtils.getDynamicPortRequirements(taskInfo.getResourcesList());
+                RequirementUtils.getDynamicPortRequirements(
+                        taskInfo.getResourcesList(), taskInfo.getCommand().getEnvironment());
         this.namedVIPPortRequirements =
                 RequirementUtils.getNamedVIPPortRequirements(taskInfo.getResourcesList());
     }
@@ -12,6 +12,15 @@ import java.util.List;
  * Utilities for manipulating Value protobufs.
  */
 public class ValueUtils {
+    private static final Value ZERO_SCALAR = Value.newBuilder()
+            .setType(Type.SCALAR)
+            .setScalar(Value.Scalar.newBuilder().setValue(0))
+            .build();
+    private static final Value ZERO_RANGES = Value.newBuilder()
+            .setType(Type.RANGES)
+            .setRanges(Value.Ranges.newBuilder().addAllRange(Collections.emptyList()))
+            .build();
+
     public static Value getValue(Resource resource) {
         Type type = resource.getType();
         Value.Builder builder = Value.newBuilder();
@@ -141,14 +150,16 @@ public class ValueUtils {
         }
     }
 
+    /**
+     * Returns an empty value of the provided type, or {@code null} if the type is not supported. The returned values
+     * are immutable and shared across calls.
+     */
     public static Value getZero(Value.Type type) {
         switch (type) {
             case SCALAR:
-                Value.Scalar scalar = Value.Scalar.newBuilder().setValue(0).build();
-                return Value.newBuilder().setType(type).setScalar(scalar).build();
+                return ZERO_SCALAR;
             case RANGES:
-                Value.Ranges ranges = Value.Ranges.newBuilder().addAllRange(Collections.emptyList()).build();
-                return Value.newBuilder().setType(type).setRanges(ranges).build();
+                return ZERO_RANGES;
             default:
                 return null;
         }
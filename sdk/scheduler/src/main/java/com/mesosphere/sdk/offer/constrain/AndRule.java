@@ -32,14 +32,19 @@ public class AndRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
+        return filter(offer, new PlacementContext(offerRequirement, tasks));
+    }
+
+    @Override
+    public Offer filter(Offer offer, PlacementContext context) {
         // Uses Collection.retainAll() to implement a set intersection:
         boolean inited = false;
         Collection<Resource> survivingResources = new ArrayList<>();
         for (PlacementRule rule : rules) {
             if (inited) {
-                survivingResources.retainAll(rule.filter(offer, offerRequirement, tasks).getResourcesList());
+                survivingResources.retainAll(rule.filter(offer, context).getResourcesList());
             } else {
-                survivingResources.addAll(rule.filter(offer, offerRequirement, tasks).getResourcesList());
+                survivingResources.addAll(rule.filter(offer, context).getResourcesList());
                 inited = true;
             }
             if (survivingResources.isEmpty()) {
@@ -8,7 +8,6 @@ import org.apache.mesos.Protos.Attribute;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
 import com.mesosphere.sdk.offer.AttributeStringUtils;
-import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.offer.OfferRequirement;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -98,6 +97,11 @@ public class MaxPerAttributeRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
+        return filter(offer, new PlacementContext(offerRequirement, tasks));
+    }
+
+    @Override
+    public Offer filter(Offer offer, PlacementContext context) {
         // collect all the attribute values present in this offer:
         Set<String> offerAttributeStrings = new HashSet<>();
         for (Attribute attributeProto : offer.getAttributesList()) {
@@ -108,44 +112,21 @@ public class MaxPerAttributeRule implements PlacementRule {
             return offer;
         }
 
-        // map: enforced attribute in offer => # other tasks which were launched against attribute
-        Map<String, Integer> offerAttrTaskCounts = new HashMap<>();
-        for (TaskInfo task : tasks) {
-            // only tally tasks which match the task matcher (eg 'index-.*')
-            if (!taskFilter.matches(task.getName())) {
-                continue;
-            }
-            if (PlacementUtils.areEquivalent(task, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about counting its attribute usage. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
+        // map: attribute => # other tasks which were launched against attribute
+        Map<String, Integer> attrTaskCounts = context.getAttributeCounts(taskFilter);
+        for (String offerAttributeString : offerAttributeStrings) {
+            // only enforce attribute(s) that match the attribute matcher (eg 'rack:.*'):
+            if (!attributeMatcher.matches(offerAttributeString)) {
                 continue;
             }
-            for (String taskAttributeString : CommonTaskUtils.getOfferAttributeStrings(task)) {
-                // only tally attribute values that are actually present in the offer
-                if (!offerAttributeStrings.contains(taskAttributeString)) {
-                    continue;
-                }
-                // only tally attribute(s) that match the attribute matcher (eg 'rack:.*'):
-                if (!attributeMatcher.matches(taskAttributeString)) {
-                    continue;
-                }
-                // increment the tally for this exact attribute value (eg 'rack:9'):
-                Integer val = offerAttrTaskCounts.get(taskAttributeString);
-                if (val == null) {
-                    val = 0;
-                }
-                val++;
-                if (val >= maxTasksPerSelectedAttribute) {
-                    // this attribute value's usage meets or exceeds the limit, and it is
-                    // present in this offer per the earlier check. offer denied!
-                    return offer.toBuilder().clearResources().build();
-                }
-                offerAttrTaskCounts.put(taskAttributeString, val);
+            Integer count = attrTaskCounts.get(offerAttributeString);
+            if (count != null && count >= maxTasksPerSelectedAttribute) {
+                // this attribute value's usage meets or exceeds the limit, and it is
+                // present in this offer. offer denied!
+                return offer.toBuilder().clearResources().build();
             }
         }
-        // after scanning all the tasks for usage of attributes present in this offer, nothing
-        // hit or exceeded the limit. offer accepted!
+        // none of the attributes present in this offer hit or exceed the limit. offer accepted!
         return offer;
     }
 
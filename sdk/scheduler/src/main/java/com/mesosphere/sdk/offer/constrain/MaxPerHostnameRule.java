@@ -6,11 +6,7 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
-import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.offer.OfferRequirement;
-import com.mesosphere.sdk.offer.TaskException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -38,8 +34,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 public class MaxPerHostnameRule implements PlacementRule {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(MaxPerHostnameRule.class);
-
     private final int maxTasksPerHostname;
     private final StringMatcher taskFilter;
 
@@ -77,36 +71,17 @@ public class MaxPerHostnameRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
-        int offerHostnameTaskCounts = 0;
-        for (TaskInfo task : tasks) {
-            // only tally tasks which match the task matcher (eg 'index-.*')
-            if (!taskFilter.matches(task.getName())) {
-                continue;
-            }
-            if (PlacementUtils.areEquivalent(task, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about counting its usage. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            final String taskHostname;
-            try {
-                taskHostname = CommonTaskUtils.getHostname(task);
-            } catch (TaskException e) {
-                LOGGER.warn("Unable to extract hostname from task for filtering", e);
-                continue;
-            }
-            if (!taskHostname.equals(offer.getHostname())) {
-                continue;
-            }
-            ++offerHostnameTaskCounts;
-            if (offerHostnameTaskCounts >= maxTasksPerHostname) {
-                // the hostname for this offer meets or exceeds the limit. offer denied!
-                return offer.toBuilder().clearResources().build();
-            }
+        return filter(offer, new PlacementContext(offerRequirement, tasks));
+    }
+
+    @Override
+    public Offer filter(Offer offer, PlacementContext context) {
+        Integer offerHostnameTaskCount = context.getHostnameCounts(taskFilter).get(offer.getHostname());
+        if (offerHostnameTaskCount != null && offerHostnameTaskCount >= maxTasksPerHostname) {
+            // the hostname for this offer meets or exceeds the limit. offer denied!
+            return offer.toBuilder().clearResources().build();
         }
-        // after scanning all the tasks for usage of attributes present in this offer, nothing
-        // hit or exceeded the limit. offer accepted!
+        // the tasks on this offer's hostname don't hit or exceed the limit. offer accepted!
         return offer;
     }
 
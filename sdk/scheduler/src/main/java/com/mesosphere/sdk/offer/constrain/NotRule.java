@@ -28,7 +28,12 @@ public class NotRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
-        Offer filtered = rule.filter(offer, offerRequirement, tasks);
+        return filter(offer, new PlacementContext(offerRequirement, tasks));
+    }
+
+    @Override
+    public Offer filter(Offer offer, PlacementContext context) {
+        Offer filtered = rule.filter(offer, context);
         if (filtered.getResourcesCount() == 0) {
             // shortcut: all resources were filtered out, so return all resources
             return offer;
@@ -33,9 +33,14 @@ public class OrRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
+        return filter(offer, new PlacementContext(offerRequirement, tasks));
+    }
+
+    @Override
+    public Offer filter(Offer offer, PlacementContext context) {
         Set<Resource> resourceUnion = new HashSet<>();
         for (PlacementRule rule : rules) {
-            Offer filtered = rule.filter(offer, offerRequirement, tasks);
+            Offer filtered = rule.filter(offer, context);
             for (Resource resource : filtered.getResourcesList()) {
                 resourceUnion.add(resource);
             }
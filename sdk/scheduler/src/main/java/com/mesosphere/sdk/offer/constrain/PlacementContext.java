@@ -0,0 +1,191 @@
+package com.mesosphere.sdk.offer.constrain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.mesos.Protos.SlaveID;
+import org.apache.mesos.Protos.TaskInfo;
+import com.mesosphere.sdk.offer.AttributeStringUtils;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.offer.TaskException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The state against which {@link PlacementRule}s are evaluated for a single {@link OfferRequirement}, shared across
+ * all of the offers being evaluated for that requirement.
+ *
+ * The tasks are only parsed once, on first use, and each tally requested by a rule is computed once and then reused
+ * for every subsequent offer. This allows rules to evaluate each offer with lookups against the tallies, rather than
+ * rescanning every task for every offer. Tasks which are equivalent to the {@link OfferRequirement} being placed are
+ * omitted from the tallies, see {@link PlacementUtils#areEquivalent(TaskInfo, OfferRequirement)}.
+ *
+ * This class is thread-safe.
+ */
+public class PlacementContext {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlacementContext.class);
+
+    private final OfferRequirement offerRequirement;
+    private final Collection<TaskInfo> tasks;
+
+    private final Map<List<Object>, Object> tallies = new ConcurrentHashMap<>();
+    private volatile List<TaskEntry> taskEntries;
+
+    public PlacementContext(OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
+        this.offerRequirement = offerRequirement;
+        this.tasks = tasks;
+    }
+
+    public OfferRequirement getOfferRequirement() {
+        return offerRequirement;
+    }
+
+    public Collection<TaskInfo> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the number of tasks on each hostname, counting only tasks whose names match the provided filter.
+     */
+    public Map<String, Integer> getHostnameCounts(StringMatcher taskFilter) {
+        return getTally(Arrays.asList("hostname", taskFilter), () -> {
+            Map<String, Integer> counts = new HashMap<>();
+            for (TaskEntry entry : getFilteredEntries(taskFilter)) {
+                if (entry.hostname == null) {
+                    LOGGER.warn("Unable to extract hostname from task for filtering: {}", entry.task.getName());
+                    continue;
+                }
+                counts.merge(entry.hostname, 1, Integer::sum);
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the number of tasks on each attribute string (e.g. 'rack:a'), counting only tasks whose names match the
+     * provided filter.
+     */
+    public Map<String, Integer> getAttributeCounts(StringMatcher taskFilter) {
+        return getTally(Arrays.asList("attribute", taskFilter), () -> {
+            Map<String, Integer> counts = new HashMap<>();
+            for (TaskEntry entry : getFilteredEntries(taskFilter)) {
+                for (String attributeString : entry.attributeStrings) {
+                    counts.merge(attributeString, 1, Integer::sum);
+                }
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the number of tasks on each value of the named attribute (matched case-insensitively), counting only
+     * tasks whose names match the provided filter. Tasks without the attribute aren't counted.
+     */
+    public Map<String, Integer> getAttributeValueCounts(String attributeName, StringMatcher taskFilter) {
+        return getTally(Arrays.asList("attribute-value", attributeName.toLowerCase(), taskFilter), () -> {
+            Map<String, Integer> counts = new HashMap<>();
+            for (TaskEntry entry : getFilteredEntries(taskFilter)) {
+                for (String attributeString : entry.attributeStrings) {
+                    AttributeStringUtils.NameValue nameValue = AttributeStringUtils.split(attributeString);
+                    if (nameValue.name.equalsIgnoreCase(attributeName)) {
+                        counts.merge(nameValue.value, 1, Integer::sum);
+                        break;
+                    }
+                }
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the agents running each task type, as produced by the provided converter. Every task type present in
+     * the tasks has an entry, but tasks which are equivalent to the {@link OfferRequirement} being placed don't
+     * contribute their agent, so a type may map to an empty set.
+     */
+    public Map<String, Set<SlaveID>> getTaskTypeAgents(TaskTypeConverter typeConverter) {
+        return getTally(Arrays.asList("task-type", typeConverter), () -> {
+            Map<String, Set<SlaveID>> agentsByType = new HashMap<>();
+            for (TaskEntry entry : getTaskEntries()) {
+                Set<SlaveID> agents = agentsByType.computeIfAbsent(
+                        typeConverter.getTaskType(entry.task), type -> new HashSet<>());
+                if (!entry.equivalent) {
+                    agents.add(entry.task.getSlaveId());
+                }
+            }
+            return agentsByType;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getTally(List<Object> key, Supplier<T> supplier) {
+        return (T) tallies.computeIfAbsent(key, k -> supplier.get());
+    }
+
+    private List<TaskEntry> getFilteredEntries(StringMatcher taskFilter) {
+        List<TaskEntry> filtered = new ArrayList<>();
+        for (TaskEntry entry : getTaskEntries()) {
+            // only tally tasks which match the task matcher (eg 'index-.*')
+            if (!taskFilter.matches(entry.task.getName())) {
+                continue;
+            }
+            if (entry.equivalent) {
+                // This is stale data for the same task that we're currently evaluating for
+                // placement. Don't worry about counting its usage. This occurs when we're
+                // redeploying a given task with a new configuration (old data not deleted yet).
+                continue;
+            }
+            filtered.add(entry);
+        }
+        return filtered;
+    }
+
+    private List<TaskEntry> getTaskEntries() {
+        List<TaskEntry> entries = taskEntries;
+        if (entries == null) {
+            synchronized (this) {
+                entries = taskEntries;
+                if (entries == null) {
+                    entries = new ArrayList<>(tasks.size());
+                    for (TaskInfo task : tasks) {
+                        entries.add(new TaskEntry(task, PlacementUtils.areEquivalent(task, offerRequirement)));
+                    }
+                    taskEntries = entries;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * A task along with the values which are extracted from it by placement rules.
+     */
+    private static class TaskEntry {
+        private final TaskInfo task;
+        private final boolean equivalent;
+        private final String hostname;
+        private final List<String> attributeStrings;
+
+        private TaskEntry(TaskInfo task, boolean equivalent) {
+            this.task = task;
+            this.equivalent = equivalent;
+            String hostname;
+            try {
+                hostname = CommonTaskUtils.getHostname(task);
+            } catch (TaskException e) {
+                hostname = null;
+            }
+            this.hostname = hostname;
+            this.attributeStrings = CommonTaskUtils.getOfferAttributeStrings(task);
+        }
+    }
+}
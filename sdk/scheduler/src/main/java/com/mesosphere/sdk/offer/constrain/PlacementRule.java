@@ -38,6 +38,21 @@ public interface PlacementRule {
      */
     Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks);
 
+    /**
+     * Equivalent to {@link #filter(Offer, OfferRequirement, Collection)}, except that the offer requirement and tasks
+     * are provided via a {@link PlacementContext} which is shared across all offers being evaluated for the
+     * requirement. Rules which examine the tasks should override this to use the context's precomputed tallies, and
+     * implement the above as a call to this method with a new {@link PlacementContext}.
+     *
+     * @param offer the offer to be examined
+     * @param context the offer requirement and currently deployed tasks to evaluate against
+     * @return either the uncopied input as-is, or a copy of the input with zero or more Resources
+     *     stripped out
+     */
+    default Offer filter(Offer offer, PlacementContext context) {
+        return filter(offer, context.getOfferRequirement(), context.getTasks());
+    }
+
     /**
      * Must be explicitly implemented by all PlacementRules.
      *
@@ -1,14 +1,13 @@
 package com.mesosphere.sdk.offer.constrain;
 
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Attribute;
 import org.apache.mesos.Protos.Offer;
-import org.apache.mesos.Protos.TaskInfo;
 import com.mesosphere.sdk.offer.AttributeStringUtils;
-import com.mesosphere.sdk.offer.CommonTaskUtils;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -64,15 +63,8 @@ public class RoundRobinByAttributeRule extends RoundRobinBaseRule {
     }
 
     @Override
-    protected String getValue(TaskInfo task) {
-        for (String taskAttributeString : CommonTaskUtils.getOfferAttributeStrings(task)) {
-            AttributeStringUtils.NameValue taskAttributeNameValue =
-                    AttributeStringUtils.split(taskAttributeString);
-            if (taskAttributeNameValue.name.equalsIgnoreCase(attributeName)) {
-                return taskAttributeNameValue.value;
-            }
-        }
-        return null;
+    protected Map<String, Integer> getValueCounts(PlacementContext context) {
+        return context.getAttributeValueCounts(attributeName, taskFilter);
     }
 
     @JsonProperty("name")
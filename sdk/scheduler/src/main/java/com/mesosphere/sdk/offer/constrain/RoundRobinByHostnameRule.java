@@ -1,15 +1,11 @@
 package com.mesosphere.sdk.offer.constrain;
 
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Offer;
-import org.apache.mesos.Protos.TaskInfo;
-import com.mesosphere.sdk.offer.CommonTaskUtils;
-import com.mesosphere.sdk.offer.TaskException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -39,8 +35,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 public class RoundRobinByHostnameRule extends RoundRobinBaseRule {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(RoundRobinByHostnameRule.class);
-
     public RoundRobinByHostnameRule(Optional<Integer> agentCount) {
         this(agentCount, null);
     }
@@ -59,16 +53,9 @@ public class RoundRobinByHostnameRule extends RoundRobinBaseRule {
         return offer.getHostname();
     }
 
-    /**
-     * Returns a value to round robin against from the provided {@link TaskInfo}.
-     */
-    protected String getValue(TaskInfo task) {
-        try {
-            return CommonTaskUtils.getHostname(task);
-        } catch (TaskException e) {
-            LOGGER.warn("Unable to extract hostname from task for filtering", e);
-            return null;
-        }
+    @Override
+    protected Map<String, Integer> getValueCounts(PlacementContext context) {
+        return context.getHostnameCounts(taskFilter);
     }
 
     @JsonProperty("agent_count")
@@ -1,12 +1,12 @@
 package com.mesosphere.sdk.offer.constrain;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.SlaveID;
 import org.apache.mesos.Protos.TaskInfo;
 import com.mesosphere.sdk.offer.OfferRequirement;
 
@@ -93,86 +93,46 @@ public class TaskTypeRule implements PlacementRule {
 
     @Override
     public Offer filter(Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasks) {
-        List<TaskInfo> matchingTasks = new ArrayList<>();
-        for (TaskInfo task : tasks) {
-            if (typeToFind.equals(typeConverter.getTaskType(task))) {
-                matchingTasks.add(task);
-            }
-        }
-        // Create a rule which will handle most of the validation. Logic is deferred to avoid
-        // double-counting a task against a prior version of itself.
+        return filter(offer, new PlacementContext(offerRequirement, tasks));
+    }
+
+    @Override
+    public Offer filter(Offer offer, PlacementContext context) {
+        // The agents of any matching tasks. Prior versions of the task being placed are present in the
+        // map, but don't contribute their agents, to avoid double-counting a task against itself.
+        Set<SlaveID> matchingAgents = context.getTaskTypeAgents(typeConverter).get(typeToFind);
         switch (behaviorType) {
         case AVOID:
-            if (matchingTasks.isEmpty()) {
+            if (matchingAgents == null) {
                 // nothing to avoid, but this is expected when avoiding nodes of the same type
                 // (self-avoidance), or when the developer has configured bidirectional rules
                 // (A avoids B + B avoids A)
                 return offer;
+            } else if (matchingAgents.contains(offer.getSlaveId())) {
+                // The offer is for an agent which has a task to be avoided. Denied!
+                return offer.toBuilder().clearResources().build();
             } else {
-                return filterAvoid(offer, offerRequirement, matchingTasks);
+                // The offer doesn't match any tasks to avoid. Approved!
+                return offer;
             }
         case COLOCATE:
-            if (matchingTasks.isEmpty()) {
+            if (matchingAgents == null) {
                 // nothing to colocate with! fall back to allowing any location.
                 // this is expected when the developer has configured bidirectional rules
                 // (A colocates with B + B colocates with A)
                 return offer;
+            } else if (matchingAgents.contains(offer.getSlaveId())) {
+                // The offer is for an agent which has a task to colocate with. Approved!
+                return offer;
             } else {
-                return filterColocate(offer, offerRequirement, matchingTasks);
+                // The offer doesn't match any tasks to colocate with. Denied!
+                return offer.toBuilder().clearResources().build();
             }
         default:
             throw new IllegalStateException("Unsupported behavior type: " + behaviorType);
         }
     }
 
-    /**
-     * Implementation of task type avoidance. Considers the presence of tasks in the cluster to
-     * determine whether the provided task can be launched against a given offer. This rule requires
-     * that the offer be located on an agent which doesn't currently have an instance of the
-     * specified task type.
-     */
-    private Offer filterAvoid(
-            Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasksToAvoid) {
-        for (TaskInfo taskToAvoid : tasksToAvoid) {
-            if (PlacementUtils.areEquivalent(taskToAvoid, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about avoiding it. This occurs when we're redeploying
-                // a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            if (taskToAvoid.getSlaveId().equals(offer.getSlaveId())) {
-                // The offer is for an agent which has a task to be avoided. Denied!
-                return offer.toBuilder().clearResources().build();
-            }
-        }
-        // The offer doesn't match any tasks to avoid. Denied!
-        return offer;
-    }
-
-    /**
-     * Implementation of task type colocation. Considers the presence of tasks in the cluster to
-     * determine whether the provided task can be launched against a given offer. This rule requires
-     * that the offer be located on an agent which currently has an instance of the specified task
-     * type.
-     */
-    private Offer filterColocate(
-            Offer offer, OfferRequirement offerRequirement, Collection<TaskInfo> tasksToColocate) {
-        for (TaskInfo taskToColocate : tasksToColocate) {
-            if (PlacementUtils.areEquivalent(taskToColocate, offerRequirement)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about colocating with it. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            if (taskToColocate.getSlaveId().equals(offer.getSlaveId())) {
-                // The offer is for an agent which has a task to colocate with. Approved!
-                return offer;
-            }
-        }
-        // The offer doesn't match any tasks to colocate with. Denied!
-        return offer.toBuilder().clearResources().build();
-    }
-
     @JsonProperty("type")
     private String getType() {
         return typeToFind;
@@ -0,0 +1,46 @@
+package com.mesosphere.sdk.offer.score;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.mesos.Protos.Offer;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Prefers the offer with the smallest fraction of its unreserved resources left over after launch, averaged across
+ * the scalar resource types in the offer. This packs tasks onto as few agents as possible, leaving other agents
+ * free for large pods.
+ */
+public class BinPackingScorer implements OfferScorer {
+
+    @JsonCreator
+    public BinPackingScorer() {
+    }
+
+    @Override
+    public double score(Offer offer, MesosResourcePool remainingPool) {
+        double fractionSum = 0;
+        int count = 0;
+        for (ScalarUsage usage : ScalarUsage.getUsages(offer, remainingPool)) {
+            fractionSum += usage.remaining / usage.offered;
+            ++count;
+        }
+        return count == 0 ? 0 : -fractionSum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "BinPackingScorer{}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return EqualsBuilder.reflectionEquals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+}
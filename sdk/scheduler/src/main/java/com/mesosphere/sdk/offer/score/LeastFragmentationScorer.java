@@ -0,0 +1,52 @@
+package com.mesosphere.sdk.offer.score;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.mesos.Protos.Offer;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Prefers the offer which leaves the smallest fraction of its resources stranded after launch. For each scalar
+ * resource type used by the evaluated requirement, the stranded amount is whatever would be left over after fitting
+ * as many additional copies of the requirement as possible. Unlike {@link BinPackingScorer}, an offer which leaves
+ * exactly enough room for another copy is as good as one which is fully used.
+ */
+public class LeastFragmentationScorer implements OfferScorer {
+
+    @JsonCreator
+    public LeastFragmentationScorer() {
+    }
+
+    @Override
+    public double score(Offer offer, MesosResourcePool remainingPool) {
+        double fractionSum = 0;
+        int count = 0;
+        for (ScalarUsage usage : ScalarUsage.getUsages(offer, remainingPool)) {
+            double consumed = usage.getConsumed();
+            if (consumed <= 0) {
+                continue;
+            }
+            double stranded = usage.remaining - Math.floor(usage.remaining / consumed) * consumed;
+            fractionSum += stranded / usage.offered;
+            ++count;
+        }
+        return count == 0 ? 0 : -fractionSum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "LeastFragmentationScorer{}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return EqualsBuilder.reflectionEquals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+}
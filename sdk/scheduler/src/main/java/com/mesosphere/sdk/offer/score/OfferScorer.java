@@ -0,0 +1,30 @@
+package com.mesosphere.sdk.offer.score;
+
+import org.apache.mesos.Protos.Offer;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Scores an offer which has passed evaluation against an {@link com.mesosphere.sdk.offer.OfferRequirement}, so that
+ * the best of several passing offers may be selected. Higher scores are better. When offers have equal scores, the
+ * earliest offer is selected.
+ *
+ * Custom implementations may be configured on a {@link com.mesosphere.sdk.specification.PodSpec}, in which case
+ * they must be registered for deserialization along with any custom placement rules, see
+ * {@link com.mesosphere.sdk.specification.DefaultServiceSpec#getFactory(
+ * com.mesosphere.sdk.specification.ServiceSpec, java.util.Collection)}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME)
+public interface OfferScorer {
+
+    /**
+     * Returns a score for launching against the provided offer.
+     *
+     * @param offer the offer which passed evaluation, after any filtering by placement rules
+     * @param remainingPool the resources which would remain in the offer after the evaluated requirement has been
+     *     launched against it
+     * @return the score for this offer, where higher scores are preferred
+     */
+    double score(Offer offer, MesosResourcePool remainingPool);
+}
@@ -0,0 +1,49 @@
+package com.mesosphere.sdk.offer.score;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Value;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+
+/**
+ * The amount of an unreserved scalar resource which was offered, and the amount which would remain after the
+ * evaluated requirement was launched.
+ */
+class ScalarUsage {
+    final double offered;
+    final double remaining;
+
+    private ScalarUsage(double offered, double remaining) {
+        this.offered = offered;
+        this.remaining = remaining;
+    }
+
+    /**
+     * Returns the amount which would be consumed by the evaluated requirement.
+     */
+    double getConsumed() {
+        return offered - remaining;
+    }
+
+    /**
+     * Returns the usage of each unreserved scalar resource type with a positive amount in the provided offer.
+     */
+    static Collection<ScalarUsage> getUsages(Offer offer, MesosResourcePool remainingPool) {
+        Map<String, Value> offered = new MesosResourcePool(offer).getUnreservedMergedPool();
+        Map<String, Value> remaining = remainingPool.getUnreservedMergedPool();
+        Collection<ScalarUsage> usages = new ArrayList<>();
+        for (Map.Entry<String, Value> entry : offered.entrySet()) {
+            if (!entry.getValue().hasScalar() || entry.getValue().getScalar().getValue() <= 0) {
+                continue;
+            }
+            Value remainingValue = remaining.get(entry.getKey());
+            double remainingAmount = (remainingValue == null || !remainingValue.hasScalar())
+                    ? 0 : remainingValue.getScalar().getValue();
+            usages.add(new ScalarUsage(entry.getValue().getScalar().getValue(), remainingAmount));
+        }
+        return usages;
+    }
+}
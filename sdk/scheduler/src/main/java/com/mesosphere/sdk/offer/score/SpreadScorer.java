@@ -0,0 +1,46 @@
+package com.mesosphere.sdk.offer.score;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.mesos.Protos.Offer;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Prefers the offer with the most room left over after launch, measured as the number of additional copies of the
+ * evaluated requirement which would still fit in the offer. This spreads tasks across agents.
+ */
+public class SpreadScorer implements OfferScorer {
+
+    @JsonCreator
+    public SpreadScorer() {
+    }
+
+    @Override
+    public double score(Offer offer, MesosResourcePool remainingPool) {
+        double copies = Double.MAX_VALUE;
+        for (ScalarUsage usage : ScalarUsage.getUsages(offer, remainingPool)) {
+            if (usage.getConsumed() > 0) {
+                copies = Math.min(copies, usage.remaining / usage.getConsumed());
+            }
+        }
+        // If no scalar resources were consumed then there's nothing to compare offers with:
+        return copies == Double.MAX_VALUE ? 0 : copies;
+    }
+
+    @Override
+    public String toString() {
+        return "SpreadScorer{}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return EqualsBuilder.reflectionEquals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+}
@@ -1,5 +1,7 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.protobuf.TextFormat;
@@ -8,6 +10,7 @@ import org.apache.mesos.Scheduler;
 import org.apache.mesos.SchedulerDriver;
 
 import com.mesosphere.sdk.api.ConfigResource;
+import com.mesosphere.sdk.api.MetricsResource;
 import com.mesosphere.sdk.api.PlansResource;
 import com.mesosphere.sdk.api.StateResource;
 import com.mesosphere.sdk.api.TaskResource;
@@ -20,6 +23,7 @@ import com.mesosphere.sdk.curator.CuratorConfigStore;
 import com.mesosphere.sdk.curator.CuratorStateStore;
 import com.mesosphere.sdk.dcos.DcosCertInstaller;
 import com.mesosphere.sdk.dcos.DcosConstants;
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.*;
 import com.mesosphere.sdk.reconciliation.DefaultReconciler;
 import com.mesosphere.sdk.reconciliation.Reconciler;
@@ -44,6 +48,8 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * This scheduler when provided with a ServiceSpec will deploy the service and recover from encountered faults
@@ -59,10 +65,49 @@ public class DefaultScheduler implements Scheduler, Observer {
     protected static final Integer PERMANENT_FAILURE_DELAY_SEC = 20 * 60;
     protected static final Integer AWAIT_TERMINATION_TIMEOUT_MS = 10000;
     protected static final Integer AWAIT_RESOURCES_TIMEOUT_MS = 60000;
+    protected static final Integer STAGE_QUEUE_CAPACITY = 100;
+    protected static final Duration OFFER_HOLD_DURATION = Duration.ofSeconds(2);
+    // Refuse declined offers briefly while there's work to do, and for longer while idle. Reviving offers clears any
+    // refusal filters, so the longer duration doesn't delay future work.
+    protected static final Integer SHORT_DECLINE_REFUSE_SECONDS = 5;
+    protected static final Integer LONG_DECLINE_REFUSE_SECONDS = 120;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultScheduler.class);
 
-    protected final ExecutorService executor = Executors.newFixedThreadPool(1);
+    private static final Timer OFFER_CYCLE_TIMER = Metrics.getTimer(Metrics.OFFER_CYCLE);
+    private static final Timer RECONCILE_TIMER = Metrics.getTimer(Metrics.OFFER_CYCLE_RECONCILE);
+    private static final Timer PLANS_TIMER = Metrics.getTimer(Metrics.OFFER_CYCLE_PLANS);
+    private static final Timer CLEANER_TIMER = Metrics.getTimer(Metrics.OFFER_CYCLE_CLEANER);
+    private static final Timer DECLINE_TIMER = Metrics.getTimer(Metrics.OFFER_CYCLE_DECLINE);
+    private static final Counter OFFERS_RECEIVED = Metrics.getCounter(Metrics.OFFERS_RECEIVED);
+    private static final Counter OFFERS_ACCEPTED = Metrics.getCounter(Metrics.OFFERS_ACCEPTED);
+    private static final Counter OFFERS_DECLINED = Metrics.getCounter(Metrics.OFFERS_DECLINED);
+
+    /**
+     * Status updates and offers flow through two pipeline stages: The ingest stage coalesces and persists incoming
+     * status updates, and forwards them (along with offers, in arrival order) to the plan stage. The plan stage is the
+     * single writer for all plan state: it applies status updates to the plans and evaluates/accepts offers.
+     */
+    protected final PipelineStage ingestStage = new PipelineStage("ingest", STAGE_QUEUE_CAPACITY);
+    protected final PipelineStage planStage = new PipelineStage("plan", STAGE_QUEUE_CAPACITY);
+    // Status updates awaiting persistence by the ingest stage, with only the latest update retained per task:
+    private final Map<Protos.TaskID, Protos.TaskStatus> pendingStatuses = new LinkedHashMap<>();
+    private boolean statusDrainScheduled = false;
+    // Periodically triggers offer cycles so that held offers are declined once they expire:
+    private final ScheduledExecutorService offerExpiryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "offer-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Suppress state as last sent to the driver, or null if it hasn't been sent yet. Only transitions are sent to the
+    // driver and persisted. Persistence is write-behind: the writer only stores the latest unpersisted value.
+    private Boolean suppressed = null;
+    private final AtomicReference<Boolean> unpersistedSuppressed = new AtomicReference<>();
+    private final ExecutorService suppressWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suppress-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
     protected final BlockingQueue<Collection<Object>> resourcesQueue = new ArrayBlockingQueue<>(1);
     protected final ServiceSpec serviceSpec;
     protected final Collection<Plan> plans;
@@ -78,10 +123,12 @@ public class DefaultScheduler implements Scheduler, Observer {
     protected TaskFailureListener taskFailureListener;
     protected TaskKiller taskKiller;
     protected OfferAccepter offerAccepter;
+    protected ResourceCleanerScheduler cleanerScheduler;
     protected PlanScheduler planScheduler;
     protected PlanManager deploymentPlanManager;
     protected PlanManager recoveryPlanManager;
     protected PlanCoordinator planCoordinator;
+    protected OfferInventory offerInventory;
     protected Collection<Object> resources;
 
     /**
@@ -374,8 +421,13 @@ public class DefaultScheduler implements Scheduler, Observer {
 
     @VisibleForTesting
     void awaitTermination() throws InterruptedException {
-        executor.shutdown();
-        executor.awaitTermination(AWAIT_TERMINATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        offerExpiryTimer.shutdownNow();
+        // Shut down in pipeline order, as the ingest stage forwards work to the plan stage:
+        ingestStage.shutdownAndAwait(AWAIT_TERMINATION_TIMEOUT_MS);
+        planStage.shutdownAndAwait(AWAIT_TERMINATION_TIMEOUT_MS);
+        // Finish any pending suppress state write:
+        suppressWriter.shutdown();
+        suppressWriter.awaitTermination(AWAIT_TERMINATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
     }
 
     private void initialize(SchedulerDriver driver) throws InterruptedException {
@@ -392,6 +444,9 @@ public class DefaultScheduler implements Scheduler, Observer {
                 recoveryPlanManager);
         planCoordinator = new DefaultPlanCoordinator(planManagers, planScheduler);
         planCoordinator.subscribe(this);
+        planManagers.forEach(Metrics::registerPlanGauges);
+        Metrics.registerPipelineStageGauges(ingestStage);
+        Metrics.registerPipelineStageGauges(planStage);
         LOGGER.info("Done initializing.");
     }
 
@@ -400,8 +455,37 @@ public class DefaultScheduler implements Scheduler, Observer {
         taskFailureListener = new DefaultTaskFailureListener(stateStore);
         taskKiller = new DefaultTaskKiller(stateStore, taskFailureListener, driver);
         reconciler = new DefaultReconciler(stateStore);
-        offerAccepter = new OfferAccepter(Arrays.asList(new PersistentOperationRecorder(stateStore)));
-        planScheduler = new DefaultPlanScheduler(offerAccepter, new OfferEvaluator(stateStore), taskKiller);
+        // The cleaner is kept up to date with launched tasks by recording operations alongside the state store:
+        ResourceCleaner resourceCleaner = new ResourceCleaner(stateStore);
+        offerAccepter = new OfferAccepter(Arrays.asList(new PersistentOperationRecorder(stateStore), resourceCleaner));
+        cleanerScheduler = new ResourceCleanerScheduler(resourceCleaner, offerAccepter);
+        offerInventory = new OfferInventory(getOfferHoldDuration());
+        planScheduler = new DefaultPlanScheduler(
+                offerAccepter, createOfferEvaluator(), taskKiller, isOfferPackingEnabled());
+    }
+
+    /**
+     * Override this function to change how long unused offers are held for use by later offer cycles before they're
+     * declined. A zero duration results in unused offers being declined immediately.
+     */
+    protected Duration getOfferHoldDuration() {
+        return OFFER_HOLD_DURATION;
+    }
+
+    /**
+     * Override this function to inject your own offer evaluator, for example one which evaluates offers in parallel
+     * using {@link OfferEvaluator#OfferEvaluator(StateStore, ForkJoinPool, Optional)}.
+     */
+    protected OfferEvaluator createOfferEvaluator() {
+        return new OfferEvaluator(stateStore);
+    }
+
+    /**
+     * Override this function to allow several pods to be launched against a single offer in the same offer cycle,
+     * when the offer has room for them. By default each offer is used by at most one pod per offer cycle.
+     */
+    protected boolean isOfferPackingEnabled() {
+        return false;
     }
 
     /**
@@ -448,39 +532,34 @@ public class DefaultScheduler implements Scheduler, Observer {
         resources.add(new StateResource(stateStore, new StringPropertyDeserializer()));
         resources.add(new TaskResource(stateStore, taskKiller, serviceSpec.getName()));
         resources.add(new ConfigResource<ServiceSpec>(configStore));
+        resources.add(new MetricsResource(Metrics.getRegistry()));
         // use add() instead of put(): throw exception instead of waiting indefinitely
         resourcesQueue.add(resources);
     }
 
-    private void logOffers(List<Protos.Offer> offers) {
+    private void logOffers(Collection<Protos.Offer> offers) {
         if (offers == null) {
             return;
         }
 
         LOGGER.info(String.format("Received %d offers:", offers.size()));
-        for (int i = 0; i < offers.size(); ++i) {
+        int i = 0;
+        for (Protos.Offer offer : offers) {
             // Offer protobuffers are very long. print each as a single line:
-            LOGGER.info(String.format("- Offer %d: %s", i + 1, TextFormat.shortDebugString(offers.get(i))));
+            LOGGER.info(String.format("- Offer %d: %s", ++i, TextFormat.shortDebugString(offer)));
         }
     }
 
-    private void declineOffers(SchedulerDriver driver, List<Protos.OfferID> acceptedOffers, List<Protos.Offer> offers) {
-        final List<Protos.Offer> unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
-        unusedOffers.stream().forEach(offer -> {
-            final Protos.OfferID offerId = offer.getId();
-            LOGGER.info("Declining offer: " + offerId.getValue());
-            driver.declineOffer(offerId);
-        });
-    }
-
-    private Optional<ResourceCleanerScheduler> getCleanerScheduler() {
-        try {
-            ResourceCleaner cleaner = new ResourceCleaner(stateStore);
-            return Optional.of(new ResourceCleanerScheduler(cleaner, offerAccepter));
-        } catch (Exception ex) {
-            LOGGER.error("Failed to construct ResourceCleaner", ex);
-            return Optional.empty();
+    private void declineOffers(SchedulerDriver driver, Collection<Protos.Offer> offers, int refuseSeconds) {
+        final Protos.Filters filters = Protos.Filters.newBuilder().setRefuseSeconds(refuseSeconds).build();
+        try (Timer.Context context = DECLINE_TIMER.time()) {
+            offers.stream().forEach(offer -> {
+                final Protos.OfferID offerId = offer.getId();
+                LOGGER.info("Declining offer for {}s: {}", refuseSeconds, offerId.getValue());
+                driver.declineOffer(offerId, filters);
+            });
         }
+        OFFERS_DECLINED.inc(offers.size());
     }
 
     @SuppressWarnings({"DM_EXIT"})
@@ -509,6 +588,15 @@ public class DefaultScheduler implements Scheduler, Observer {
         this.driver = driver;
         reconciler.reconcile(driver);
         suppressOrRevive();
+
+        long holdMs = offerInventory.getHoldDuration().toMillis();
+        if (holdMs > 0) {
+            offerExpiryTimer.scheduleAtFixedRate(() -> {
+                if (!offerInventory.isEmpty()) {
+                    planStage.offer(() -> processOffers(driver));
+                }
+            }, holdMs, holdMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
@@ -520,83 +608,201 @@ public class DefaultScheduler implements Scheduler, Observer {
 
     @Override
     public void resourceOffers(SchedulerDriver driver, List<Protos.Offer> offersToProcess) {
-        List<Protos.Offer> offers = new ArrayList<>(offersToProcess);
-        executor.execute(() -> {
-            logOffers(offers);
+        logOffers(offersToProcess);
+        OFFERS_RECEIVED.inc(offersToProcess.size());
+        offerInventory.add(offersToProcess);
+        // Pass the cycle through the ingest stage so that offers are evaluated after any status updates which preceded
+        // them. If either stage is backed up, the offers stay in the inventory until a later cycle, or until they
+        // expire and are declined.
+        ingestStage.offer(() -> planStage.offer(() -> processOffers(driver)));
+    }
 
+    /**
+     * Evaluates all offers currently in the {@link OfferInventory} against the plans. Runs on the plan stage.
+     */
+    private void processOffers(SchedulerDriver driver) {
+        try (Timer.Context cycleContext = OFFER_CYCLE_TIMER.time()) {
             // Task Reconciliation:
             // Task Reconciliation must complete before any Tasks may be launched.  It ensures that a Scheduler and
             // Mesos have agreed upon the state of all Tasks of interest to the scheduler.
             // http://mesos.apache.org/documentation/latest/reconciliation/
-            reconciler.reconcile(driver);
-            if (!reconciler.isReconciled()) {
-                LOGGER.info("Reconciliation is still in progress.");
-                return;
+            try (Timer.Context context = RECONCILE_TIMER.time()) {
+                reconciler.reconcile(driver);
+            }
+            final List<Protos.Offer> offers = offerInventory.getOffers();
+            if (!offers.isEmpty()) {
+                evaluateOffers(driver, offers);
             }
+        }
+    }
+
+    /**
+     * Evaluates the provided non-empty list of offers, and then accepts, holds, or declines each of them.
+     */
+    private void evaluateOffers(SchedulerDriver driver, List<Protos.Offer> offers) {
+        if (!reconciler.isReconciled()) {
+            LOGGER.info("Reconciliation is still in progress.");
+            declineOffers(driver, offerInventory.removeExpired(offers), SHORT_DECLINE_REFUSE_SECONDS);
+            return;
+        }
+        LOGGER.info("Processing {} offers", offers.size());
 
-            // Coordinate amongst all the plans via PlanCoordinator.
-            final List<Protos.OfferID> acceptedOffers = new ArrayList<>();
+        // Coordinate amongst all the plans via PlanCoordinator.
+        final List<Protos.OfferID> acceptedOffers = new ArrayList<>();
+        try (Timer.Context context = PLANS_TIMER.time()) {
             acceptedOffers.addAll(planCoordinator.processOffers(driver, offers));
+        }
 
-            List<Protos.Offer> unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
-            offers.clear();
-            offers.addAll(unusedOffers);
-
-            // Resource Cleaning:
-            // A ResourceCleaner ensures that reserved Resources are not leaked.  It is possible that an Agent may
-            // become inoperable for long enough that Tasks resident there were relocated.  However, this Agent may
-            // return at a later point and begin offering reserved Resources again.  To ensure that these unexpected
-            // reserved Resources are returned to the Mesos Cluster, the Resource Cleaner performs all necessary
-            // UNRESERVE and DESTROY (in the case of persistent volumes) Operations.
-            // Note: If there are unused reserved resources on a dirtied offer, then it will be cleaned in the next
-            // offer cycle.
-            final Optional<ResourceCleanerScheduler> cleanerScheduler = getCleanerScheduler();
-            if (cleanerScheduler.isPresent()) {
-                acceptedOffers.addAll(cleanerScheduler.get().resourceOffers(driver, offers));
-            }
+        List<Protos.Offer> unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
+        offers.clear();
+        offers.addAll(unusedOffers);
+
+        // Resource Cleaning:
+        // A ResourceCleaner ensures that reserved Resources are not leaked.  It is possible that an Agent may
+        // become inoperable for long enough that Tasks resident there were relocated.  However, this Agent may
+        // return at a later point and begin offering reserved Resources again.  To ensure that these unexpected
+        // reserved Resources are returned to the Mesos Cluster, the Resource Cleaner performs all necessary
+        // UNRESERVE and DESTROY (in the case of persistent volumes) Operations.
+        // Note: If there are unused reserved resources on a dirtied offer, then it will be cleaned in the next
+        // offer cycle.
+        try (Timer.Context context = CLEANER_TIMER.time()) {
+            acceptedOffers.addAll(cleanerScheduler.resourceOffers(driver, offers));
+        }
 
-            unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
-            offers.clear();
-            offers.addAll(unusedOffers);
+        offerInventory.remove(acceptedOffers);
+        OFFERS_ACCEPTED.inc(acceptedOffers.size());
+        unusedOffers = OfferUtils.filterOutAcceptedOffers(offers, acceptedOffers);
 
-            // Decline remaining offers.
-            declineOffers(driver, acceptedOffers, offers);
-        });
+        // Hold remaining offers for use by later cycles while there's still work to do, declining any which have
+        // been held for too long. Decline all of them if there's nothing left to do.
+        if (planCoordinator.hasOperations()) {
+            declineOffers(driver, offerInventory.removeExpired(unusedOffers), SHORT_DECLINE_REFUSE_SECONDS);
+        } else {
+            offerInventory.remove(unusedOffers.stream().map(Protos.Offer::getId).collect(Collectors.toList()));
+            declineOffers(driver, unusedOffers, LONG_DECLINE_REFUSE_SECONDS);
+        }
+        LOGGER.debug("Pipeline stages: {} {}", ingestStage, planStage);
     }
 
     @Override
     public void offerRescinded(SchedulerDriver driver, Protos.OfferID offerId) {
-        LOGGER.error("Rescinding offers is not supported.");
-        hardExit(SchedulerErrorCode.OFFER_RESCINDED);
+        if (offerInventory.rescind(offerId)) {
+            LOGGER.info("Rescinded held offer: {}", offerId.getValue());
+        } else {
+            LOGGER.info("Rescinded offer was not being held: {}", offerId.getValue());
+        }
     }
 
     @Override
     public void statusUpdate(SchedulerDriver driver, Protos.TaskStatus status) {
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                LOGGER.info(String.format(
-                        "Received status update for taskId=%s state=%s message='%s'",
-                        status.getTaskId().getValue(),
-                        status.getState().toString(),
-                        status.getMessage()));
-
-                // Store status, then pass status to PlanManager => Plan => Steps
-                try {
-                    stateStore.storeStatus(status);
-                    deploymentPlanManager.update(status);
-                    recoveryPlanManager.update(status);
-                    reconciler.update(status);
-
-                    if (CommonTaskUtils.needsRecovery(status)) {
-                        revive();
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to update TaskStatus received from Mesos. "
-                            + "This may be expected if Mesos sent stale status information: " + status, e);
-                }
+        LOGGER.info(String.format(
+                "Received status update for taskId=%s state=%s message='%s'",
+                status.getTaskId().getValue(),
+                status.getState().toString(),
+                status.getMessage()));
+        Metrics.getTaskStatusMeter(status.getState()).mark();
+
+        // Queue the status for the ingest stage. Any earlier status for the same task which hasn't been processed yet
+        // is superseded by this one. Only one drain of the pending statuses is queued at a time, so the ingest stage's
+        // queue can't be filled by a status storm.
+        synchronized (pendingStatuses) {
+            pendingStatuses.remove(status.getTaskId()); // retain arrival order of the latest update
+            pendingStatuses.put(status.getTaskId(), status);
+            if (statusDrainScheduled) {
+                return;
             }
-        });
+            statusDrainScheduled = true;
+        }
+        try {
+            ingestStage.put(() -> ingestStatuses());
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while queueing status update: " + status, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Persists all pending status updates, then forwards the successfully stored updates to the plan stage. Runs on
+     * the ingest stage.
+     */
+    private void ingestStatuses() {
+        List<Protos.TaskStatus> statuses;
+        synchronized (pendingStatuses) {
+            statuses = new ArrayList<>(pendingStatuses.values());
+            pendingStatuses.clear();
+            statusDrainScheduled = false;
+        }
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        List<Protos.TaskStatus> storedStatuses = storeStatuses(statuses);
+        if (storedStatuses.isEmpty()) {
+            return;
+        }
+        try {
+            planStage.put(() -> updatePlans(storedStatuses));
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while forwarding status updates: " + storedStatuses, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stores the provided statuses, returning those which were stored successfully. Statuses are stored in a single
+     * batch where possible. If the batch is rejected, e.g. due to a stale status for a task which has since been
+     * relaunched, then the statuses are retried individually so that only the bad ones are dropped.
+     */
+    private List<Protos.TaskStatus> storeStatuses(List<Protos.TaskStatus> statuses) {
+        try {
+            stateStore.storeStatuses(statuses);
+            return statuses;
+        } catch (Exception e) {
+            if (statuses.size() == 1) {
+                LOGGER.warn("Failed to update TaskStatus received from Mesos. "
+                        + "This may be expected if Mesos sent stale status information: " + statuses.get(0), e);
+                return Collections.emptyList();
+            }
+            LOGGER.info("Failed to store {} TaskStatuses as a batch, storing individually: {}",
+                    statuses.size(), e.getMessage());
+        }
+
+        List<Protos.TaskStatus> storedStatuses = new ArrayList<>();
+        for (Protos.TaskStatus status : statuses) {
+            try {
+                stateStore.storeStatus(status);
+                storedStatuses.add(status);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to update TaskStatus received from Mesos. "
+                        + "This may be expected if Mesos sent stale status information: " + status, e);
+            }
+        }
+        return storedStatuses;
+    }
+
+    /**
+     * Passes stored statuses to PlanManager => Plan => Steps. Runs on the plan stage.
+     */
+    private void updatePlans(List<Protos.TaskStatus> statuses) {
+        boolean needsRevive = false;
+        for (Protos.TaskStatus status : statuses) {
+            try {
+                deploymentPlanManager.update(status);
+                recoveryPlanManager.update(status);
+                reconciler.update(status);
+                needsRevive |= CommonTaskUtils.needsRecovery(status);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to update plans with TaskStatus received from Mesos: " + status, e);
+            }
+        }
+        if (needsRevive) {
+            // Revive even if offers aren't suppressed, to clear any refusal filters from earlier declines:
+            revive(true);
+        }
+        // Give any held offers a chance to be used by the updated plans:
+        if (!offerInventory.isEmpty()) {
+            processOffers(driver);
+        }
     }
 
     @Override
@@ -651,22 +857,51 @@ public class DefaultScheduler implements Scheduler, Observer {
 
     private void suppressOrRevive() {
         if (planCoordinator.hasOperations()) {
-            revive();
+            revive(false);
         } else {
             suppress();
         }
     }
 
-    private void suppress() {
+    private synchronized void suppress() {
+        if (Boolean.TRUE.equals(suppressed)) {
+            return;
+        }
         LOGGER.info("Suppressing offers.");
         driver.suppressOffers();
-        stateStore.setSuppressed(true);
+        setSuppressed(true);
     }
 
-    private void revive() {
+    /**
+     * Revives offers if they're currently suppressed, or unconditionally if {@code force} is set.
+     */
+    private synchronized void revive(boolean force) {
+        if (Boolean.FALSE.equals(suppressed) && !force) {
+            return;
+        }
         LOGGER.info("Reviving offers.");
         driver.reviveOffers();
-        stateStore.setSuppressed(false);
+        if (!Boolean.FALSE.equals(suppressed)) {
+            setSuppressed(false);
+        }
+    }
+
+    /**
+     * Records a suppress state transition, and queues a write of the new state if one isn't already queued.
+     */
+    private void setSuppressed(boolean isSuppressed) {
+        suppressed = isSuppressed;
+        if (unpersistedSuppressed.getAndSet(isSuppressed) != null) {
+            return; // the queued write will store this value
+        }
+        suppressWriter.execute(() -> {
+            Boolean value = unpersistedSuppressed.getAndSet(null);
+            try {
+                stateStore.setSuppressed(value);
+            } catch (Exception e) {
+                LOGGER.error("Failed to store suppress state: " + value, e);
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,167 @@
+package com.mesosphere.sdk.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single stage of the scheduler's event pipeline. Each stage runs its work on a single thread, in the order that
+ * the work was submitted, against a bounded queue. Work which should be dropped when the stage is overloaded (such as
+ * offers, which Mesos will re-send) may be submitted via {@link #offer(Runnable)}, while work which must not be lost
+ * may be submitted via {@link #put(Runnable)}, which blocks until the queue has room.
+ *
+ * Each stage tracks its queue depth and the latency of its work, measured from submission to completion.
+ *
+ * All work is admitted via {@link ThreadPoolExecutor#execute(Runnable)}, so work which is accepted before a shutdown
+ * is always run, and work submitted after a shutdown is always rejected. Capacity is enforced by a semaphore with one
+ * permit per queue slot, which is held from submission until the work starts running.
+ */
+public class PipelineStage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineStage.class);
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore queueSlots;
+
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public PipelineStage(String name, int queueCapacity) {
+        this.name = name;
+        this.queueSlots = new Semaphore(queueCapacity);
+        this.executor = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "stage-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Submits the provided work to this stage, or returns {@code false} if the stage's queue is full or the stage has
+     * been shut down.
+     */
+    public boolean offer(Runnable work) {
+        if (queueSlots.tryAcquire()) {
+            try {
+                execute(work);
+                return true;
+            } catch (RejectedExecutionException e) {
+                // shut down, fall through
+            }
+        }
+        droppedCount.incrementAndGet();
+        LOGGER.warn("Stage '{}' is full or shut down ({} queued), dropping work", name, getQueueDepth());
+        return false;
+    }
+
+    /**
+     * Submits the provided work to this stage, waiting for room in the stage's queue if necessary.
+     *
+     * @throws RejectedExecutionException if the stage has been shut down
+     */
+    public void put(Runnable work) throws InterruptedException {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException(String.format("Stage '%s' has been shut down", name));
+        }
+        queueSlots.acquire();
+        execute(work);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of work items currently waiting to be run by this stage.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of work items which have been completed by this stage.
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * Returns the number of work items which were dropped by {@link #offer(Runnable)} due to a full queue or a
+     * shutdown.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the mean time between submission and completion for work in this stage.
+     */
+    public Duration getMeanLatency() {
+        long count = completedCount.get();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.get() / count);
+    }
+
+    /**
+     * Returns the longest time between submission and completion for work in this stage.
+     */
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+
+    /**
+     * Stops accepting new work, then waits for up to {@code timeoutMs} for any queued work to complete.
+     */
+    public void shutdownAndAwait(long timeoutMs) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[queued=%d, completed=%d, dropped=%d, meanLatency=%dms, maxLatency=%dms]",
+                name, getQueueDepth(), getCompletedCount(), getDroppedCount(),
+                getMeanLatency().toMillis(), getMaxLatency().toMillis());
+    }
+
+    /**
+     * Hands the provided work to the executor, given an already acquired queue slot. The slot is released once the work
+     * starts running, or immediately if the executor rejects the work.
+     */
+    private void execute(Runnable work) {
+        try {
+            executor.execute(wrap(work));
+        } catch (RejectedExecutionException e) {
+            queueSlots.release();
+            throw e;
+        }
+    }
+
+    private Runnable wrap(Runnable work) {
+        final long submitNanos = System.nanoTime();
+        return () -> {
+            queueSlots.release();
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                // Don't let a single failure kill the stage's thread.
+                LOGGER.error(String.format("Stage '%s' failed to process work", name), e);
+            } finally {
+                long latencyNanos = System.nanoTime() - submitNanos;
+                completedCount.incrementAndGet();
+                totalLatencyNanos.addAndGet(latencyNanos);
+                maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            }
+        };
+    }
+}
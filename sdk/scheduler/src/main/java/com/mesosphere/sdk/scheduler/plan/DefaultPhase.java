@@ -15,7 +15,8 @@ import java.util.UUID;
  * The Default Phase implementation tracks {@link Step}s both by their UUID and by their ordering. It is an immutable
  * class.
  *
- * A {@link DefaultPhase} is an {@link Observable} and will forward updates from its steps.
+ * A {@link DefaultPhase} is an {@link Observable} and will forward updates from its steps. Its status is cached between
+ * updates.
  */
 public class DefaultPhase extends ChainedObserver implements Phase {
 
@@ -23,6 +24,7 @@ public class DefaultPhase extends ChainedObserver implements Phase {
     private final String name;
     private final Strategy<Step> strategy;
     private final List<String> errors;
+    private final ElementStatusCache statusCache;
     private final List<Step> steps;
 
     public DefaultPhase(String name, List<Step> steps, Strategy<Step> strategy, List<String> errors) {
@@ -30,6 +32,7 @@ public class DefaultPhase extends ChainedObserver implements Phase {
         this.steps = steps;
         this.strategy = strategy;
         this.errors = errors;
+        this.statusCache = new ElementStatusCache(this, errors, false);
 
         getChildren().forEach(step -> step.subscribe(this));
     }
@@ -51,7 +54,7 @@ public class DefaultPhase extends ChainedObserver implements Phase {
 
     @Override
     public Status getStatus() {
-        return PlanUtils.getStatus(this);
+        return statusCache.getStatus();
     }
 
     @Override
@@ -76,7 +79,7 @@ public class DefaultPhase extends ChainedObserver implements Phase {
 
     @Override
     public List<String> getErrors() {
-        return PlanUtils.getErrors(errors, this);
+        return statusCache.getErrors();
     }
 
     @Override
@@ -84,6 +87,13 @@ public class DefaultPhase extends ChainedObserver implements Phase {
         return steps;
     }
 
+    @Override
+    public void update(Observable observable) {
+        // A step has changed, so our status needs to be recomputed:
+        statusCache.invalidate();
+        super.update(observable);
+    }
+
     @Override
     public String toString() {
         return ReflectionToStringBuilder.toString(this);
@@ -8,16 +8,19 @@ import com.mesosphere.sdk.scheduler.Observable;
 import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
 import com.mesosphere.sdk.scheduler.plan.strategy.Strategy;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * An ordered list of {@link Phase}s, composed into a {@link Plan}. It may
  * optionally contain a List of errors associated with the phase.
  *
- * A {@link DefaultPlan} is an {@link Observable} and will forward updates from its {@link Phase}s.
+ * A {@link DefaultPlan} is an {@link Observable} and will forward updates from its {@link Phase}s. Its status is cached
+ * between updates.
  */
 public class DefaultPlan extends ChainedObserver implements Plan {
 
@@ -25,6 +28,10 @@ public class DefaultPlan extends ChainedObserver implements Plan {
     private final Strategy<Phase> strategy;
     private final List<Phase> phases;
     private final List<String> errors;
+    private final ElementStatusCache statusCache;
+    private final StepTaskIndex taskIndex = new StepTaskIndex();
+    // Elements which must receive every status update, as they don't use the taskIndex:
+    private final List<Element<?>> broadcastElements = new ArrayList<>();
     private final String name;
 
     public DefaultPlan(
@@ -36,8 +43,23 @@ public class DefaultPlan extends ChainedObserver implements Plan {
         this.strategy = strategy;
         this.phases = phases;
         this.errors = errors;
+        this.statusCache = new ElementStatusCache(this, errors, true);
 
         getChildren().forEach(phase -> phase.subscribe(this));
+        for (Phase phase : phases) {
+            if (!(phase instanceof DefaultPhase)) {
+                broadcastElements.add(phase);
+                continue;
+            }
+            // A DefaultPhase just forwards status updates to its steps, so we can deliver them to the steps ourselves:
+            for (Step step : ((DefaultPhase) phase).getChildren()) {
+                if (step instanceof DefaultStep) {
+                    ((DefaultStep) step).setTaskIndex(taskIndex);
+                } else {
+                    broadcastElements.add(step);
+                }
+            }
+        }
     }
 
     public DefaultPlan(String name, List<Phase> phases) {
@@ -70,12 +92,17 @@ public class DefaultPlan extends ChainedObserver implements Plan {
 
     @Override
     public Status getStatus() {
-        return PlanUtils.getStatus(this);
+        return statusCache.getStatus();
     }
 
     @Override
     public void update(Protos.TaskStatus status) {
-        PlanUtils.update(this, status);
+        // Only the step which launched the task is interested in its status, so route the status directly to it:
+        Optional<Step> step = taskIndex.get(status.getTaskId());
+        if (step.isPresent()) {
+            step.get().update(status);
+        }
+        broadcastElements.forEach(element -> element.update(status));
     }
 
     @Override
@@ -95,7 +122,14 @@ public class DefaultPlan extends ChainedObserver implements Plan {
 
     @Override
     public List<String> getErrors() {
-        return PlanUtils.getErrors(errors, this);
+        return statusCache.getErrors();
+    }
+
+    @Override
+    public void update(Observable observable) {
+        // A phase has changed, so our status needs to be recomputed:
+        statusCache.invalidate();
+        super.update(observable);
     }
 
     @Override
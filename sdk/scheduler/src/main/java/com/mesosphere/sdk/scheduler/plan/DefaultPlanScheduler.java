@@ -1,6 +1,8 @@
 package com.mesosphere.sdk.scheduler.plan;
 
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
+import com.mesosphere.sdk.metrics.Metrics;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.OfferID;
 import org.apache.mesos.SchedulerDriver;
@@ -14,20 +16,33 @@ import java.util.stream.Collectors;
 
 /**
  * Default deployment scheduler. See docs in {@link PlanScheduler} interface.
+ *
+ * By default each offer is used by at most one {@link Step} per call. When offer packing is enabled, {@link Step}s are
+ * instead evaluated against whatever remains of offers which were used by earlier {@link Step}s, so that several pods
+ * may be launched against a single offer. The operations for all of the {@link Step}s using an offer are then
+ * performed in a single accept call.
  */
 public class DefaultPlanScheduler implements PlanScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultPlanScheduler.class);
+    private static final Timer EVALUATE_TIMER = Metrics.getTimer(Metrics.OFFER_CYCLE_EVALUATE);
 
     private final OfferAccepter offerAccepter;
     private final OfferEvaluator offerEvaluator;
     private final TaskKiller taskKiller;
+    private final boolean packOffers;
 
     @Inject
     public DefaultPlanScheduler(OfferAccepter offerAccepter, OfferEvaluator offerEvaluator, TaskKiller taskKiller) {
+        this(offerAccepter, offerEvaluator, taskKiller, false);
+    }
+
+    public DefaultPlanScheduler(
+            OfferAccepter offerAccepter, OfferEvaluator offerEvaluator, TaskKiller taskKiller, boolean packOffers) {
         this.offerAccepter = offerAccepter;
         this.offerEvaluator = offerEvaluator;
         this.taskKiller = taskKiller;
+        this.packOffers = packOffers;
     }
 
     @Override
@@ -41,11 +56,18 @@ public class DefaultPlanScheduler implements PlanScheduler {
             return Collections.emptyList();
         }
 
+        // Summarize each offer once, rather than once per step evaluated against it:
+        Map<OfferID, ResourceSummary> offerSupplies = ResourceSummary.ofOffers(offers);
+
+        if (packOffers) {
+            return packOffers(driver, offers, offerSupplies, steps);
+        }
+
         List<OfferID> acceptedOfferIds = new ArrayList<>();
         List<Offer> availableOffers = new ArrayList<>(offers);
 
         for (Step step : steps) {
-            acceptedOfferIds.addAll(resourceOffers(driver, availableOffers, step));
+            acceptedOfferIds.addAll(resourceOffers(driver, availableOffers, offerSupplies, step));
             availableOffers = PlanUtils.filterAcceptedOffers(availableOffers, acceptedOfferIds);
         }
 
@@ -55,6 +77,7 @@ public class DefaultPlanScheduler implements PlanScheduler {
     private Collection<OfferID> resourceOffers(
             SchedulerDriver driver,
             List<Offer> offers,
+            Map<OfferID, ResourceSummary> offerSupplies,
             Step step) {
 
         if (!step.isPending()) {
@@ -62,23 +85,19 @@ public class DefaultPlanScheduler implements PlanScheduler {
             return Collections.emptyList();
         }
 
-        logger.info("Processing resource offers for step: {}", step.getName());
-        Optional<OfferRequirement> offerRequirementOptional = step.start();
+        Optional<OfferRequirement> offerRequirementOptional = startStep(step);
         if (!offerRequirementOptional.isPresent()) {
-            logger.info("No OfferRequirement for step: {}", step.getName());
-            step.updateOfferStatus(Collections.emptyList());
             return Collections.emptyList();
         }
 
         OfferRequirement offerRequirement = offerRequirementOptional.get();
-        // It is harmless to attempt to kill tasks which have never been launched.  This call attempts to Kill all Tasks
-        // with a Task name which is equivalent to that expressed by the OfferRequirement.  If no such Task is currently
-        // running no operation occurs.
-        killTasks(offerRequirement);
 
         // Step has returned an OfferRequirement to process. Find offers which match the
         // requirement and accept them, if any are found:
-        List<OfferRecommendation> recommendations = offerEvaluator.evaluate(offerRequirement, offers);
+        List<OfferRecommendation> recommendations;
+        try (Timer.Context context = EVALUATE_TIMER.time()) {
+            recommendations = offerEvaluator.evaluate(offerRequirement, offers, offerSupplies);
+        }
         if (recommendations.isEmpty()) {
             // Log that we're not finding suitable offers, possibly due to insufficient resources.
             logger.warn(
@@ -101,6 +120,96 @@ public class DefaultPlanScheduler implements PlanScheduler {
         return acceptedOffers;
     }
 
+    /**
+     * Evaluates each pending step against the offers, where offers which have been used by earlier steps are replaced
+     * with whatever remains of them. Each step's operations are recorded as soon as it's matched, so that subsequent
+     * placement evaluation sees the tasks which are about to be launched. Each used offer is then accepted once with
+     * the combined operations of all the steps which used it.
+     */
+    private Collection<OfferID> packOffers(
+            SchedulerDriver driver,
+            List<Offer> offers,
+            Map<OfferID, ResourceSummary> offerSupplies,
+            Collection<? extends Step> steps) {
+        List<Offer> availableOffers = new ArrayList<>(offers);
+        Map<OfferID, List<PackedStep>> stepsByOffer = new LinkedHashMap<>();
+
+        for (Step step : steps) {
+            if (!step.isPending()) {
+                logger.info("Ignoring resource offers for step: {} status: {}", step.getName(), step.getStatus());
+                continue;
+            }
+
+            Optional<OfferRequirement> offerRequirementOptional = startStep(step);
+            if (!offerRequirementOptional.isPresent()) {
+                continue;
+            }
+
+            OfferRequirement offerRequirement = offerRequirementOptional.get();
+            Optional<OfferEvaluator.OfferEvaluation> evaluation;
+            try (Timer.Context context = EVALUATE_TIMER.time()) {
+                evaluation = offerEvaluator.select(offerRequirement, availableOffers, offerSupplies);
+            }
+            if (!evaluation.isPresent()) {
+                logger.warn(
+                        "Unable to find any offers which fulfill requirement provided by step {}: {}",
+                        step.getName(), offerRequirement);
+                step.updateOfferStatus(Collections.emptyList());
+                continue;
+            }
+
+            List<OfferRecommendation> recommendations = evaluation.get().getRecommendations();
+            if (!offerAccepter.record(recommendations)) {
+                step.updateOfferStatus(Collections.emptyList());
+                continue;
+            }
+
+            // Later steps are evaluated against the resources which this step left behind:
+            Offer remainingOffer = evaluation.get().getRemainingOffer();
+            OfferID offerId = remainingOffer.getId();
+            availableOffers.replaceAll(offer -> offer.getId().equals(offerId) ? remainingOffer : offer);
+            offerSupplies.put(offerId, ResourceSummary.ofOffer(remainingOffer));
+            stepsByOffer.computeIfAbsent(offerId, id -> new ArrayList<>()).add(new PackedStep(step, recommendations));
+            logger.info("Packed step {} into offer {}, which now has {} steps",
+                    step.getName(), offerId.getValue(), stepsByOffer.get(offerId).size());
+        }
+
+        List<OfferID> acceptedOfferIds = new ArrayList<>();
+        for (List<PackedStep> packedSteps : stepsByOffer.values()) {
+            List<OfferRecommendation> recommendations = new ArrayList<>();
+            for (PackedStep packedStep : packedSteps) {
+                recommendations.addAll(packedStep.recommendations);
+            }
+            List<OfferID> acceptedOffers = offerAccepter.acceptRecorded(driver, recommendations);
+            acceptedOfferIds.addAll(acceptedOffers);
+            for (PackedStep packedStep : packedSteps) {
+                packedStep.step.updateOfferStatus(acceptedOffers.isEmpty()
+                        ? Collections.emptyList()
+                        : getOperations(packedStep.recommendations));
+            }
+        }
+        return acceptedOfferIds;
+    }
+
+    /**
+     * Starts the provided step, returning its {@link OfferRequirement} if it has one.
+     */
+    private Optional<OfferRequirement> startStep(Step step) {
+        logger.info("Processing resource offers for step: {}", step.getName());
+        Optional<OfferRequirement> offerRequirementOptional = step.start();
+        if (!offerRequirementOptional.isPresent()) {
+            logger.info("No OfferRequirement for step: {}", step.getName());
+            step.updateOfferStatus(Collections.emptyList());
+            return Optional.empty();
+        }
+
+        // It is harmless to attempt to kill tasks which have never been launched.  This call attempts to Kill all Tasks
+        // with a Task name which is equivalent to that expressed by the OfferRequirement.  If no such Task is currently
+        // running no operation occurs.
+        killTasks(offerRequirementOptional.get());
+        return offerRequirementOptional;
+    }
+
     private void killTasks(OfferRequirement offerRequirement) {
         for (TaskRequirement taskRequirement : offerRequirement.getTaskRequirements()) {
             String taskName = taskRequirement.getTaskInfo().getName();
@@ -113,4 +222,17 @@ public class DefaultPlanScheduler implements PlanScheduler {
                 .map(OfferRecommendation::getOperation)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * A step which has been matched to an offer, along with the recommendations for launching it.
+     */
+    private static class PackedStep {
+        private final Step step;
+        private final List<OfferRecommendation> recommendations;
+
+        private PackedStep(Step step, List<OfferRecommendation> recommendations) {
+            this.step = step;
+            this.recommendations = recommendations;
+        }
+    }
 }
@@ -34,6 +34,8 @@ public class DefaultStep extends DefaultObservable implements Step {
     private final PodInstance podInstance;
     private Status status;
     private Map<Protos.TaskID, Status> tasks = new HashMap<>();
+    // Index of the plan which owns this step, used to route status updates for our tasks directly to us:
+    private StepTaskIndex taskIndex;
 
     public DefaultStep(
             String name,
@@ -58,8 +60,12 @@ public class DefaultStep extends DefaultObservable implements Step {
      * Synchronized to ensure consistency between this and {@link #update(Protos.TaskStatus)}.
      */
     public synchronized void updateOfferStatus(Collection<Protos.Offer.Operation> operations) {
+        Map<Protos.TaskID, Status> newTasks = toTaskStatuses(operations);
+        if (taskIndex != null) {
+            taskIndex.update(this, tasks.keySet(), newTasks.keySet());
+        }
         tasks.clear();
-        tasks.putAll(toTaskStatuses(operations));
+        tasks.putAll(newTasks);
         logger.info("Updated with {} operations: '{}' task IDs: '{}'", operations.size(), operations, tasks);
         if (!operations.isEmpty()) {
             setStatus(Status.IN_PROGRESS);
@@ -218,6 +224,16 @@ public class DefaultStep extends DefaultObservable implements Step {
         return Objects.hash(getId());
     }
 
+    /**
+     * Sets the index of the plan which this step belongs to, adding any tasks which have already been launched. A step
+     * belongs to a single plan at a time: once the step is added to a new plan, the previous plan no longer receives
+     * status updates for tasks which the step goes on to launch.
+     */
+    synchronized void setTaskIndex(StepTaskIndex taskIndex) {
+        this.taskIndex = taskIndex;
+        taskIndex.update(this, Collections.emptyList(), tasks.keySet());
+    }
+
     @VisibleForTesting
     public Map<Protos.TaskID, Status> getExpectedTasks() {
         return tasks;
@@ -0,0 +1,71 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memoizes the status and errors of a parent {@link Element}, which would otherwise be recomputed from all of its
+ * descendants on every call. The parent must call {@link #invalidate()} whenever one of its children notifies it of a
+ * change, which {@link Step}s do whenever their status changes.
+ *
+ * Interrupting or proceeding a {@link com.mesosphere.sdk.scheduler.plan.strategy.Strategy} doesn't notify anyone, so
+ * the interrupted state of the parent's strategy is checked on every call. When the status of the children depends on
+ * their own strategies, as with the {@link Phase}s of a {@link Plan}, those are checked on every call as well.
+ */
+@SuppressWarnings("rawtypes")
+class ElementStatusCache {
+
+    private final Element<? extends Element> parent;
+    private final List<String> parentErrors;
+    private final boolean checkChildInterrupts;
+
+    private boolean dirty = true;
+    private Status status;
+    private List<String> errors;
+    private boolean[] interrupts;
+
+    ElementStatusCache(Element<? extends Element> parent, List<String> parentErrors, boolean checkChildInterrupts) {
+        this.parent = parent;
+        this.parentErrors = parentErrors;
+        this.checkChildInterrupts = checkChildInterrupts;
+    }
+
+    synchronized void invalidate() {
+        dirty = true;
+    }
+
+    synchronized Status getStatus() {
+        refresh();
+        return status;
+    }
+
+    synchronized List<String> getErrors() {
+        refresh();
+        return new ArrayList<>(errors); // copy to avoid callers modifying the cached list
+    }
+
+    private void refresh() {
+        boolean[] currentInterrupts = getInterrupts();
+        if (!dirty && Arrays.equals(currentInterrupts, interrupts)) {
+            return;
+        }
+        dirty = false;
+        interrupts = currentInterrupts;
+        errors = PlanUtils.getErrors(parentErrors, parent);
+        status = PlanUtils.getStatus(parent, errors);
+    }
+
+    private boolean[] getInterrupts() {
+        List<? extends Element> children = checkChildInterrupts ? parent.getChildren() : null;
+        boolean[] currentInterrupts = new boolean[children == null ? 1 : children.size() + 1];
+        currentInterrupts[0] = parent.getStrategy() != null && parent.getStrategy().isInterrupted();
+        if (children != null) {
+            for (int i = 0; i < children.size(); ++i) {
+                Element child = children.get(i);
+                currentInterrupts[i + 1] = child.getStrategy() != null && child.getStrategy().isInterrupted();
+            }
+        }
+        return currentInterrupts;
+    }
+}
@@ -12,7 +12,9 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -96,6 +98,16 @@ public class PlanUtils {
 
     @SuppressWarnings("rawtypes")
     public static final Status getStatus(Element<? extends Element> parent) {
+        // Note that this function MUST NOT call parent.getStatus() as that creates a circular call.
+        return getStatus(parent, parent.getErrors());
+    }
+
+    /**
+     * Returns the status of the parent element, given the errors which {@link Element#getErrors()} would return for
+     * it. The children's statuses are each fetched once.
+     */
+    @SuppressWarnings("rawtypes")
+    public static final Status getStatus(Element<? extends Element> parent, List<String> parentErrors) {
         // Ordering matters throughout this method.  Modify with care.
         // Also note that this function MUST NOT call parent.getStatus() as that creates a circular call.
 
@@ -111,37 +123,42 @@ public class PlanUtils {
             return Status.ERROR;
         }
 
+        if (!parentErrors.isEmpty()) {
+            LOGGER.warn("({} status={}) Parent element has one or more errors", parent.getName(), Status.ERROR);
+            return Status.ERROR;
+        }
+        if (strategy.isInterrupted()) {
+            LOGGER.info("({} status={}) Parent element has interrupted strategy", parent.getName(), Status.WAITING);
+            return Status.WAITING;
+        }
+        if (CollectionUtils.isEmpty(children)) {
+            LOGGER.warn("({} status={}) No child elements, parent appears complete", parent.getName(), Status.COMPLETE);
+            return Status.COMPLETE;
+        }
+
+        // Fetch each child's status once, rather than once per check below:
+        final Map<Status, Integer> counts = countStatuses(children);
         Status result;
-        if (!parent.getErrors().isEmpty()) {
-            result = Status.ERROR;
-            LOGGER.warn("({} status={}) Parent element has one or more errors", parent.getName(), result);
-        } else if (strategy.isInterrupted()) {
-            result = Status.WAITING;
-            LOGGER.info("({} status={}) Parent element has interrupted strategy", parent.getName(), result);
-        } else if (CollectionUtils.isEmpty(children)) {
-            result = Status.COMPLETE;
-            LOGGER.warn("({} status={}) No child elements, parent appears complete", parent.getName(), result);
-        } else if (anyHaveStatus(Status.ERROR, children)) {
+        if (counts.containsKey(Status.ERROR)) {
             result = Status.ERROR;
             LOGGER.warn("({} status={}) Child elements contain errors", parent.getName(), result);
-        } else if (anyHaveStatus(Status.IN_PROGRESS, children)) {
+        } else if (counts.containsKey(Status.IN_PROGRESS)) {
             result = Status.IN_PROGRESS;
             LOGGER.info("({} status={}) At least one child element has status: {}",
                     parent.getName(), result, Status.IN_PROGRESS);
-        } else if (anyHaveStatus(Status.WAITING, children)) {
+        } else if (counts.containsKey(Status.WAITING)) {
             result = Status.WAITING;
             LOGGER.info("({} status={}) At least one child element has status: {}",
                     parent.getName(), result, Status.WAITING);
-        } else if (allHaveStatus(Status.COMPLETE, children)) {
+        } else if (counts.getOrDefault(Status.COMPLETE, 0) == children.size()) {
             result = Status.COMPLETE;
             LOGGER.info("({} status={}) All child elements have status: {}",
                     parent.getName(), result, Status.COMPLETE);
-        } else if (allHaveStatus(Status.PENDING, children)) {
+        } else if (counts.getOrDefault(Status.PENDING, 0) == children.size()) {
             result = Status.PENDING;
             LOGGER.info("({} status={}) All child elements have status: {}",
                     parent.getName(), result, Status.PENDING);
-        } else if (anyHaveStatus(Status.COMPLETE, children)
-                && anyHaveStatus(Status.PENDING, children)) {
+        } else if (counts.containsKey(Status.COMPLETE) && counts.containsKey(Status.PENDING)) {
             result = Status.IN_PROGRESS;
             LOGGER.info("({} status={}) At least one child element has status '{}' and one has status '{}'",
                     parent.getName(), result, Status.COMPLETE, Status.PENDING);
@@ -154,6 +171,22 @@ public class PlanUtils {
         return result;
     }
 
+    /**
+     * Returns the number of elements with each status, omitting any statuses which no element has. Elements with a
+     * null status aren't counted.
+     */
+    @SuppressWarnings("rawtypes")
+    private static Map<Status, Integer> countStatuses(Collection<? extends Element> elements) {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Element element : elements) {
+            Status status = element.getStatus();
+            if (status != null) {
+                counts.merge(status, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
     @SuppressWarnings("rawtypes")
     public static boolean allHaveStatus(Status status, Collection<? extends Element> elements) {
         return elements.stream().allMatch(element -> element.getStatus() == status);
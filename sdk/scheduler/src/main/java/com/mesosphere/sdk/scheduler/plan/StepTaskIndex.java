@@ -0,0 +1,34 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the {@link DefaultStep} which launched each task within a {@link DefaultPlan}. This allows the plan to route
+ * each {@link Protos.TaskStatus} directly to the step which launched the task, instead of broadcasting it to every
+ * step. Steps keep the index up to date as they launch tasks.
+ */
+class StepTaskIndex {
+
+    private final Map<Protos.TaskID, Step> taskIdToStep = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the step's previously launched tasks with its newly launched tasks.
+     */
+    void update(Step step, Collection<Protos.TaskID> oldTaskIds, Collection<Protos.TaskID> newTaskIds) {
+        for (Protos.TaskID taskId : oldTaskIds) {
+            taskIdToStep.remove(taskId, step);
+        }
+        for (Protos.TaskID taskId : newTaskIds) {
+            taskIdToStep.put(taskId, step);
+        }
+    }
+
+    Optional<Step> get(Protos.TaskID taskId) {
+        return Optional.ofNullable(taskIdToStep.get(taskId));
+    }
+}
@@ -2,6 +2,7 @@ package com.mesosphere.sdk.scheduler.recovery;
 
 import org.apache.mesos.Protos;
 import com.mesosphere.sdk.config.ConfigStore;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.offer.InvalidRequirementException;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.TaskUtils;
@@ -29,6 +30,9 @@ import java.util.stream.Collectors;
  * This is an implementation of {@code PlanManager} that performs task recovery using dynamically generated
  * {@code Plan}. {@link DefaultRecoveryPlanManager} tracks currently failed (permanent) and stopped (transient) tasks,
  * generates a new {@link DefaultRecoveryStep} for them and adds them to the recovery Plan, if not already added.
+ * <p>
+ * After an initial scan of all tasks, the plan is maintained incrementally: only the pods of tasks which have received
+ * a status update, or which still needed recovery as of the last update, are re-evaluated on each offer cycle.
  */
 public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanManager {
     private static final String RECOVERY_ELEMENT_NAME = "recovery";
@@ -43,6 +47,22 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
     protected final LaunchConstrainer launchConstrainer;
     protected final Object planLock = new Object();
 
+    /**
+     * Names of tasks which have received a status update since the plan was last updated.
+     */
+    private final Set<String> updatedTaskNames = new HashSet<>();
+
+    /**
+     * Names of tasks which needed recovery as of the last plan update. These are re-evaluated on every update, as
+     * whether (and how) their pods are recovered also depends on the dirty assets and the failure monitor.
+     */
+    private Set<String> recoveringTaskNames = Collections.emptySet();
+
+    /**
+     * Whether the initial scan of all tasks has been performed.
+     */
+    private boolean scannedAllTasks = false;
+
     public DefaultRecoveryPlanManager(
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
@@ -100,22 +120,43 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
     public void update(Protos.TaskStatus status) {
         synchronized (planLock) {
             getPlan().update(status);
+            try {
+                updatedTaskNames.add(CommonTaskUtils.toTaskName(status.getTaskId()));
+            } catch (TaskException e) {
+                logger.error("Failed to determine task name for status, rescanning all tasks: {}", status, e);
+                scannedAllTasks = false;
+            }
             notifyObservers();
         }
     }
 
     private void updatePlan(Collection<String> dirtyAssets) {
-        logger.info("Dirty assets for recovery plan consideration: {}", dirtyAssets);
-
         synchronized (planLock) {
+            Set<String> taskNames = new HashSet<>(updatedTaskNames);
+            taskNames.addAll(recoveringTaskNames);
+            if (scannedAllTasks && taskNames.isEmpty()) {
+                // No task has failed or changed state since the last update.
+                return;
+            }
+
+            logger.info("Dirty assets for recovery plan consideration: {}", dirtyAssets);
+
             // This list will not contain any Complete steps.
             List<Step> steps = null;
             try {
-                steps = createSteps(dirtyAssets);
+                Collection<Protos.TaskInfo> tasksNeedingRecovery = scannedAllTasks
+                        ? StateStoreUtils.fetchTasksNeedingRecovery(stateStore, getPodTaskNames(taskNames))
+                        : StateStoreUtils.fetchTasksNeedingRecovery(stateStore);
+                steps = createSteps(dirtyAssets, tasksNeedingRecovery);
+                recoveringTaskNames = tasksNeedingRecovery.stream()
+                        .map(taskInfo -> taskInfo.getName())
+                        .collect(Collectors.toSet());
             } catch (TaskException e) {
                 logger.error("Failed to generate steps.", e);
                 return;
             }
+            updatedTaskNames.clear();
+            scannedAllTasks = true;
 
             List<String> stepNames = steps.stream().map(step -> step.getName()).collect(Collectors.toList());
             logger.info("New recovery steps: {}", stepNames);
@@ -137,11 +178,38 @@ public class DefaultRecoveryPlanManager extends ChainedObserver implements PlanM
         return DefaultPlanFactory.getPlan(RECOVERY_ELEMENT_NAME, Arrays.asList(phase), new SerialStrategy<>());
     }
 
+    /**
+     * Returns the names of all tasks in the pods of the provided tasks, as the recovery of a pod depends on the state
+     * of each of its tasks.
+     */
+    private Set<String> getPodTaskNames(Collection<String> taskNames) {
+        Set<String> podTaskNames = new HashSet<>(taskNames);
+        for (String taskName : taskNames) {
+            Optional<Protos.TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+            if (!taskInfo.isPresent()) {
+                continue;
+            }
+            try {
+                PodInstance podInstance = TaskUtils.getPodInstance(configStore, taskInfo.get());
+                for (TaskSpec taskSpec : podInstance.getPod().getTasks()) {
+                    podTaskNames.add(TaskSpec.getInstanceName(podInstance, taskSpec));
+                }
+            } catch (TaskException e) {
+                logger.error("Failed to determine pod of task: '{}'", taskName, e);
+            }
+        }
+        return podTaskNames;
+    }
+
     List<Step> createSteps(Collection<String> dirtyAssets) throws TaskException {
+        return createSteps(dirtyAssets, StateStoreUtils.fetchTasksNeedingRecovery(stateStore));
+    }
+
+    private List<Step> createSteps(
+            Collection<String> dirtyAssets,
+            Collection<Protos.TaskInfo> tasksNeedingRecovery) throws TaskException {
         Map<PodInstance, List<Protos.TaskInfo>> failedPodsMap =
-                TaskUtils.getPodMap(
-                        configStore,
-                        StateStoreUtils.fetchTasksNeedingRecovery(stateStore));
+                TaskUtils.getPodMap(configStore, tasksNeedingRecovery);
 
         logger.info("Found pods needing recovery: {}", failedPodsMap.keySet());
 
@@ -2,7 +2,9 @@ package com.mesosphere.sdk.scheduler.recovery;
 
 import org.apache.mesos.Protos;
 import com.mesosphere.sdk.config.ConfigStore;
+import com.mesosphere.sdk.config.ConfigStoreException;
 import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.OfferRequirement;
 import com.mesosphere.sdk.offer.OfferRequirementProvider;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.TaskUtils;
@@ -13,25 +15,42 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * This class is a default implementation of the RecoveryRequirementProvider interface.
+ * <p>
+ * The recovery plan asks for requirements on every offer cycle for as long as a pod remains in need of recovery.
+ * Generated {@link OfferRequirement}s are therefore cached per pod instance and recovery type, and are only rebuilt
+ * when the target configuration or the stored state of the pod's tasks has changed since they were generated. A pod's
+ * cached requirement is evicted once the pod no longer needs that type of recovery.
  */
 public class DefaultRecoveryRequirementProvider implements RecoveryRequirementProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRecoveryRequirementProvider.class);
 
     private final OfferRequirementProvider offerRequirementProvider;
     private final ConfigStore<ServiceSpec> configStore;
+    // Pod instance name => cached requirement, for each recovery type:
+    private final Map<RecoveryRequirement.RecoveryType, Map<String, CachedRequirement>> cachedRequirements =
+            new EnumMap<>(RecoveryRequirement.RecoveryType.class);
 
     public DefaultRecoveryRequirementProvider(
             OfferRequirementProvider offerRequirementProvider,
             ConfigStore<ServiceSpec> configStore) {
         this.offerRequirementProvider = offerRequirementProvider;
         this.configStore = configStore;
+        for (RecoveryRequirement.RecoveryType recoveryType : RecoveryRequirement.RecoveryType.values()) {
+            cachedRequirements.put(recoveryType, new ConcurrentHashMap<>());
+        }
     }
 
     @Override
@@ -60,10 +79,15 @@ public class DefaultRecoveryRequirementProvider implements RecoveryRequirementPr
             // get the task back up and running where it was before.
             transientRecoveryRequirements.add(
                     new DefaultRecoveryRequirement(
-                            offerRequirementProvider.getExistingOfferRequirement(podInstance, tasksToLaunch),
+                            getOfferRequirement(
+                                    podInstance,
+                                    podEntry.getValue(),
+                                    tasksToLaunch,
+                                    RecoveryRequirement.RecoveryType.TRANSIENT),
                             RecoveryRequirement.RecoveryType.TRANSIENT,
                             podInstance));
         }
+        evictOtherPods(RecoveryRequirement.RecoveryType.TRANSIENT, podMap.keySet());
 
         return transientRecoveryRequirements;
     }
@@ -81,7 +105,9 @@ public class DefaultRecoveryRequirementProvider implements RecoveryRequirementPr
             return Collections.emptyList();
         }
 
-        for (PodInstance podInstance : podMap.keySet()) {
+        for (Map.Entry<PodInstance, List<Protos.TaskInfo>> podEntry : podMap.entrySet()) {
+            PodInstance podInstance = podEntry.getKey();
+
             List<String> tasksToLaunch = podInstance.getPod().getTasks().stream()
                     .filter(taskSpec -> taskSpec.getGoal().equals(TaskSpec.GoalState.RUNNING))
                     .map(taskSpec -> TaskSpec.getInstanceName(podInstance, taskSpec))
@@ -89,11 +115,94 @@ public class DefaultRecoveryRequirementProvider implements RecoveryRequirementPr
 
             permanentRecoveryRequirements.add(
                     new DefaultRecoveryRequirement(
-                            offerRequirementProvider.getNewOfferRequirement(podInstance, tasksToLaunch),
+                            getOfferRequirement(
+                                    podInstance,
+                                    podEntry.getValue(),
+                                    tasksToLaunch,
+                                    RecoveryRequirement.RecoveryType.PERMANENT),
                             RecoveryRequirement.RecoveryType.PERMANENT,
                             podInstance));
         }
+        evictOtherPods(RecoveryRequirement.RecoveryType.PERMANENT, podMap.keySet());
 
         return permanentRecoveryRequirements;
     }
+
+    /**
+     * Returns the cached {@link OfferRequirement} for the provided pod instance if it was generated against the current
+     * target configuration and the same stored tasks, or generates (and caches) a new one otherwise. Once a recovery
+     * launch is attempted the stored tasks change, so a requirement is never reused across launches.
+     */
+    private OfferRequirement getOfferRequirement(
+            PodInstance podInstance,
+            List<Protos.TaskInfo> podTasks,
+            List<String> tasksToLaunch,
+            RecoveryRequirement.RecoveryType recoveryType) throws InvalidRequirementException {
+        Map<String, CachedRequirement> typeRequirements = cachedRequirements.get(recoveryType);
+        String cacheKey = podInstance.getName();
+        Set<Protos.TaskInfo> taskInfos = new HashSet<>(podTasks);
+        UUID targetConfigId;
+        try {
+            targetConfigId = configStore.getTargetConfig();
+        } catch (ConfigStoreException e) {
+            LOGGER.warn("Failed to retrieve target config, not caching requirement for pod: '{}'",
+                    podInstance.getName(), e);
+            typeRequirements.remove(cacheKey);
+            return generateOfferRequirement(podInstance, tasksToLaunch, recoveryType);
+        }
+
+        CachedRequirement cachedRequirement = typeRequirements.get(cacheKey);
+        if (cachedRequirement != null && cachedRequirement.matches(targetConfigId, taskInfos)) {
+            return cachedRequirement.offerRequirement;
+        }
+
+        OfferRequirement offerRequirement = generateOfferRequirement(podInstance, tasksToLaunch, recoveryType);
+        typeRequirements.put(cacheKey, new CachedRequirement(targetConfigId, taskInfos, offerRequirement));
+        return offerRequirement;
+    }
+
+    /**
+     * Evicts the cached requirements of any pods which no longer need the provided type of recovery, e.g. because they
+     * have recovered or have been removed from the configuration.
+     */
+    private void evictOtherPods(RecoveryRequirement.RecoveryType recoveryType, Collection<PodInstance> podInstances) {
+        Set<String> podNames = podInstances.stream().map(PodInstance::getName).collect(Collectors.toSet());
+        cachedRequirements.get(recoveryType).keySet().retainAll(podNames);
+    }
+
+    private OfferRequirement generateOfferRequirement(
+            PodInstance podInstance,
+            List<String> tasksToLaunch,
+            RecoveryRequirement.RecoveryType recoveryType) throws InvalidRequirementException {
+        switch (recoveryType) {
+            case TRANSIENT:
+                return offerRequirementProvider.getExistingOfferRequirement(podInstance, tasksToLaunch);
+            case PERMANENT:
+                return offerRequirementProvider.getNewOfferRequirement(podInstance, tasksToLaunch);
+            default:
+                throw new InvalidRequirementException("Unsupported recovery type: " + recoveryType);
+        }
+    }
+
+    /**
+     * An {@link OfferRequirement} along with the inputs it was generated from.
+     */
+    private static class CachedRequirement {
+        private final UUID targetConfigId;
+        private final Set<Protos.TaskInfo> taskInfos;
+        private final OfferRequirement offerRequirement;
+
+        private CachedRequirement(
+                UUID targetConfigId,
+                Set<Protos.TaskInfo> taskInfos,
+                OfferRequirement offerRequirement) {
+            this.targetConfigId = targetConfigId;
+            this.taskInfos = taskInfos;
+            this.offerRequirement = offerRequirement;
+        }
+
+        private boolean matches(UUID targetConfigId, Set<Protos.TaskInfo> taskInfos) {
+            return this.targetConfigId.equals(targetConfigId) && this.taskInfos.equals(taskInfos);
+        }
+    }
 }
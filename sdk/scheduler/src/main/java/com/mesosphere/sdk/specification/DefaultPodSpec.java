@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import com.mesosphere.sdk.offer.constrain.PlacementRule;
+import com.mesosphere.sdk.offer.score.OfferScorer;
 import com.mesosphere.sdk.specification.validation.UniqueResourceSet;
 import com.mesosphere.sdk.specification.validation.UniqueTaskName;
 import com.mesosphere.sdk.specification.validation.ValidationUtils;
@@ -39,6 +40,7 @@ public class DefaultPodSpec implements PodSpec {
     private List<TaskSpec> tasks;
     @Valid
     private PlacementRule placementRule;
+    private OfferScorer offerScorer;
     @Valid
     @UniqueResourceSet
     private Collection<ResourceSet> resources;
@@ -51,6 +53,7 @@ public class DefaultPodSpec implements PodSpec {
             @JsonProperty("container") ContainerSpec container,
             @JsonProperty("task_specs") List<TaskSpec> tasks,
             @JsonProperty("placement_rule") PlacementRule placementRule,
+            @JsonProperty("offer_scorer") OfferScorer offerScorer,
             @JsonProperty("resource_sets") Collection<ResourceSet> resources) {
         this.type = type;
         this.user = user;
@@ -58,12 +61,13 @@ public class DefaultPodSpec implements PodSpec {
         this.container = container;
         this.tasks = tasks;
         this.placementRule = placementRule;
+        this.offerScorer = offerScorer;
         this.resources = resources;
     }
 
     private DefaultPodSpec(Builder builder) {
         this(builder.type, builder.user, builder.count, builder.container,
-                builder.tasks, builder.placementRule, builder.resources);
+                builder.tasks, builder.placementRule, builder.offerScorer, builder.resources);
     }
 
     public static Builder newBuilder() {
@@ -79,6 +83,7 @@ public class DefaultPodSpec implements PodSpec {
         builder.tasks = new ArrayList<>();
         builder.tasks.addAll(copy.getTasks());
         builder.placementRule = copy.getPlacementRule().isPresent() ? copy.getPlacementRule().get() : null;
+        builder.offerScorer = copy.getOfferScorer().isPresent() ? copy.getOfferScorer().get() : null;
         ArrayList<ResourceSet> resourcesCopy = new ArrayList<>();
         resourcesCopy.addAll(copy.getResources());
         builder.resources = resourcesCopy;
@@ -120,6 +125,11 @@ public class DefaultPodSpec implements PodSpec {
         return Optional.ofNullable(placementRule);
     }
 
+    @Override
+    public Optional<OfferScorer> getOfferScorer() {
+        return Optional.ofNullable(offerScorer);
+    }
+
     @Override
     public boolean equals(Object o) {
         return EqualsBuilder.reflectionEquals(this, o);
@@ -141,6 +151,7 @@ public class DefaultPodSpec implements PodSpec {
         private ContainerSpec container;
         private List<TaskSpec> tasks = new ArrayList<>();
         private PlacementRule placementRule;
+        private OfferScorer offerScorer;
         private Collection<ResourceSet> resources;
 
         private Builder() {
@@ -225,6 +236,18 @@ public class DefaultPodSpec implements PodSpec {
             return this;
         }
 
+        /**
+         * Sets the {@code offerScorer} and returns a reference to this Builder so that the methods can be chained
+         * together.
+         *
+         * @param offerScorer the {@code offerScorer} to set
+         * @return a reference to this Builder
+         */
+        public Builder offerScorer(OfferScorer offerScorer) {
+            this.offerScorer = offerScorer;
+            return this;
+        }
+
         public Builder resources(Collection<ResourceSet> resources) {
             this.resources = resources;
             return this;
@@ -10,6 +10,9 @@ import com.mesosphere.sdk.config.ConfigurationComparator;
 import com.mesosphere.sdk.config.ConfigurationFactory;
 import com.mesosphere.sdk.config.SerializationUtils;
 import com.mesosphere.sdk.offer.constrain.*;
+import com.mesosphere.sdk.offer.score.BinPackingScorer;
+import com.mesosphere.sdk.offer.score.LeastFragmentationScorer;
+import com.mesosphere.sdk.offer.score.SpreadScorer;
 import com.mesosphere.sdk.specification.validation.UniquePodType;
 import com.mesosphere.sdk.specification.validation.ValidationUtils;
 
@@ -203,21 +206,25 @@ public class DefaultServiceSpec implements ServiceSpec {
 
         /**
          * Subtypes to be registered by defaults. This list should include all
-         * {@link PlacementRule}s that are included in the library.
+         * {@link PlacementRule}s and {@link com.mesosphere.sdk.offer.score.OfferScorer}s that are included in the
+         * library.
          */
         private static final Collection<Class<?>> defaultRegisteredSubtypes = Arrays.asList(
                 AgentRule.class,
                 AndRule.class,
                 AnyMatcher.class,
                 AttributeRule.class,
+                BinPackingScorer.class,
                 ExactMatcher.class,
                 HostnameRule.class,
+                LeastFragmentationScorer.class,
                 MaxPerAttributeRule.class,
                 MaxPerHostnameRule.class,
                 NotRule.class,
                 OrRule.class,
                 PassthroughRule.class,
                 RegexMatcher.class,
+                SpreadScorer.class,
                 TaskTypeRule.class,
                 TaskTypeLabelConverter.class);
 
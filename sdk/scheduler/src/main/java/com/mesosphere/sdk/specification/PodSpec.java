@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.mesosphere.sdk.offer.constrain.PlacementRule;
+import com.mesosphere.sdk.offer.score.OfferScorer;
 
 import java.util.Collection;
 import java.util.List;
@@ -35,6 +36,9 @@ public interface PodSpec {
     @JsonProperty("placement_rule")
     Optional<PlacementRule> getPlacementRule();
 
+    @JsonProperty("offer_scorer")
+    Optional<OfferScorer> getOfferScorer();
+
     @JsonIgnore
     static String getName(PodSpec podSpec, int index) {
         return podSpec.getType() + "-" + index;
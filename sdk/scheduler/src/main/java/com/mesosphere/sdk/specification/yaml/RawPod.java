@@ -10,6 +10,7 @@ import java.util.LinkedHashMap;
 public class RawPod {
     private String name;
     private String placement;
+    private String scoring;
     private Integer count;
     private RawContainer container;
     private String strategy;
@@ -44,6 +45,15 @@ public class RawPod {
         this.placement = placement;
     }
 
+    public String getScoring() {
+        return scoring;
+    }
+
+    @JsonProperty("scoring")
+    public void setScoring(String scoring) {
+        this.scoring = scoring;
+    }
+
     public Integer getCount() {
         return count;
     }
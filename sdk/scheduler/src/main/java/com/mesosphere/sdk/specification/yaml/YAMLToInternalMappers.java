@@ -4,6 +4,10 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.Protos;
+import com.mesosphere.sdk.offer.score.BinPackingScorer;
+import com.mesosphere.sdk.offer.score.LeastFragmentationScorer;
+import com.mesosphere.sdk.offer.score.OfferScorer;
+import com.mesosphere.sdk.offer.score.SpreadScorer;
 import com.mesosphere.sdk.scheduler.SchedulerUtils;
 import com.mesosphere.sdk.specification.*;
 
@@ -118,6 +122,7 @@ public class YAMLToInternalMappers {
         final DefaultPodSpec podSpec = builder
                 .count(podInstanceCount)
                 .placementRule(null /** TODO(mohit) */)
+                .offerScorer(getOfferScorer(rawPod.getScoring()))
                 .tasks(taskSpecs)
                 .type(podName)
                 .user(user)
@@ -127,6 +132,24 @@ public class YAMLToInternalMappers {
         return podSpec;
     }
 
+    private static OfferScorer getOfferScorer(String scoring) {
+        if (scoring == null) {
+            return null;
+        }
+        switch (scoring) {
+            case "bin-packing":
+                return new BinPackingScorer();
+            case "spread":
+                return new SpreadScorer();
+            case "least-fragmentation":
+                return new LeastFragmentationScorer();
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unsupported pod scoring '%s', expected one of: bin-packing, spread, least-fragmentation",
+                        scoring));
+        }
+    }
+
     public static ResourceSpecification from(RawResource rawResource, String role, String principal) {
         final String name = rawResource.getName();
         final String value = rawResource.getValue();
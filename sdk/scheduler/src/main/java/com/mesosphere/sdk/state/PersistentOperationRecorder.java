@@ -3,9 +3,7 @@ package com.mesosphere.sdk.state;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.Offer.Operation;
-import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.offer.OperationRecorder;
-import com.mesosphere.sdk.offer.TaskException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,35 +44,7 @@ public class PersistentOperationRecorder implements OperationRecorder {
             taskStatuses.add(taskStatus);
         }
 
-        stateStore.storeTasks(taskInfos);
-        for (Protos.TaskStatus taskStatus : taskStatuses) {
-            recordTaskStatus(taskStatus);
-        }
-    }
-
-    private void recordTaskStatus(Protos.TaskStatus taskStatus) throws StateStoreException {
-        if (!taskStatus.getState().equals(Protos.TaskState.TASK_STAGING)
-                && !taskStatusExists(taskStatus)) {
-            logger.warn("Dropping non-STAGING status update because the ZK path doesn't exist: "
-                    + taskStatus);
-        } else {
-            stateStore.storeStatus(taskStatus);
-        }
-    }
-
-    private boolean taskStatusExists(Protos.TaskStatus taskStatus) throws StateStoreException {
-        String taskName;
-        try {
-            taskName = CommonTaskUtils.toTaskName(taskStatus.getTaskId());
-        } catch (TaskException e) {
-            throw new StateStoreException(String.format(
-                    "Failed to get TaskName/ExecName from TaskStatus %s", taskStatus), e);
-        }
-        try {
-            stateStore.fetchStatus(taskName);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        // Write the TaskInfos and their initial statuses in a single transaction:
+        stateStore.storeTasksAndStatuses(taskInfos, taskStatuses);
     }
 }
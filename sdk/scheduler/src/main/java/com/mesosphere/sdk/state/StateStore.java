@@ -5,6 +5,7 @@ import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.TaskStatus;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * A {@code StateStore} stores the state of the frameworks, including tasks' TaskInfo and TaskStatus objects. Each
@@ -77,6 +78,66 @@ public interface StateStore {
     void storeStatus(TaskStatus status) throws StateStoreException;
 
 
+    /**
+     * Stores the TaskStatuses of several Tasks at once. Each status must meet the same requirements as those passed to
+     * {@link #storeStatus(TaskStatus)}, and this must behave as an atomic transaction: On success, everything is
+     * written, while on failure nothing is written. If several statuses refer to the same Task, the last one wins.
+     *
+     * The default implementation stores each status in turn via {@link #storeStatus(TaskStatus)}, and so isn't
+     * atomic. Implementations should override it where they're able to write several statuses atomically.
+     *
+     * @param statuses The statuses to be stored, which each meet the above requirements
+     * @throws StateStoreException if storing the TaskStatuses fails, or if any TaskId is malformed, or if any matching
+     *                             TaskInfo wasn't stored first
+     */
+    default void storeStatuses(Collection<TaskStatus> statuses) throws StateStoreException {
+        for (TaskStatus status : statuses) {
+            storeStatus(status);
+        }
+    }
+
+
+    /**
+     * Stores TaskStatuses against the provided Task names, where the caller has already validated that each status's
+     * TaskId exactly matches the TaskInfo currently stored for that name. This is intended for callers such as {@link
+     * StateStoreCache} which already hold the current TaskInfos, allowing implementations to skip re-fetching them
+     * before writing. This must behave as an atomic transaction: On success, everything is written, while on failure
+     * nothing is written.
+     *
+     * The default implementation stores each status in turn via {@link #storeStatus(TaskStatus)}, which repeats the
+     * validation and isn't atomic. Implementations should override it to benefit from the prior validation.
+     *
+     * @param taskNameToStatus Mapping of Task names to the statuses to be stored for those tasks
+     * @throws StateStoreException if storing the TaskStatuses fails
+     */
+    default void storeValidatedStatuses(Map<String, TaskStatus> taskNameToStatus) throws StateStoreException {
+        for (TaskStatus status : taskNameToStatus.values()) {
+            storeStatus(status);
+        }
+    }
+
+
+    /**
+     * Stores TaskInfos along with TaskStatuses for those same tasks, e.g. the initial statuses of newly launched tasks.
+     * Each status's TaskId must exactly match the TaskId of one of the provided TaskInfos. This must behave as a single
+     * atomic transaction across both the TaskInfos and the TaskStatuses: On success, everything is written, while on
+     * failure nothing is written.
+     *
+     * The default implementation stores the tasks via {@link #storeTasks(Collection)} and then the statuses via {@link
+     * #storeStatuses(Collection)}, and so isn't atomic across the two. Implementations should override it where
+     * they're able to write both in a single transaction.
+     *
+     * @param tasks Tasks to be stored, which each meet the requirements of {@link #storeTasks(Collection)}
+     * @param statuses The statuses to be stored, each of which refers to one of the provided tasks
+     * @throws StateStoreException if storing fails, or if any status doesn't match one of the provided tasks
+     */
+    default void storeTasksAndStatuses(Collection<TaskInfo> tasks, Collection<TaskStatus> statuses)
+            throws StateStoreException {
+        storeTasks(tasks);
+        storeStatuses(statuses);
+    }
+
+
     /**
      * Removes all data associated with a particular Task including any stored TaskInfo and/or TaskStatus.
      *
@@ -194,4 +255,59 @@ public interface StateStore {
      * @throws StateStoreException
      */
     void setSuppressed(final boolean suppressed) throws StateStoreException;
+
+
+    // Bulk read/write
+
+
+    /**
+     * Fetches the entire content of the store at once, e.g. to initialize a cache. Implementations may override this
+     * to load the content more quickly than individual fetches, for example from a snapshot previously written via
+     * {@link #storeSnapshot(Supplier)}.
+     *
+     * @return The FrameworkID, all TaskInfos and TaskStatuses, and all properties
+     * @throws StateStoreException if fetching the content fails
+     */
+    default StoredState fetchAll() throws StateStoreException {
+        Map<String, byte[]> properties = new HashMap<>();
+        for (String key : fetchPropertyKeys()) {
+            properties.put(key, fetchProperty(key));
+        }
+        return new StoredState(fetchFrameworkId(), fetchTasks(), fetchStatuses(), properties);
+    }
+
+    /**
+     * Writes a snapshot of the entire content of the store, allowing later calls to {@link #fetchAll()} to load it
+     * quickly. The provided supplier is invoked once by the implementation, and must return content which reflects
+     * every write to this store which completed before it was invoked. The default implementation does nothing.
+     *
+     * Writes made through any other path, such as another {@link StateStore} instance against the same storage, may
+     * not be reflected by the supplier. Snapshots should therefore only be written by the sole writer of the store,
+     * otherwise later calls to {@link #fetchAll()} may silently omit those writes.
+     *
+     * @param contentSupplier Supplier of the current content of the store
+     * @throws StateStoreException if writing the snapshot fails
+     */
+    default void storeSnapshot(Supplier<StoredState> contentSupplier) throws StateStoreException {
+        // Snapshots are an optimization, which implementations needn't support.
+    }
+
+
+    // Change notifications
+
+
+    /**
+     * Subscribes the provided listener to changes to tasks, statuses, and properties in this store. Unless otherwise
+     * documented by the implementation, listeners are notified on the writing thread after each write through this
+     * instance succeeds, and are not notified of changes made by other processes.
+     *
+     * The default implementation doesn't support notifications, and throws {@link UnsupportedOperationException}.
+     *
+     * @param listener The listener to be notified of subsequent changes
+     * @throws UnsupportedOperationException if this store doesn't support change notifications
+     */
+    default void subscribe(StateStoreListener listener) {
+        throw new UnsupportedOperationException(
+                String.format("%s doesn't support change notifications", getClass().getName()));
+    }
 }
@@ -1,12 +1,17 @@
 package com.mesosphere.sdk.state;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import org.apache.mesos.Protos.FrameworkID;
 import org.apache.mesos.Protos.TaskID;
@@ -29,25 +34,49 @@ import com.google.common.annotations.VisibleForTesting;
  * Implementation note: All write operations always invoke the underlying storage before updating
  * the local cache. This avoids creating an inconsistent cache state if writing to the underlying
  * persistent store fails.
+ *
+ * The cached state is held in an immutable {@link Snapshot} which writers replace wholesale (copy-on-write) while
+ * holding {@link #WRITE_LOCK}. Readers never lock: they read the current snapshot and may safely iterate the returned
+ * collections, which will not change underneath them even as later writes are published.
+ *
+ * The singleton instance periodically writes its cached state to the underlying store as a snapshot, for fast loading
+ * on failover. The snapshot is only valid if this cache is the sole writer to the underlying storage: writes made via
+ * another path, e.g. a {@link com.mesosphere.sdk.curator.TreeCacheStateStore} against the same ZK path, aren't
+ * reflected in the cache and would be omitted from the snapshot. Similarly, a write which fails may still have been
+ * applied to the underlying storage (e.g. following a lost connection), leaving the cache unaware of it. Snapshots are
+ * therefore no longer written once any write has failed, while existing snapshots remain valid since they predate it.
  */
 public class StateStoreCache implements StateStore {
 
     private static final Logger logger = LoggerFactory.getLogger(CuratorStateStore.class);
 
-    private static final ReadWriteLock _lock = new ReentrantReadWriteLock();
-    protected static final Lock RLOCK = _lock.readLock();
-    protected static final Lock RWLOCK = _lock.writeLock();
+    protected static final Lock WRITE_LOCK = new ReentrantLock();
+
+    /**
+     * How often the cached state is written to the underlying store as a snapshot, for fast loading on failover.
+     */
+    private static final long SNAPSHOT_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
 
     private static StateStoreCache instance = null;
 
     protected final StateStore store;
 
-    protected Optional<FrameworkID> frameworkId;
+    protected volatile Snapshot snapshot;
 
-    protected Map<String, TaskInfo> nameToTask = new HashMap<>();
-    protected Map<String, TaskStatus> nameToStatus = new HashMap<>();
+    private final StateStoreNotifier notifier = new StateStoreNotifier();
 
-    protected Map<String, byte[]> properties = new HashMap<>();
+    // The most recent Snapshot written to the underlying store via storeSnapshot(), accessed by the snapshot thread:
+    private volatile Snapshot storedSnapshot;
+
+    // Periodically calls storeSnapshot() on the singleton instance, or null if not scheduled. Guarded by WRITE_LOCK.
+    private ScheduledExecutorService snapshotWriter;
+
+    // Set by close(), after which no more snapshots may be written from this instance. Guarded by WRITE_LOCK.
+    private boolean closed = false;
+
+    // Set when a write to the underlying store fails, after which no more snapshots may be written from this instance.
+    // Updated while holding WRITE_LOCK.
+    private volatile boolean diverged = false;
 
     /**
      * Returns a cache instance. To ensure consistency, only one singleton cache instance may exist
@@ -55,10 +84,11 @@ public class StateStoreCache implements StateStore {
      * {@link StateStore} instance is provided each time.
      */
     public static StateStore getInstance(StateStore store) {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
             if (instance == null) {
                 instance = new StateStoreCache(store);
+                instance.scheduleSnapshots();
             } else if (instance.store != store) {
                 // Disallow subsequent calls to getInstance() with different instances of StateStore.
                 throw new IllegalStateException(String.format(
@@ -67,17 +97,20 @@ public class StateStoreCache implements StateStore {
             }
             return instance;
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @VisibleForTesting
     public static void resetInstanceForTests() {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
+            if (instance != null) {
+                instance.close();
+            }
             instance = null;
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
@@ -85,228 +118,463 @@ public class StateStoreCache implements StateStore {
     StateStoreCache(StateStore store) throws StateStoreException {
         this.store = store;
 
-        // Use bulk fetches to initialize cache with underlying storage state:
-        frameworkId = store.fetchFrameworkId();
-        Map<TaskID, TaskInfo> idToTask = new HashMap<>(); // Used to map ID=>Name below
-        for (TaskInfo task : store.fetchTasks()) {
-            nameToTask.put(task.getName(), task);
-            idToTask.put(task.getTaskId(), task);
+        // Use a bulk fetch to initialize cache with underlying storage state:
+        StoredState state = store.fetchAll();
+        Map<String, TaskInfo> nameToTask = new HashMap<>();
+        Map<TaskID, String> idToName = new HashMap<>();
+        for (TaskInfo task : state.getTasks()) {
+            putTask(nameToTask, idToName, task);
         }
-        for (TaskStatus status : store.fetchStatuses()) {
+        Map<String, TaskStatus> nameToStatus = new HashMap<>();
+        for (TaskStatus status : state.getStatuses()) {
             // Get the name from the corresponding TaskInfo for this task ID:
-            TaskInfo task = idToTask.get(status.getTaskId());
-            if (task == null) {
+            String taskName = idToName.get(status.getTaskId());
+            if (taskName == null) {
                 throw new StateStoreException(String.format(
                         "The following TaskInfo is not present: %s. TaskInfo must be present in " +
-                        "order to store a TaskStatus. All Tasks: %s", status.getTaskId(), idToTask));
+                        "order to store a TaskStatus. All Tasks: %s", status.getTaskId(), nameToTask));
             }
-            nameToStatus.put(task.getName(), status);
+            nameToStatus.put(taskName, status);
+        }
+        snapshot = new Snapshot(
+                state.getFrameworkId(), nameToTask, nameToStatus, idToName, new HashMap<>(state.getProperties()));
+    }
+
+    /**
+     * Writes a snapshot of the cached state to the underlying store, so that a future scheduler can load it quickly,
+     * unless nothing has changed since the last snapshot.
+     *
+     * @throws StateStoreException if writing the snapshot fails, or if this instance has been closed or may have
+     *                             diverged from the underlying store
+     */
+    @VisibleForTesting
+    void storeSnapshot() throws StateStoreException {
+        if (snapshot == storedSnapshot) {
+            return;
+        }
+        if (diverged) {
+            throw new StateStoreException(
+                    "StateStoreCache may have diverged from the underlying store, not writing snapshot");
         }
-        for (String key : store.fetchPropertyKeys()) {
-            properties.put(key, store.fetchProperty(key));
+        AtomicReference<Snapshot> content = new AtomicReference<>();
+        store.storeSnapshot(() -> {
+            // Wait for any write which is still being applied to the cache, so that the content reflects it:
+            WRITE_LOCK.lock();
+            try {
+                if (closed) {
+                    // Another instance may have since been created and written to the store, so our state may be stale.
+                    throw new StateStoreException("StateStoreCache has been closed, not writing snapshot");
+                }
+                if (diverged) {
+                    // A failed write may have been applied without our knowledge, so our state may be stale:
+                    throw new StateStoreException(
+                            "StateStoreCache may have diverged from the underlying store, not writing snapshot");
+                }
+                content.set(snapshot);
+            } finally {
+                WRITE_LOCK.unlock();
+            }
+            return content.get().toStoredState();
+        });
+        storedSnapshot = content.get();
+    }
+
+    /**
+     * Stops writing periodic snapshots of this instance's state. This instance must not be used afterwards.
+     */
+    public void close() {
+        WRITE_LOCK.lock();
+        try {
+            closed = true;
+            if (snapshotWriter != null) {
+                snapshotWriter.shutdownNow();
+                snapshotWriter = null;
+            }
+        } finally {
+            WRITE_LOCK.unlock();
         }
     }
 
+    private void scheduleSnapshots() {
+        snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "state-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotWriter.scheduleWithFixedDelay(() -> {
+            try {
+                storeSnapshot();
+            } catch (Exception e) {
+                // Snapshots are only an optimization: keep going and try again later.
+                logger.error("Failed to store state snapshot", e);
+            }
+        }, SNAPSHOT_INTERVAL_MS, SNAPSHOT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void storeFrameworkId(FrameworkID fwkId) throws StateStoreException {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
-            store.storeFrameworkId(fwkId);
-            frameworkId = Optional.of(fwkId);
+            writeThrough(() -> store.storeFrameworkId(fwkId));
+            snapshot = snapshot.withFrameworkId(Optional.of(fwkId));
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
     public void clearFrameworkId() throws StateStoreException {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
-            store.clearFrameworkId();
-            frameworkId = Optional.empty();
+            writeThrough(() -> store.clearFrameworkId());
+            snapshot = snapshot.withFrameworkId(Optional.empty());
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
     public Optional<FrameworkID> fetchFrameworkId() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return frameworkId;
-        } finally {
-            RLOCK.unlock();
-        }
+        return snapshot.frameworkId;
     }
 
     @Override
     public void storeTasks(Collection<TaskInfo> tasks) throws StateStoreException {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
-            store.storeTasks(tasks);
-            for (TaskInfo task : tasks) {
-                nameToTask.put(task.getName(), task);
-            }
+            writeThrough(() -> store.storeTasks(tasks));
+            snapshot = snapshot.withTasks(tasks);
+            notifyTasksStored(tasks);
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
     public void storeStatus(TaskStatus status) throws StateStoreException {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
-            store.storeStatus(status);
-            String taskName = null;
-            // Use TaskInfo cache to map TaskID => Name
-            for (TaskInfo taskInfo : nameToTask.values()) {
-                if (taskInfo.getTaskId().equals(status.getTaskId())) {
-                    taskName = taskInfo.getName();
-                    break;
-                }
-            }
-            if (taskName == null) {
-                throw new StateStoreException(String.format(
-                        "The following TaskInfo is not present in the StateStore: %s. " +
-                        "TaskInfo must be present in order to store a TaskStatus.", status.getTaskId()));
-            }
-            nameToStatus.put(taskName, status);
+            // The TaskID=>name index only contains current TaskInfos, which lets the underlying store skip its own
+            // TaskInfo lookup:
+            Map<String, TaskStatus> taskNameToStatus =
+                    Collections.singletonMap(snapshot.getTaskName(status.getTaskId()), status);
+            writeThrough(() -> store.storeValidatedStatuses(taskNameToStatus));
+            snapshot = snapshot.withStatuses(taskNameToStatus);
+            notifyStatusesStored(taskNameToStatus);
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
-    public void clearTask(String taskName) throws StateStoreException {
-        RWLOCK.lock();
+    public void storeStatuses(Collection<TaskStatus> statuses) throws StateStoreException {
+        WRITE_LOCK.lock();
         try {
-            store.clearTask(taskName);
-            TaskInfo oldValue = nameToTask.remove(taskName);
-            if (oldValue == null) {
-                logger.warn("Unable to find task named {} to remove. Known task names are: {}",
-                        taskName, nameToTask.keySet());
+            // Resolve all names up-front so that nothing is written if any status is unknown:
+            Map<String, TaskStatus> taskNameToStatus = new HashMap<>();
+            for (TaskStatus status : statuses) {
+                taskNameToStatus.put(snapshot.getTaskName(status.getTaskId()), status);
             }
-            nameToStatus.remove(taskName);
+            writeThrough(() -> store.storeValidatedStatuses(taskNameToStatus));
+            snapshot = snapshot.withStatuses(taskNameToStatus);
+            notifyStatusesStored(taskNameToStatus);
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
-    public Collection<String> fetchTaskNames() throws StateStoreException {
-        RLOCK.lock();
+    public void storeValidatedStatuses(Map<String, TaskStatus> taskNameToStatus) throws StateStoreException {
+        WRITE_LOCK.lock();
         try {
-            return nameToTask.keySet();
+            // Double-check the caller's validation against our own index, since it's cheap to do so:
+            for (Map.Entry<String, TaskStatus> entry : taskNameToStatus.entrySet()) {
+                if (!entry.getKey().equals(snapshot.getTaskName(entry.getValue().getTaskId()))) {
+                    throw new StateStoreException(String.format(
+                            "Task ID '%s' of updated status doesn't match current TaskInfo for task '%s'",
+                            entry.getValue().getTaskId().getValue(), entry.getKey()));
+                }
+            }
+            writeThrough(() -> store.storeValidatedStatuses(taskNameToStatus));
+            snapshot = snapshot.withStatuses(taskNameToStatus);
+            notifyStatusesStored(taskNameToStatus);
         } finally {
-            RLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
-    public Collection<TaskInfo> fetchTasks() throws StateStoreException {
-        RLOCK.lock();
+    public void storeTasksAndStatuses(Collection<TaskInfo> tasks, Collection<TaskStatus> statuses)
+            throws StateStoreException {
+        WRITE_LOCK.lock();
         try {
-            return nameToTask.values();
+            writeThrough(() -> store.storeTasksAndStatuses(tasks, statuses));
+            Snapshot updated = snapshot.withTasks(tasks);
+            Map<String, TaskStatus> taskNameToStatus = new HashMap<>();
+            for (TaskStatus status : statuses) {
+                taskNameToStatus.put(updated.getTaskName(status.getTaskId()), status);
+            }
+            snapshot = updated.withStatuses(taskNameToStatus);
+            notifyTasksStored(tasks);
+            notifyStatusesStored(taskNameToStatus);
         } finally {
-            RLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
-    public Optional<TaskInfo> fetchTask(String taskName) throws StateStoreException {
-        RLOCK.lock();
+    public void clearTask(String taskName) throws StateStoreException {
+        WRITE_LOCK.lock();
         try {
-            return Optional.ofNullable(nameToTask.get(taskName));
+            writeThrough(() -> store.clearTask(taskName));
+            boolean existed = snapshot.nameToTask.containsKey(taskName);
+            snapshot = snapshot.withoutTask(taskName);
+            if (existed) {
+                notifier.publish(StateStoreEvent.taskCleared(taskName));
+            }
         } finally {
-            RLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
+    @Override
+    public Collection<String> fetchTaskNames() throws StateStoreException {
+        return snapshot.nameToTask.keySet();
+    }
+
+    @Override
+    public Collection<TaskInfo> fetchTasks() throws StateStoreException {
+        return snapshot.nameToTask.values();
+    }
+
+    @Override
+    public Optional<TaskInfo> fetchTask(String taskName) throws StateStoreException {
+        return Optional.ofNullable(snapshot.nameToTask.get(taskName));
+    }
+
     @Override
     public Collection<TaskStatus> fetchStatuses() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return nameToStatus.values();
-        } finally {
-            RLOCK.unlock();
-        }
+        return snapshot.nameToStatus.values();
     }
 
     @Override
     public Optional<TaskStatus> fetchStatus(String taskName) throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return Optional.ofNullable(nameToStatus.get(taskName));
-        } finally {
-            RLOCK.unlock();
-        }
+        return Optional.ofNullable(snapshot.nameToStatus.get(taskName));
     }
 
     @Override
     public void storeProperty(String key, byte[] value) throws StateStoreException {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
-            store.storeProperty(key, value);
-            properties.put(key, value);
+            writeThrough(() -> store.storeProperty(key, value));
+            snapshot = snapshot.withProperty(key, value);
+            notifier.publish(StateStoreEvent.propertyStored(key, value));
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
     public byte[] fetchProperty(String key) throws StateStoreException {
-        RLOCK.lock();
-        try {
-            byte[] val = properties.get(key);
-            if (val == null) { // emulate StateStore contract
-                throw new StateStoreException(String.format(
-                        "Property key does not exist: %s (known keys are: %s)",
-                        key, properties.keySet()));
-            }
-            return val;
-        } finally {
-            RLOCK.unlock();
+        Map<String, byte[]> properties = snapshot.properties;
+        byte[] val = properties.get(key);
+        if (val == null) { // emulate StateStore contract
+            throw new StateStoreException(String.format(
+                    "Property key does not exist: %s (known keys are: %s)",
+                    key, properties.keySet()));
         }
+        return val;
     }
 
     @Override
     public Collection<String> fetchPropertyKeys() throws StateStoreException {
-        RLOCK.lock();
-        try {
-            return properties.keySet();
-        } finally {
-            RLOCK.unlock();
-        }
+        return snapshot.properties.keySet();
     }
 
     @Override
     public void clearProperty(String key) throws StateStoreException {
-        RWLOCK.lock();
+        WRITE_LOCK.lock();
         try {
-            store.clearProperty(key);
-            properties.remove(key);
+            writeThrough(() -> store.clearProperty(key));
+            boolean existed = snapshot.properties.containsKey(key);
+            snapshot = snapshot.withProperty(key, null);
+            if (existed) {
+                notifier.publish(StateStoreEvent.propertyCleared(key));
+            }
         } finally {
-            RWLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
     public boolean isSuppressed() {
-        RLOCK.lock();
+        return store.isSuppressed();
+    }
+
+    @Override
+    public void setSuppressed(boolean suppressed) {
+        WRITE_LOCK.lock();
         try {
-            return store.isSuppressed();
+            writeThrough(() -> store.setSuppressed(suppressed));
+            // The underlying store keeps the suppression state in a property of its own, which must be included in
+            // any later snapshots:
+            writeThrough(() -> {
+                Map<String, byte[]> properties = new HashMap<>();
+                for (String key : store.fetchPropertyKeys()) {
+                    properties.put(key, store.fetchProperty(key));
+                }
+                snapshot = snapshot.withProperties(properties);
+            });
         } finally {
-            RLOCK.unlock();
+            WRITE_LOCK.unlock();
         }
     }
 
     @Override
-    public void setSuppressed(boolean suppressed) {
-        RWLOCK.lock();
+    public void storeSnapshot(Supplier<StoredState> contentSupplier) throws StateStoreException {
+        store.storeSnapshot(contentSupplier);
+    }
+
+    /**
+     * Listeners are notified while the write lock is held, so that they observe changes in the order they were made.
+     */
+    @Override
+    public void subscribe(StateStoreListener listener) {
+        notifier.subscribe(listener);
+    }
+
+    /**
+     * Invokes the provided write against the underlying store. If it fails, the write may still have been applied, so
+     * the cache is marked as diverged from the underlying store before the failure is rethrown.
+     */
+    private void writeThrough(Runnable write) throws StateStoreException {
         try {
-            store.setSuppressed(suppressed);
-        } finally {
-            RWLOCK.unlock();
+            write.run();
+        } catch (RuntimeException e) {
+            if (!diverged) {
+                logger.error("Write to underlying store failed, no longer storing snapshots of cached state", e);
+            }
+            diverged = true;
+            throw e;
+        }
+    }
+
+    private void notifyTasksStored(Collection<TaskInfo> tasks) {
+        for (TaskInfo task : tasks) {
+            notifier.publish(StateStoreEvent.taskStored(task));
+        }
+    }
+
+    private void notifyStatusesStored(Map<String, TaskStatus> taskNameToStatus) {
+        for (Map.Entry<String, TaskStatus> entry : taskNameToStatus.entrySet()) {
+            notifier.publish(StateStoreEvent.statusStored(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Adds or replaces the provided task in {@code nameToTask}, while keeping {@code idToName} in sync.
+     */
+    private static void putTask(Map<String, TaskInfo> nameToTask, Map<TaskID, String> idToName, TaskInfo task) {
+        TaskInfo oldTask = nameToTask.put(task.getName(), task);
+        if (oldTask != null) {
+            idToName.remove(oldTask.getTaskId());
+        }
+        idToName.put(task.getTaskId(), task.getName());
+    }
+
+    /**
+     * An immutable view of the cached state. Updates produce a new snapshot, copying only the maps which they modify.
+     */
+    protected static class Snapshot {
+        protected final Optional<FrameworkID> frameworkId;
+        protected final Map<String, TaskInfo> nameToTask;
+        protected final Map<String, TaskStatus> nameToStatus;
+        // Secondary index of nameToTask, used to map incoming TaskStatus IDs to task names:
+        protected final Map<TaskID, String> idToName;
+        protected final Map<String, byte[]> properties;
+
+        /**
+         * The provided maps must not be modified after they're passed to the snapshot.
+         */
+        private Snapshot(
+                Optional<FrameworkID> frameworkId,
+                Map<String, TaskInfo> nameToTask,
+                Map<String, TaskStatus> nameToStatus,
+                Map<TaskID, String> idToName,
+                Map<String, byte[]> properties) {
+            this.frameworkId = frameworkId;
+            this.nameToTask = Collections.unmodifiableMap(nameToTask);
+            this.nameToStatus = Collections.unmodifiableMap(nameToStatus);
+            this.idToName = Collections.unmodifiableMap(idToName);
+            this.properties = Collections.unmodifiableMap(properties);
+        }
+
+        private StoredState toStoredState() {
+            return new StoredState(frameworkId, nameToTask.values(), nameToStatus.values(), properties);
+        }
+
+        private Snapshot withFrameworkId(Optional<FrameworkID> updatedFrameworkId) {
+            return new Snapshot(updatedFrameworkId, nameToTask, nameToStatus, idToName, properties);
+        }
+
+        private Snapshot withTasks(Collection<TaskInfo> tasks) {
+            Map<String, TaskInfo> updatedNameToTask = new HashMap<>(nameToTask);
+            Map<TaskID, String> updatedIdToName = new HashMap<>(idToName);
+            for (TaskInfo task : tasks) {
+                putTask(updatedNameToTask, updatedIdToName, task);
+            }
+            return new Snapshot(frameworkId, updatedNameToTask, nameToStatus, updatedIdToName, properties);
+        }
+
+        private Snapshot withStatuses(Map<String, TaskStatus> taskNameToStatus) {
+            Map<String, TaskStatus> updatedNameToStatus = new HashMap<>(nameToStatus);
+            updatedNameToStatus.putAll(taskNameToStatus);
+            return new Snapshot(frameworkId, nameToTask, updatedNameToStatus, idToName, properties);
+        }
+
+        private Snapshot withoutTask(String taskName) {
+            Map<String, TaskInfo> updatedNameToTask = new HashMap<>(nameToTask);
+            Map<TaskID, String> updatedIdToName = new HashMap<>(idToName);
+            TaskInfo oldValue = updatedNameToTask.remove(taskName);
+            if (oldValue == null) {
+                logger.warn("Unable to find task named {} to remove. Known task names are: {}",
+                        taskName, nameToTask.keySet());
+            } else {
+                updatedIdToName.remove(oldValue.getTaskId());
+            }
+            Map<String, TaskStatus> updatedNameToStatus = new HashMap<>(nameToStatus);
+            updatedNameToStatus.remove(taskName);
+            return new Snapshot(frameworkId, updatedNameToTask, updatedNameToStatus, updatedIdToName, properties);
+        }
+
+        /**
+         * Returns a snapshot with the provided property added or replaced, or removed if {@code value} is null.
+         */
+        private Snapshot withProperty(String key, byte[] value) {
+            Map<String, byte[]> updatedProperties = new HashMap<>(properties);
+            if (value == null) {
+                updatedProperties.remove(key);
+            } else {
+                updatedProperties.put(key, value);
+            }
+            return new Snapshot(frameworkId, nameToTask, nameToStatus, idToName, updatedProperties);
+        }
+
+        private Snapshot withProperties(Map<String, byte[]> updatedProperties) {
+            return new Snapshot(frameworkId, nameToTask, nameToStatus, idToName, updatedProperties);
+        }
+
+        /**
+         * Returns the name of the task with the provided ID, or throws if no such task is known.
+         */
+        private String getTaskName(TaskID taskId) throws StateStoreException {
+            String taskName = idToName.get(taskId);
+            if (taskName == null) {
+                throw new StateStoreException(String.format(
+                        "The following TaskInfo is not present in the StateStore: %s. " +
+                        "TaskInfo must be present in order to store a TaskStatus.", taskId));
+            }
+            return taskName;
         }
     }
 }
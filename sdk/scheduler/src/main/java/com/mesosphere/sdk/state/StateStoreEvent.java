@@ -0,0 +1,113 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
+
+import java.util.Optional;
+
+/**
+ * A change to the content of a {@link StateStore}, as delivered to {@link StateStoreListener}s.
+ */
+public class StateStoreEvent {
+
+    /**
+     * The kind of change which was made.
+     */
+    public enum Type {
+        /** A TaskInfo was added or replaced. */
+        TASK_STORED,
+        /** A TaskStatus was added or replaced. */
+        STATUS_STORED,
+        /** A task was removed, along with its TaskInfo and any TaskStatus. */
+        TASK_CLEARED,
+        /** A property was added or replaced. */
+        PROPERTY_STORED,
+        /** A property was removed. */
+        PROPERTY_CLEARED
+    }
+
+    private final Type type;
+    private final String name;
+    private final Optional<TaskInfo> task;
+    private final Optional<TaskStatus> status;
+    private final Optional<byte[]> propertyValue;
+
+    public static StateStoreEvent taskStored(TaskInfo task) {
+        return new StateStoreEvent(
+                Type.TASK_STORED, task.getName(), Optional.of(task), Optional.empty(), Optional.empty());
+    }
+
+    public static StateStoreEvent statusStored(String taskName, TaskStatus status) {
+        return new StateStoreEvent(
+                Type.STATUS_STORED, taskName, Optional.empty(), Optional.of(status), Optional.empty());
+    }
+
+    public static StateStoreEvent taskCleared(String taskName) {
+        return new StateStoreEvent(
+                Type.TASK_CLEARED, taskName, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    public static StateStoreEvent propertyStored(String key, byte[] value) {
+        return new StateStoreEvent(
+                Type.PROPERTY_STORED, key, Optional.empty(), Optional.empty(), Optional.of(value));
+    }
+
+    public static StateStoreEvent propertyCleared(String key) {
+        return new StateStoreEvent(
+                Type.PROPERTY_CLEARED, key, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    private StateStoreEvent(
+            Type type,
+            String name,
+            Optional<TaskInfo> task,
+            Optional<TaskStatus> status,
+            Optional<byte[]> propertyValue) {
+        this.type = type;
+        this.name = name;
+        this.task = task;
+        this.status = status;
+        this.propertyValue = propertyValue;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the name of the affected task, or the key of the affected property.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the stored TaskInfo, for {@link Type#TASK_STORED} events.
+     */
+    public Optional<TaskInfo> getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the stored TaskStatus, for {@link Type#STATUS_STORED} events.
+     */
+    public Optional<TaskStatus> getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the stored property value, for {@link Type#PROPERTY_STORED} events.
+     */
+    public Optional<byte[]> getPropertyValue() {
+        return propertyValue;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("type", type)
+                .append("name", name)
+                .toString();
+    }
+}
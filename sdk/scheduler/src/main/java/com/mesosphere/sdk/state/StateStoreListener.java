@@ -0,0 +1,16 @@
+package com.mesosphere.sdk.state;
+
+/**
+ * Receives notification of changes to the content of a {@link StateStore}, allowing components to maintain their own
+ * state incrementally instead of periodically rescanning the store.
+ *
+ * @see StateStore#subscribe(StateStoreListener)
+ */
+public interface StateStoreListener {
+
+    /**
+     * Invoked after a change has been successfully written. Implementations should return quickly, as they may be
+     * called on the thread which is writing to the store.
+     */
+    void onEvent(StateStoreEvent event);
+}
@@ -0,0 +1,49 @@
+package com.mesosphere.sdk.state;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Thread-safe list of {@link StateStoreListener}s, for use by {@link StateStore} implementations. Exceptions thrown by
+ * listeners are logged rather than propagated, so that a faulty listener cannot fail a write which has already been
+ * persisted, or prevent other listeners from being notified.
+ */
+public class StateStoreNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateStoreNotifier.class);
+
+    private final List<StateStoreListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(StateStoreListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Passes the provided event to every subscribed listener.
+     */
+    public void publish(StateStoreEvent event) {
+        for (StateStoreListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (Exception e) {
+                logger.error(String.format("Listener %s failed to handle %s", listener, event), e);
+            }
+        }
+    }
+
+    /**
+     * Passes each of the provided events, in order, to every subscribed listener.
+     */
+    public void publishAll(Collection<StateStoreEvent> events) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (StateStoreEvent event : events) {
+            publish(event);
+        }
+    }
+}
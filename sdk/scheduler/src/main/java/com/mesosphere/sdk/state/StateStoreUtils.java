@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.Protos;
@@ -66,6 +67,30 @@ public class StateStoreUtils {
         return results;
     }
 
+    /**
+     * Fetches and returns the {@link TaskInfo}s for tasks needing recovery, among the tasks with the provided names.
+     * Unlike {@link #fetchTasksNeedingRecovery(StateStore)}, this only reads the named tasks and their statuses.
+     *
+     * @return Terminated TaskInfos
+     */
+    public static Collection<TaskInfo> fetchTasksNeedingRecovery(StateStore stateStore, Collection<String> taskNames)
+            throws StateStoreException {
+        List<TaskInfo> results = new ArrayList<>();
+        for (String taskName : taskNames) {
+            Optional<TaskInfo> info = stateStore.fetchTask(taskName);
+            if (!info.isPresent()) {
+                continue;
+            }
+            Optional<TaskStatus> status = stateStore.fetchStatus(taskName);
+            if (status.isPresent()
+                    && status.get().getTaskId().equals(info.get().getTaskId())
+                    && CommonTaskUtils.needsRecovery(status.get())) {
+                results.add(info.get());
+            }
+        }
+        return results;
+    }
+
     public static Collection<TaskInfo> fetchTasksFromPod(StateStore stateStore, String pod) throws StateStoreException {
         Collection<TaskInfo> allInfos = stateStore.fetchTasks();
 
@@ -0,0 +1,50 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.mesos.Protos.FrameworkID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The entire content of a {@link StateStore} at a point in time, as loaded by {@link StateStore#fetchAll()}.
+ */
+public class StoredState {
+
+    private final Optional<FrameworkID> frameworkId;
+    private final Collection<TaskInfo> tasks;
+    private final Collection<TaskStatus> statuses;
+    private final Map<String, byte[]> properties;
+
+    public StoredState(
+            Optional<FrameworkID> frameworkId,
+            Collection<TaskInfo> tasks,
+            Collection<TaskStatus> statuses,
+            Map<String, byte[]> properties) {
+        this.frameworkId = frameworkId;
+        this.tasks = tasks;
+        this.statuses = statuses;
+        this.properties = properties;
+    }
+
+    public Optional<FrameworkID> getFrameworkId() {
+        return frameworkId;
+    }
+
+    public Collection<TaskInfo> getTasks() {
+        return tasks;
+    }
+
+    public Collection<TaskStatus> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Returns a mapping of property keys to their values.
+     */
+    public Map<String, byte[]> getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mesosphere.sdk.api;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsResourceTest {
+    private MetricRegistry registry;
+    private MetricsResource resource;
+
+    @Before
+    public void beforeEach() {
+        registry = new MetricRegistry();
+        resource = new MetricsResource(registry);
+    }
+
+    @Test
+    public void testGetEmptyMetrics() {
+        Response response = resource.getMetrics();
+        assertEquals(200, response.getStatus());
+        JSONObject json = new JSONObject((String) response.getEntity());
+        assertEquals(0, json.getJSONObject("counters").length());
+        assertEquals(0, json.getJSONObject("gauges").length());
+        assertEquals(0, json.getJSONObject("histograms").length());
+        assertEquals(0, json.getJSONObject("meters").length());
+        assertEquals(0, json.getJSONObject("timers").length());
+    }
+
+    @Test
+    public void testGetMetrics() {
+        registry.counter("offers.received").inc(3);
+        registry.register("plans.deploy.steps.complete", (Gauge<Long>) () -> 5L);
+        registry.meter("task_status.task_running").mark(2);
+        Timer timer = registry.timer("offers.cycle");
+        timer.update(10, TimeUnit.MILLISECONDS);
+        timer.update(30, TimeUnit.MILLISECONDS);
+
+        Response response = resource.getMetrics();
+        assertEquals(200, response.getStatus());
+        JSONObject json = new JSONObject((String) response.getEntity());
+        assertEquals(3, json.getJSONObject("counters").getLong("offers.received"));
+        assertEquals(5, json.getJSONObject("gauges").getLong("plans.deploy.steps.complete"));
+        assertEquals(2, json.getJSONObject("meters").getJSONObject("task_status.task_running").getLong("count"));
+
+        JSONObject timerJson = json.getJSONObject("timers").getJSONObject("offers.cycle");
+        assertEquals(2, timerJson.getLong("count"));
+        assertEquals(30.0, timerJson.getDouble("max_ms"), 0.01);
+        assertTrue(timerJson.getDouble("mean_ms") > 10.0);
+    }
+}
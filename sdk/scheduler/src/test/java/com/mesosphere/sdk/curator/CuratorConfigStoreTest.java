@@ -14,6 +14,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.*;
 
@@ -88,6 +89,66 @@ public class CuratorConfigStoreTest {
         store.fetch(testId);
     }
 
+    @Test
+    public void testFetchIsCachedUntilClear() throws Exception {
+        UUID testId = store.store(testConfig);
+        StringConfiguration config = store.fetch(testId);
+
+        // Remove the config behind the store's back: the cached copy is still returned
+        CuratorPersister curator = new CuratorPersister(
+                testZk.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+        curator.delete("/dcos-service-test-root-path/Configurations/" + testId.toString());
+        assertSame(config, store.fetch(testId));
+
+        store.clear(testId);
+        try {
+            store.fetch(testId);
+            fail("Expected fetch of cleared config to fail");
+        } catch (ConfigStoreException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFetchRacingWithClearIsNotCached() throws Exception {
+        final CountDownLatch parsing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        CuratorConfigStore<StringConfiguration> blockingStore = new CuratorConfigStore<>(bytes -> {
+            // The config has already been read from ZK: let it be cleared before we finish parsing it.
+            parsing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new StringConfiguration.Factory().parse(bytes);
+        }, ROOT_ZK_PATH, testZk.getConnectString());
+        try {
+            UUID testId = blockingStore.store(testConfig);
+            Thread fetcher = new Thread(() -> {
+                try {
+                    blockingStore.fetch(testId);
+                } catch (ConfigStoreException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            fetcher.start();
+            parsing.await();
+            blockingStore.clear(testId);
+            release.countDown();
+            fetcher.join(5000);
+
+            try {
+                blockingStore.fetch(testId);
+                fail("Expected fetch of cleared config to fail");
+            } catch (ConfigStoreException e) {
+                // expected
+            }
+        } finally {
+            blockingStore.close();
+        }
+    }
+
     @Test
     public void testClearConfig() throws Exception {
         store.clear(UUID.randomUUID());
@@ -126,4 +187,23 @@ public class CuratorConfigStoreTest {
     public void testGetEmptyTargetConfig() throws Exception {
         store.getTargetConfig();
     }
+
+    @Test
+    public void testTargetConfigIsCached() throws Exception {
+        UUID testId = store.store(testConfig);
+        store.setTargetConfig(testId);
+
+        // A second store sees the same target, and caches it on first read:
+        ConfigStore<StringConfiguration> store2 = new CuratorConfigStore<StringConfiguration>(
+                new StringConfiguration.Factory(), ROOT_ZK_PATH, testZk.getConnectString());
+        try {
+            assertEquals(testId, store2.getTargetConfig());
+            UUID testId2 = store.store(testConfig);
+            store.setTargetConfig(testId2);
+            assertEquals(testId2, store.getTargetConfig());
+            assertEquals(testId, store2.getTargetConfig());
+        } finally {
+            ((CuratorConfigStore<StringConfiguration>) store2).close();
+        }
+    }
 }
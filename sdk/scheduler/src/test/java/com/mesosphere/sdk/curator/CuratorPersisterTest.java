@@ -2,8 +2,13 @@ package com.mesosphere.sdk.curator;
 
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.ACLPathAndBytesable;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.CuratorEventType;
+import org.apache.curator.framework.api.DeleteBuilder;
 import org.apache.curator.framework.api.ExistsBuilder;
 import org.apache.curator.framework.api.PathAndBytesable;
+import org.apache.curator.framework.api.Pathable;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
@@ -13,6 +18,8 @@ import org.apache.curator.framework.api.transaction.TransactionCreateBuilder;
 import org.apache.curator.framework.api.transaction.TransactionDeleteBuilder;
 import org.apache.curator.framework.api.transaction.TransactionSetDataBuilder;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.data.ACL;
 import org.apache.zookeeper.data.Stat;
 import org.junit.*;
@@ -23,7 +30,8 @@ import java.nio.charset.Charset;
 import java.util.*;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests to validate the operation of the {@link CuratorStateStore}.
@@ -33,8 +41,8 @@ public class CuratorPersisterTest {
     @Mock private CuratorTransaction mockTransaction;
     @Mock private CuratorTransactionFinal mockTransactionFinal;
     @Mock private ExistsBuilder mockExistsBuilder;
-    @Mock private Stat mockStat;
     private CuratorPersister persister;
+    private final List<String> checkedPaths = new ArrayList<>();
 
     private static final String PATH_PARENT = "/path";
     private static final String PATH_1 = "/path/1";
@@ -62,14 +70,85 @@ public class CuratorPersisterTest {
     public void beforeEach() throws Exception {
         MockitoAnnotations.initMocks(this);
         persister = new CuratorPersister(mockClient);
+        checkedPaths.clear();
     }
 
     @Test
-    public void testSetManyAgainstEmptySucceeds() throws Exception {
+    public void testSetManyCachesExistingParents() throws Exception {
+        mockExists(PATHS);
+        when(mockClient.inTransaction()).thenReturn(new TestTransaction(TestTransaction.Result.SUCCESS));
+        persister.setMany(MANY_MAP);
+        assertTrue(checkedPaths.contains(PATH_PARENT));
+        assertTrue(checkedPaths.contains(PATH_SUB_PARENT));
+
+        // Parents are known to exist, so only the nodes themselves are checked:
+        checkedPaths.clear();
+        persister.setMany(MANY_MAP);
+        assertEquals(new HashSet<>(MANY_MAP.keySet()), new HashSet<>(checkedPaths));
+
+        // Deleting a parent via the persister forgets it and everything below it:
+        when(mockClient.delete()).thenReturn(mock(DeleteBuilder.class, RETURNS_DEEP_STUBS));
+        persister.delete(PATH_PARENT);
+        checkedPaths.clear();
+        persister.setMany(MANY_MAP);
+        assertTrue(checkedPaths.contains(PATH_PARENT));
+        assertTrue(checkedPaths.contains(PATH_SUB_PARENT));
+    }
+
+    @Test
+    public void testSetManyForgetsParentsAfterFailedTransaction() throws Exception {
+        mockExists(PATHS);
+        when(mockClient.inTransaction())
+                .thenReturn(new TestTransaction(TestTransaction.Result.SUCCESS))
+                .thenReturn(new TestTransaction(TestTransaction.Result.EXCEPTION))
+                .thenReturn(new TestTransaction(TestTransaction.Result.SUCCESS));
+        persister.setMany(MANY_MAP);
+
+        // The first attempt fails, so the retry checks the parents again:
+        checkedPaths.clear();
+        persister.setMany(MANY_MAP);
+        assertEquals(2, Collections.frequency(checkedPaths, PATH_1));
+        assertEquals(1, Collections.frequency(checkedPaths, PATH_PARENT));
+    }
+
+    @Test(expected=KeeperException.ConnectionLossException.class)
+    public void testSetManyExistenceCheckFails() throws Exception {
+        mockExists(Collections.emptyList(), Collections.singleton(PATH_2));
+        persister.setMany(MANY_MAP);
+    }
+
+    private void mockExists(Collection<String> existingPaths) throws Exception {
+        mockExists(existingPaths, Collections.emptySet());
+    }
+
+    /**
+     * Simulates background existence checks, which complete immediately. Checks of {@code failedPaths} fail with a
+     * connection loss.
+     */
+    @SuppressWarnings("unchecked")
+    private void mockExists(Collection<String> existingPaths, Collection<String> failedPaths) throws Exception {
         when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        for (String path : PATHS) {
-            when(mockExistsBuilder.forPath(path)).thenReturn(null);
-        }
+        when(mockExistsBuilder.inBackground(any(BackgroundCallback.class))).thenAnswer(invocation -> {
+            BackgroundCallback callback = (BackgroundCallback) invocation.getArguments()[0];
+            return (Pathable<Stat>) path -> {
+                checkedPaths.add(path);
+                KeeperException.Code code;
+                if (failedPaths.contains(path)) {
+                    code = KeeperException.Code.CONNECTIONLOSS;
+                } else if (existingPaths.contains(path)) {
+                    code = KeeperException.Code.OK;
+                } else {
+                    code = KeeperException.Code.NONODE;
+                }
+                callback.processResult(mockClient, new TestEvent(path, code.intValue()));
+                return null;
+            };
+        });
+    }
+
+    @Test
+    public void testSetManyAgainstEmptySucceeds() throws Exception {
+        mockExists(Collections.emptyList());
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.SUCCESS);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
@@ -102,13 +181,7 @@ public class CuratorPersisterTest {
 
     @Test
     public void testSetManyAgainstPartialOnesSucceeds() throws Exception {
-        when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        when(mockExistsBuilder.forPath(PATH_PARENT)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_1)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_2)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_SUB_PARENT)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_SUB_1)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_SUB_2)).thenReturn(mockStat);
+        mockExists(Arrays.asList(PATH_PARENT, PATH_2, PATH_SUB_PARENT, PATH_SUB_2));
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.SUCCESS);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
@@ -133,13 +206,7 @@ public class CuratorPersisterTest {
 
     @Test
     public void testSetManyAgainstPartialRootsSucceeds() throws Exception {
-        when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        when(mockExistsBuilder.forPath(PATH_PARENT)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_1)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_2)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_SUB_PARENT)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_SUB_1)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_SUB_2)).thenReturn(mockStat);
+        mockExists(Arrays.asList(PATH_SUB_PARENT, PATH_SUB_1, PATH_SUB_2));
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.SUCCESS);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
@@ -168,13 +235,7 @@ public class CuratorPersisterTest {
 
     @Test
     public void testSetManyAgainstPartialSubsSucceeds() throws Exception {
-        when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        when(mockExistsBuilder.forPath(PATH_PARENT)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_1)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_2)).thenReturn(mockStat);
-        when(mockExistsBuilder.forPath(PATH_SUB_PARENT)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_SUB_1)).thenReturn(null);
-        when(mockExistsBuilder.forPath(PATH_SUB_2)).thenReturn(null);
+        mockExists(Arrays.asList(PATH_PARENT, PATH_1, PATH_2));
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.SUCCESS);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
@@ -203,10 +264,7 @@ public class CuratorPersisterTest {
 
     @Test
     public void testSetManyAgainstFullSucceeds() throws Exception {
-        when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        for (String path : PATHS) {
-            when(mockExistsBuilder.forPath(path)).thenReturn(mockStat);
-        }
+        mockExists(PATHS);
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.SUCCESS);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
@@ -231,10 +289,7 @@ public class CuratorPersisterTest {
 
     @Test(expected=TestTransaction.TestException.class)
     public void testSetManyAgainstEmptyFails() throws Exception {
-        when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        for (String path : PATHS) {
-            when(mockExistsBuilder.forPath(path)).thenReturn(null);
-        }
+        mockExists(Collections.emptyList());
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.EXCEPTION);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
@@ -242,15 +297,76 @@ public class CuratorPersisterTest {
 
     @Test(expected=TestTransaction.TestException.class)
     public void testSetManyAgainstFullFails() throws Exception {
-        when(mockClient.checkExists()).thenReturn(mockExistsBuilder);
-        for (String path : PATHS) {
-            when(mockExistsBuilder.forPath(path)).thenReturn(mockStat);
-        }
+        mockExists(PATHS);
         TestTransaction transaction = new TestTransaction(TestTransaction.Result.EXCEPTION);
         when(mockClient.inTransaction()).thenReturn(transaction);
         persister.setMany(MANY_MAP);
     }
 
+    /**
+     * The result of a background existence check.
+     */
+    private static class TestEvent implements CuratorEvent {
+
+        private final String path;
+        private final int resultCode;
+
+        private TestEvent(String path, int resultCode) {
+            this.path = path;
+            this.resultCode = resultCode;
+        }
+
+        @Override
+        public CuratorEventType getType() {
+            return CuratorEventType.EXISTS;
+        }
+
+        @Override
+        public int getResultCode() {
+            return resultCode;
+        }
+
+        @Override
+        public String getPath() {
+            return path;
+        }
+
+        @Override
+        public Object getContext() {
+            return null;
+        }
+
+        @Override
+        public Stat getStat() {
+            return resultCode == KeeperException.Code.OK.intValue() ? new Stat() : null;
+        }
+
+        @Override
+        public byte[] getData() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        @Override
+        public List<String> getChildren() {
+            return null;
+        }
+
+        @Override
+        public List<ACL> getACLList() {
+            return null;
+        }
+
+        @Override
+        public WatchedEvent getWatchedEvent() {
+            return null;
+        }
+    }
+
     /**
      * Implements a sort of 'journal' of an operation chain to be performed within a Curator transaction.
      */
@@ -6,7 +6,9 @@ import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.SlaveID;
 import com.mesosphere.sdk.offer.CommonTaskUtils;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreEvent;
 import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.state.StoredState;
 import com.mesosphere.sdk.testing.CuratorTestUtils;
 import org.junit.*;
 
@@ -331,6 +333,103 @@ public class CuratorStateStoreTest {
         assertTrue(store.fetchStatuses().isEmpty());
     }
 
+    @Test
+    public void testStoreStatuses() throws Exception {
+        Protos.TaskInfo taskA = createTask("a");
+        Protos.TaskInfo taskB = createTask("b");
+        store.storeTasks(Arrays.asList(taskA, taskB));
+
+        Protos.TaskStatus taskStatusA = createTaskStatus(taskA.getTaskId());
+        Protos.TaskStatus taskStatusB = createTaskStatus(taskB.getTaskId());
+        store.storeStatuses(Arrays.asList(taskStatusA, taskStatusB));
+
+        assertEquals(taskStatusA, store.fetchStatus("a").get());
+        assertEquals(taskStatusB, store.fetchStatus("b").get());
+        assertEquals(2, store.fetchStatuses().size());
+
+        // overwrite existing statuses:
+        Protos.TaskStatus taskStatusA2 = taskStatusA.toBuilder().setState(Protos.TaskState.TASK_RUNNING).build();
+        store.storeStatuses(Arrays.asList(taskStatusA2));
+        assertEquals(taskStatusA2, store.fetchStatus("a").get());
+        assertEquals(taskStatusB, store.fetchStatus("b").get());
+    }
+
+    @Test
+    public void testStoreTasksAndStatuses() throws Exception {
+        Protos.TaskInfo taskA = createTask("a");
+        Protos.TaskInfo taskB = createTask("b");
+        Protos.TaskStatus taskStatusA = createTaskStatus(taskA.getTaskId());
+        Protos.TaskStatus taskStatusB = createTaskStatus(taskB.getTaskId());
+        store.storeTasksAndStatuses(Arrays.asList(taskA, taskB), Arrays.asList(taskStatusA, taskStatusB));
+
+        assertEquals(taskA, store.fetchTask("a").get());
+        assertEquals(taskB, store.fetchTask("b").get());
+        assertEquals(taskStatusA, store.fetchStatus("a").get());
+        assertEquals(taskStatusB, store.fetchStatus("b").get());
+
+        // relaunch replaces both the task and its status:
+        Protos.TaskInfo taskA2 = createTask("a");
+        Protos.TaskStatus taskStatusA2 = createTaskStatus(taskA2.getTaskId());
+        store.storeTasksAndStatuses(Arrays.asList(taskA2), Arrays.asList(taskStatusA2));
+        assertEquals(taskA2, store.fetchTask("a").get());
+        assertEquals(taskStatusA2, store.fetchStatus("a").get());
+        assertEquals(taskStatusB, store.fetchStatus("b").get());
+    }
+
+    @Test
+    public void testStoreTasksAndStatusesMismatchWritesNothing() throws Exception {
+        Protos.TaskInfo taskA = createTask("a");
+        Protos.TaskInfo taskB = createTask("b");
+        store.storeTasks(Arrays.asList(taskB));
+        try {
+            // status for a task which is already stored, but isn't among the provided tasks:
+            store.storeTasksAndStatuses(Arrays.asList(taskA),
+                    Arrays.asList(createTaskStatus(taskA.getTaskId()), createTaskStatus(taskB.getTaskId())));
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertFalse(store.fetchTask("a").isPresent());
+        assertTrue(store.fetchStatuses().isEmpty());
+    }
+
+    @Test
+    public void testStoreStatusesMismatchWritesNothing() throws Exception {
+        Protos.TaskInfo taskA = createTask("a");
+        store.storeTasks(Arrays.asList(taskA));
+
+        Protos.TaskStatus taskStatusA = createTaskStatus(taskA.getTaskId());
+        try {
+            // second status has a mismatched ID for the same task:
+            store.storeStatuses(Arrays.asList(taskStatusA, createTaskStatus(CommonTaskUtils.toTaskId("a"))));
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertFalse(store.fetchStatus("a").isPresent());
+    }
+
+    @Test
+    public void testStoreValidatedStatuses() throws Exception {
+        Protos.TaskInfo taskA = createTask("a");
+        Protos.TaskInfo taskB = createTask("b");
+        store.storeTasks(Arrays.asList(taskA, taskB));
+
+        Protos.TaskStatus taskStatusA = createTaskStatus(taskA.getTaskId());
+        store.storeValidatedStatuses(Collections.singletonMap("a", taskStatusA));
+        assertEquals(taskStatusA, store.fetchStatus("a").get());
+
+        Protos.TaskStatus taskStatusA2 = taskStatusA.toBuilder().setState(Protos.TaskState.TASK_RUNNING).build();
+        Protos.TaskStatus taskStatusB = createTaskStatus(taskB.getTaskId());
+        Map<String, Protos.TaskStatus> statuses = new HashMap<>();
+        statuses.put("a", taskStatusA2);
+        statuses.put("b", taskStatusB);
+        store.storeValidatedStatuses(statuses);
+        assertEquals(taskStatusA2, store.fetchStatus("a").get());
+        assertEquals(taskStatusB, store.fetchStatus("b").get());
+        assertEquals(2, store.fetchStatuses().size());
+    }
+
     @Test
     public void testStoreStatusSucceedsOnUUIDChangeWithTaskInfoUpdate() throws Exception {
         Protos.TaskInfo task = createTask(TASK_NAME);
@@ -488,6 +587,118 @@ public class CuratorStateStoreTest {
         store.storeProperty(GOOD_PROPERTY_KEY, null);
     }
 
+    @Test
+    public void testListenersNotifiedOfWrites() throws Exception {
+        List<StateStoreEvent> events = new ArrayList<>();
+        store.subscribe(events::add);
+
+        Protos.TaskInfo task = createTask(TASK_NAME);
+        Protos.TaskStatus status = createTaskStatus(task.getTaskId());
+        store.storeTasks(Arrays.asList(task));
+        store.storeStatus(status);
+        store.storeProperty(GOOD_PROPERTY_KEY, PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        store.clearProperty(GOOD_PROPERTY_KEY);
+        store.clearTask(TASK_NAME);
+        // Clearing data which doesn't exist isn't a change:
+        store.clearProperty(GOOD_PROPERTY_KEY);
+        store.clearTask(TASK_NAME);
+
+        assertEquals(5, events.size());
+        assertEquals(StateStoreEvent.Type.TASK_STORED, events.get(0).getType());
+        assertEquals(task, events.get(0).getTask().get());
+        assertEquals(StateStoreEvent.Type.STATUS_STORED, events.get(1).getType());
+        assertEquals(TASK_NAME, events.get(1).getName());
+        assertEquals(status, events.get(1).getStatus().get());
+        assertEquals(StateStoreEvent.Type.PROPERTY_STORED, events.get(2).getType());
+        assertEquals(GOOD_PROPERTY_KEY, events.get(2).getName());
+        assertEquals(StateStoreEvent.Type.PROPERTY_CLEARED, events.get(3).getType());
+        assertEquals(StateStoreEvent.Type.TASK_CLEARED, events.get(4).getType());
+        assertEquals(TASK_NAME, events.get(4).getName());
+    }
+
+    @Test
+    public void testListenersNotNotifiedOfFailedWrites() throws Exception {
+        List<StateStoreEvent> events = new ArrayList<>();
+        store.subscribe(events::add);
+        try {
+            store.storeStatus(TASK_STATUS); // no TaskInfo
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testFetchAllWithoutSnapshot() throws Exception {
+        storeContent();
+        assertStoredStateMatches(store.fetchAll());
+    }
+
+    @Test
+    public void testFetchAllFromSnapshotWithLaterChanges() throws Exception {
+        store.storeFrameworkId(FRAMEWORK_ID);
+        storeContent();
+        store.storeSnapshot(() -> store.fetchAll());
+
+        // Changes after the snapshot was written must be visible in the result:
+        Protos.TaskInfo updatedTask = createTask("task-a").toBuilder()
+                .setSlaveId(SlaveID.newBuilder().setValue("updated"))
+                .build();
+        Protos.TaskInfo addedTask = createTask("task-d");
+        store.storeTasks(Arrays.asList(updatedTask, addedTask));
+        store.storeStatus(createTaskStatus(addedTask.getTaskId()).toBuilder()
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build());
+        store.clearTask("task-b");
+        store.storeProperty("prop-a", "updated".getBytes(StandardCharsets.UTF_8));
+        store.storeProperty("prop-c", PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        store.clearProperty("prop-b");
+
+        StateStore newStore = new CuratorStateStore(ROOT_ZK_PATH, testZk.getConnectString());
+        try {
+            StoredState state = newStore.fetchAll();
+            assertStoredStateMatches(state);
+            assertTrue(state.getTasks().contains(updatedTask));
+            assertFalse(state.getProperties().containsKey("prop-b"));
+        } finally {
+            ((CuratorStateStore) newStore).closeForTesting();
+        }
+    }
+
+    @Test
+    public void testFetchAllIgnoresCorruptSnapshot() throws Exception {
+        storeContent();
+        store.storeSnapshot(() -> store.fetchAll());
+        CuratorPersister curator = new CuratorPersister(
+                testZk.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+        curator.set("/dcos-service-test-root-path/" + CuratorStateSnapshots.SNAPSHOT_PATH_NAME,
+                "garbage".getBytes(StandardCharsets.UTF_8));
+        assertStoredStateMatches(store.fetchAll());
+    }
+
+    private void storeContent() {
+        store.storeTasks(createTasks("task-a", "task-b", "task-c"));
+        for (Protos.TaskInfo task : store.fetchTasks()) {
+            store.storeStatus(createTaskStatus(task.getTaskId()));
+        }
+        store.storeProperty("prop-a", PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        store.storeProperty("prop-b", PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that the provided bulk-fetched state matches the result of fetching each value individually.
+     */
+    private void assertStoredStateMatches(StoredState state) {
+        assertEquals(store.fetchFrameworkId(), state.getFrameworkId());
+        assertEquals(new HashSet<>(store.fetchTasks()), new HashSet<>(state.getTasks()));
+        assertEquals(new HashSet<>(store.fetchStatuses()), new HashSet<>(state.getStatuses()));
+        assertEquals(new HashSet<>(store.fetchPropertyKeys()), state.getProperties().keySet());
+        for (Map.Entry<String, byte[]> entry : state.getProperties().entrySet()) {
+            assertArrayEquals(store.fetchProperty(entry.getKey()), entry.getValue());
+        }
+    }
+
     private static Protos.TaskStatus createTaskStatus(Protos.TaskID taskId) {
         return TASK_STATUS.toBuilder().setTaskId(taskId).build();
     }
@@ -0,0 +1,164 @@
+package com.mesosphere.sdk.curator;
+
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.SlaveID;
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.state.StateStoreEvent;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.testing.CuratorTestUtils;
+import org.awaitility.Awaitility;
+import org.junit.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.*;
+
+/**
+ * Tests to validate the operation of the {@link TreeCacheStateStore}.
+ */
+public class TreeCacheStateStoreTest {
+    private static final Protos.FrameworkID FRAMEWORK_ID =
+            Protos.FrameworkID.newBuilder().setValue("test-framework-id").build();
+    private static final String TASK_NAME = "test-task-name";
+    private static final String ROOT_ZK_PATH = "/test-root-path";
+    private static final Protos.TaskInfo TASK = Protos.TaskInfo.newBuilder()
+            .setName(TASK_NAME)
+            .setTaskId(CommonTaskUtils.toTaskId(TASK_NAME))
+            .setSlaveId(SlaveID.newBuilder().setValue("ignored")) // proto field required
+            .build();
+    private static final Protos.TaskStatus TASK_STATUS = Protos.TaskStatus.newBuilder()
+            .setTaskId(TASK.getTaskId())
+            .setState(Protos.TaskState.TASK_STAGING)
+            .build();
+    private static final String PROPERTY_KEY = "hey";
+    private static final byte[] PROPERTY_VALUE = "DC/OS".getBytes(StandardCharsets.UTF_8);
+
+    private static TestingServer testZk;
+    private CuratorStateStore otherStore;
+    private TreeCacheStateStore store;
+    private List<StateStoreEvent> events;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        testZk = new TestingServer();
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        otherStore = new CuratorStateStore(ROOT_ZK_PATH, testZk.getConnectString());
+        store = new TreeCacheStateStore(ROOT_ZK_PATH, testZk.getConnectString());
+        events = new CopyOnWriteArrayList<>();
+        store.subscribe(events::add);
+    }
+
+    @After
+    public void afterEach() {
+        store.close();
+        otherStore.closeForTesting();
+    }
+
+    @Test
+    public void testInitialContentIsLoaded() throws Exception {
+        otherStore.storeFrameworkId(FRAMEWORK_ID);
+        otherStore.storeTasksAndStatuses(Arrays.asList(TASK), Arrays.asList(TASK_STATUS));
+        otherStore.storeProperty(PROPERTY_KEY, PROPERTY_VALUE);
+
+        TreeCacheStateStore newStore = new TreeCacheStateStore(ROOT_ZK_PATH, testZk.getConnectString());
+        try {
+            assertEquals(FRAMEWORK_ID, newStore.fetchFrameworkId().get());
+            assertEquals(Arrays.asList(TASK_NAME), newStore.fetchTaskNames());
+            assertEquals(Arrays.asList(TASK), newStore.fetchTasks());
+            assertEquals(Arrays.asList(TASK_STATUS), newStore.fetchStatuses());
+            assertArrayEquals(PROPERTY_VALUE, newStore.fetchProperty(PROPERTY_KEY));
+        } finally {
+            newStore.close();
+        }
+    }
+
+    @Test
+    public void testEmptyStore() throws Exception {
+        assertFalse(store.fetchFrameworkId().isPresent());
+        assertTrue(store.fetchTaskNames().isEmpty());
+        assertTrue(store.fetchTasks().isEmpty());
+        assertTrue(store.fetchStatuses().isEmpty());
+        assertFalse(store.fetchTask(TASK_NAME).isPresent());
+        assertFalse(store.fetchStatus(TASK_NAME).isPresent());
+        assertTrue(store.fetchPropertyKeys().isEmpty());
+    }
+
+    @Test(expected = StateStoreException.class)
+    public void testFetchMissingProperty() throws Exception {
+        store.fetchProperty(PROPERTY_KEY);
+    }
+
+    @Test
+    public void testExternalChangesAreReplicated() throws Exception {
+        otherStore.storeTasks(Arrays.asList(TASK));
+        otherStore.storeStatus(TASK_STATUS);
+        otherStore.storeProperty(PROPERTY_KEY, PROPERTY_VALUE);
+        awaitEvents(3);
+        assertEquals(TASK, store.fetchTask(TASK_NAME).get());
+        assertEquals(TASK_STATUS, store.fetchStatus(TASK_NAME).get());
+        assertArrayEquals(PROPERTY_VALUE, store.fetchProperty(PROPERTY_KEY));
+
+        assertEquals(StateStoreEvent.Type.TASK_STORED, events.get(0).getType());
+        assertEquals(TASK, events.get(0).getTask().get());
+        assertEquals(StateStoreEvent.Type.STATUS_STORED, events.get(1).getType());
+        assertEquals(TASK_NAME, events.get(1).getName());
+        assertEquals(TASK_STATUS, events.get(1).getStatus().get());
+        assertEquals(StateStoreEvent.Type.PROPERTY_STORED, events.get(2).getType());
+        assertEquals(PROPERTY_KEY, events.get(2).getName());
+        assertArrayEquals(PROPERTY_VALUE, events.get(2).getPropertyValue().get());
+
+        otherStore.clearProperty(PROPERTY_KEY);
+        otherStore.clearTask(TASK_NAME);
+        awaitEvents(5);
+        assertFalse(store.fetchTask(TASK_NAME).isPresent());
+        assertTrue(store.fetchPropertyKeys().isEmpty());
+        assertEquals(StateStoreEvent.Type.PROPERTY_CLEARED, events.get(3).getType());
+        assertEquals(StateStoreEvent.Type.TASK_CLEARED, events.get(4).getType());
+        assertEquals(TASK_NAME, events.get(4).getName());
+    }
+
+    @Test
+    public void testWritesAreForwardedAndReplicated() throws Exception {
+        store.storeFrameworkId(FRAMEWORK_ID);
+        store.storeTasksAndStatuses(Arrays.asList(TASK), Arrays.asList(TASK_STATUS));
+        assertEquals(FRAMEWORK_ID, otherStore.fetchFrameworkId().get());
+        assertEquals(TASK_STATUS, otherStore.fetchStatus(TASK_NAME).get());
+
+        awaitEvents(2);
+        assertEquals(FRAMEWORK_ID, store.fetchFrameworkId().get());
+        assertEquals(TASK, store.fetchTask(TASK_NAME).get());
+        assertEquals(TASK_STATUS, store.fetchStatus(TASK_NAME).get());
+    }
+
+    @Test
+    public void testOtherNodesAreNotReplicated() throws Exception {
+        CuratorPersister curator = new CuratorPersister(
+                testZk.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+        try {
+            // e.g. configurations and state snapshots: not served by the store, so not worth holding in memory
+            curator.set("/dcos-service-test-root-path/Configurations/foo", PROPERTY_VALUE);
+            otherStore.storeProperty(PROPERTY_KEY, PROPERTY_VALUE);
+            awaitEvents(1);
+            assertEquals(StateStoreEvent.Type.PROPERTY_STORED, events.get(0).getType());
+            assertNull(store.getCachedData("/dcos-service-test-root-path/Configurations/foo"));
+            assertArrayEquals(PROPERTY_VALUE,
+                    store.getCachedData("/dcos-service-test-root-path/Properties/" + PROPERTY_KEY).getData());
+        } finally {
+            curator.close();
+        }
+    }
+
+    private void awaitEvents(int count) {
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> events.size(), equalTo(count));
+    }
+}
@@ -0,0 +1,67 @@
+package com.mesosphere.sdk.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.mesosphere.sdk.scheduler.PipelineStage;
+import com.mesosphere.sdk.scheduler.plan.DefaultPhase;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlanManager;
+import com.mesosphere.sdk.scheduler.plan.DefaultStep;
+import com.mesosphere.sdk.scheduler.plan.PlanManager;
+import com.mesosphere.sdk.scheduler.plan.Status;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MetricsTest {
+
+    @Test
+    public void testPlanGaugesTrackStepStatus() {
+        Step step0 = new DefaultStep("step-0", Optional.empty(), Status.COMPLETE, null, Collections.emptyList());
+        Step step1 = new DefaultStep("step-1", Optional.empty(), Status.PENDING, null, Collections.emptyList());
+        PlanManager planManager = new DefaultPlanManager(new DefaultPlan("metrics-test", Arrays.asList(
+                new DefaultPhase("phase", Arrays.asList(step0, step1), new SerialStrategy<>(),
+                        Collections.emptyList()))));
+
+        Metrics.registerPlanGauges(planManager);
+        assertEquals(1L, getGaugeValue("plans.metrics-test.steps.complete"));
+        assertEquals(1L, getGaugeValue("plans.metrics-test.steps.pending"));
+        assertEquals(0L, getGaugeValue("plans.metrics-test.steps.in_progress"));
+
+        step1.forceComplete();
+        assertEquals(2L, getGaugeValue("plans.metrics-test.steps.complete"));
+        assertEquals(0L, getGaugeValue("plans.metrics-test.steps.pending"));
+
+        // Registering again replaces the existing gauges rather than failing:
+        Metrics.registerPlanGauges(planManager);
+        assertEquals(2L, getGaugeValue("plans.metrics-test.steps.complete"));
+    }
+
+    @Test
+    public void testPipelineStageGaugesTrackStage() throws InterruptedException {
+        PipelineStage stage = new PipelineStage("metrics-test", 1);
+        Metrics.registerPipelineStageGauges(stage);
+        assertEquals(0L, getGaugeValue("pipeline.metrics-test.queued"));
+        assertEquals(0L, getGaugeValue("pipeline.metrics-test.completed"));
+
+        stage.put(() -> { });
+        stage.put(() -> { });
+        stage.shutdownAndAwait(1000);
+        assertFalse(stage.offer(() -> { }));
+        assertEquals(0L, getGaugeValue("pipeline.metrics-test.queued"));
+        assertEquals(2L, getGaugeValue("pipeline.metrics-test.completed"));
+        assertEquals(1L, getGaugeValue("pipeline.metrics-test.dropped"));
+        assertEquals(stage.getMaxLatency().toMillis(), getGaugeValue("pipeline.metrics-test.latency.max_ms"));
+    }
+
+    private static Object getGaugeValue(String name) {
+        Gauge<?> gauge = Metrics.getRegistry().getGauges().get(name);
+        return gauge.getValue();
+    }
+}
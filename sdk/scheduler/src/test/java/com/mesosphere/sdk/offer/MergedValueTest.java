@@ -0,0 +1,100 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value;
+import org.junit.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MergedValue}.
+ */
+public class MergedValueTest {
+
+    @Test
+    public void testScalarArithmetic() {
+        MergedValue value = MergedValue.zero(Value.Type.SCALAR);
+        assertTrue(value.isEmpty());
+
+        value.add(getScalar(2.5));
+        value.add(getScalar(1.5));
+        assertTrue(value.contains(getScalar(4.0)));
+        assertFalse(value.contains(getScalar(4.1)));
+
+        value.subtract(getScalar(4.0));
+        assertTrue(value.isEmpty());
+        assertEquals(ValueUtils.getZero(Value.Type.SCALAR), value.toValue());
+    }
+
+    @Test
+    public void testAddMergesOverlappingAndAdjacentRanges() {
+        MergedValue value = MergedValue.zero(Value.Type.RANGES);
+        value.add(getRanges(10, 20, 30, 40));
+        value.add(getRanges(21, 25, 35, 50, 5, 6));
+
+        assertEquals(getRanges(5, 6, 10, 25, 30, 50), value.toValue());
+    }
+
+    @Test
+    public void testRangesContains() {
+        MergedValue value = MergedValue.zero(Value.Type.RANGES);
+        value.add(getRanges(10, 20, 30, 40));
+
+        assertTrue(value.contains(getRanges(10, 10)));
+        assertTrue(value.contains(getRanges(12, 18, 30, 40)));
+        assertFalse(value.contains(getRanges(15, 25)));
+        assertFalse(value.contains(getRanges(20, 30)));
+        assertFalse(value.contains(getRanges(12, 18, 41, 41)));
+        assertFalse(value.contains(getScalar(1)));
+    }
+
+    @Test
+    public void testRangesSubtract() {
+        MergedValue value = MergedValue.zero(Value.Type.RANGES);
+        value.add(getRanges(10, 20, 30, 40));
+
+        value.subtract(getRanges(15, 15));
+        assertEquals(getRanges(10, 14, 16, 20, 30, 40), value.toValue());
+
+        value.subtract(getRanges(10, 14, 18, 35));
+        assertEquals(getRanges(16, 17, 36, 40), value.toValue());
+
+        value.subtract(getRanges(0, 100));
+        assertTrue(value.isEmpty());
+        assertEquals(ValueUtils.getZero(Value.Type.RANGES), value.toValue());
+    }
+
+    @Test
+    public void testAllocate() {
+        MergedValue value = MergedValue.zero(Value.Type.RANGES);
+        value.add(getRanges(10, 11));
+
+        assertEquals(11, value.allocate(OptionalLong.of(11)).getAsLong());
+        assertEquals(10, value.allocate(OptionalLong.of(11)).getAsLong());
+        assertFalse(value.allocate(OptionalLong.empty()).isPresent());
+        assertFalse(MergedValue.zero(Value.Type.SCALAR).allocate(OptionalLong.empty()).isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetIsUnsupported() {
+        MergedValue.zero(Value.Type.SET);
+    }
+
+    private static Value getScalar(double scalar) {
+        return Value.newBuilder()
+                .setType(Value.Type.SCALAR)
+                .setScalar(Value.Scalar.newBuilder().setValue(scalar))
+                .build();
+    }
+
+    private static Value getRanges(long... beginEnds) {
+        Value.Builder builder = Value.newBuilder().setType(Value.Type.RANGES);
+        for (int i = 0; i < beginEnds.length; i += 2) {
+            builder.getRangesBuilder().addRangeBuilder().setBegin(beginEnds[i]).setEnd(beginEnds[i + 1]);
+        }
+        return builder.build();
+    }
+}
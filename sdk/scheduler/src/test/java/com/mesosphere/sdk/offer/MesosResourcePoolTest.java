@@ -10,6 +10,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.OptionalLong;
 
 public class MesosResourcePoolTest {
 
@@ -125,6 +126,28 @@ public class MesosResourcePoolTest {
         Assert.assertEquals(10000, range.getEnd());
     }
 
+    @Test
+    public void testConsumePreferredDynamicPort() throws DynamicPortRequirement.DynamicPortException {
+        Resource desiredDynamicPort = DynamicPortRequirement.getDesiredDynamicPort(
+                TestConstants.PORT_NAME,
+                TestConstants.ROLE,
+                TestConstants.PRINCIPAL);
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedPorts(10000, 10005));
+        MesosResourcePool pool = new MesosResourcePool(offer);
+
+        DynamicPortRequirement preferredRequirement =
+                new DynamicPortRequirement(desiredDynamicPort, OptionalLong.of(10003));
+        Assert.assertEquals(10003, getPort(pool.consume(preferredRequirement).get()));
+
+        // Preferred port has now been taken, fall back to the lowest available port:
+        Assert.assertEquals(10000, getPort(pool.consume(preferredRequirement).get()));
+
+        Assert.assertEquals(Arrays.asList(
+                Protos.Value.Range.newBuilder().setBegin(10001).setEnd(10002).build(),
+                Protos.Value.Range.newBuilder().setBegin(10004).setEnd(10005).build()),
+                pool.getUnreservedMergedPool().get("ports").getRanges().getRangeList());
+    }
+
     @Test
     public void testConsumeNamedVIPPort() throws NamedVIPPortRequirement.NamedVIPPortException {
         Resource desiredNamedVIPPort = NamedVIPPortRequirement.getDesiredNamedVIPPort(
@@ -168,4 +191,32 @@ public class MesosResourcePoolTest {
         pool.release(new MesosResource(resource));
         Assert.assertEquals(2, pool.getUnreservedMergedPool().get("cpus").getScalar().getValue(), 0.0);
     }
+
+    @Test
+    public void testGetRemainingOffer() {
+        Resource reservedResource = ResourceTestUtils.getExpectedMountVolume(1000);
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(2.0),
+                ResourceTestUtils.getUnreservedMem(1000),
+                reservedResource));
+        MesosResourcePool pool = new MesosResourcePool(offer);
+        Assert.assertTrue(pool.consume(new ResourceRequirement(ResourceTestUtils.getDesiredCpu(1.5))).isPresent());
+        Assert.assertTrue(pool.consume(new ResourceRequirement(ResourceTestUtils.getDesiredMem(1000))).isPresent());
+
+        Offer remainingOffer = pool.getRemainingOffer();
+        Assert.assertEquals(offer.getId(), remainingOffer.getId());
+        Assert.assertEquals(offer.getSlaveId(), remainingOffer.getSlaveId());
+        // The fully consumed memory is omitted:
+        Assert.assertEquals(2, remainingOffer.getResourcesCount());
+        Assert.assertTrue(remainingOffer.getResourcesList().contains(ResourceTestUtils.getUnreservedCpu(0.5)));
+        Assert.assertTrue(remainingOffer.getResourcesList().contains(reservedResource));
+
+        MesosResourcePool remainingPool = new MesosResourcePool(remainingOffer);
+        Assert.assertFalse(remainingPool.consume(
+                new ResourceRequirement(ResourceTestUtils.getDesiredCpu(1.0))).isPresent());
+    }
+
+    private static long getPort(MesosResource mesosResource) {
+        return mesosResource.getValue().getRanges().getRange(0).getBegin();
+    }
 }
@@ -79,6 +79,28 @@ public class OfferAccepterTest {
                 anyObject());
     }
 
+    @Test
+    public void testRecordThenAcceptRecorded() {
+        Resource resource = ResourceTestUtils.getUnreservedCpu(1.0);
+        Offer offer = OfferTestUtils.getOffer(resource);
+        List<OfferRecommendation> recommendations = Arrays.asList(
+                new LaunchOfferRecommendation(offer, TaskTestUtils.getTaskInfo(resource)),
+                new LaunchOfferRecommendation(offer, TaskTestUtils.getTaskInfo(resource)));
+
+        TestOperationRecorder recorder = new TestOperationRecorder();
+        OfferAccepter accepter = new OfferAccepter(recorder);
+        Assert.assertTrue(accepter.record(recommendations));
+        Assert.assertEquals(2, recorder.getLaunches().size());
+        verifyZeroInteractions(driver);
+
+        Assert.assertEquals(Arrays.asList(offer.getId()), accepter.acceptRecorded(driver, recommendations));
+        Assert.assertEquals(2, recorder.getLaunches().size());
+        verify(driver, times(1)).acceptOffers(
+                eq(Arrays.asList(offer.getId())),
+                eq(Arrays.asList(recommendations.get(0).getOperation(), recommendations.get(1).getOperation())),
+                anyObject());
+    }
+
     public static class TestOperationRecorder implements OperationRecorder {
         private List<Operation> reserves = new ArrayList<>();
         private List<Operation> unreserves = new ArrayList<>();
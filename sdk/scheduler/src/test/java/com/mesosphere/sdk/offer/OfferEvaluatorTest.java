@@ -3,6 +3,8 @@ package com.mesosphere.sdk.offer;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.mesosphere.sdk.offer.constrain.PlacementRule;
 import com.mesosphere.sdk.offer.constrain.PlacementUtils;
+import com.mesosphere.sdk.offer.score.BinPackingScorer;
+import com.mesosphere.sdk.offer.score.SpreadScorer;
 import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
 import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.TaskTestUtils;
@@ -20,6 +22,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class OfferEvaluatorTest {
 
@@ -1028,6 +1031,84 @@ public class OfferEvaluatorTest {
         Assert.assertEquals(Operation.Type.LAUNCH, launchOperation.getType());
     }
 
+    @Test
+    public void testParallelFirstMatchSelectsFirstPassingOffer() throws InvalidRequirementException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            OfferEvaluator parallelEvaluator =
+                    new OfferEvaluator(mockStateStore, pool, Optional.empty());
+            List<Offer> offers = getCpuOffers(0.5, 4.0, 2.0, 8.0);
+            List<OfferRecommendation> recommendations = parallelEvaluator.evaluate(
+                    OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(1.0)), offers);
+            Assert.assertEquals(2, recommendations.size());
+            Assert.assertEquals(offers.get(1).getId(), recommendations.get(0).getOffer().getId());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultScorerSelectsBestOffer() throws InvalidRequirementException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<OfferEvaluator> bestFitEvaluators = Arrays.asList(
+                    new OfferEvaluator(mockStateStore, new BinPackingScorer()),
+                    new OfferEvaluator(mockStateStore, pool, Optional.of(new BinPackingScorer())));
+            List<Offer> offers = getCpuOffers(0.5, 4.0, 1.5, 8.0, 1.5);
+            for (OfferEvaluator bestFitEvaluator : bestFitEvaluators) {
+                List<OfferRecommendation> recommendations = bestFitEvaluator.evaluate(
+                        OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(1.0)), offers);
+                Assert.assertEquals(2, recommendations.size());
+                // Ties are broken by offer order:
+                Assert.assertEquals(offers.get(2).getId(), recommendations.get(0).getOffer().getId());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRequirementScorerOverridesDefaultScorer() throws InvalidRequirementException {
+        OfferEvaluator binPackingEvaluator = new OfferEvaluator(mockStateStore, new BinPackingScorer());
+        List<Offer> offers = getCpuOffers(0.5, 4.0, 1.5, 8.0);
+        OfferRequirement offerRequirement =
+                OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(1.0));
+
+        List<OfferRecommendation> recommendations = binPackingEvaluator.evaluate(offerRequirement, offers);
+        Assert.assertEquals(offers.get(2).getId(), recommendations.get(0).getOffer().getId());
+
+        recommendations = binPackingEvaluator.evaluate(
+                offerRequirement.withOfferScorer(Optional.of(new SpreadScorer())), offers);
+        Assert.assertEquals(offers.get(3).getId(), recommendations.get(0).getOffer().getId());
+    }
+
+    @Test
+    public void testInsufficientOffersAreRejectedUsingProvidedSupplies() throws InvalidRequirementException {
+        List<Offer> offers = getCpuOffers(0.5, 2.0, 4.0);
+        OfferRequirement offerRequirement =
+                OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(1.0));
+
+        // Without precomputed supplies, the first offer is too small and the second is selected:
+        List<OfferRecommendation> recommendations = evaluator.evaluate(offerRequirement, offers);
+        Assert.assertEquals(offers.get(1).getId(), recommendations.get(0).getOffer().getId());
+
+        // Supplies are taken from the provided map when present, so that they're only computed once per cycle:
+        Map<OfferID, ResourceSummary> offerSupplies = ResourceSummary.ofOffers(offers);
+        offerSupplies.put(offers.get(1).getId(), ResourceSummary.ofOffer(offers.get(0)));
+        recommendations = evaluator.evaluate(offerRequirement, offers, offerSupplies);
+        Assert.assertEquals(offers.get(2).getId(), recommendations.get(0).getOffer().getId());
+    }
+
+    private static List<Offer> getCpuOffers(double... cpus) {
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < cpus.length; ++i) {
+            offers.add(OfferTestUtils.getOffer(ResourceUtils.getUnreservedScalar("cpus", cpus[i])).toBuilder()
+                    .setId(OfferID.newBuilder().setValue("offer-" + i))
+                    .build());
+        }
+        return offers;
+    }
+
     private static OfferRequirement getOfferRequirement(
             Protos.Resource resource, List<String> avoidAgents, List<String> collocateAgents)
                     throws InvalidRequirementException {
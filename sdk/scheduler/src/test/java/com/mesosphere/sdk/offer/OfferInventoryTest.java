@@ -0,0 +1,88 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class OfferInventoryTest {
+    private static final Duration HOLD_DURATION = Duration.ofSeconds(10);
+
+    private static final Protos.Offer OFFER_A = getOffer("a");
+    private static final Protos.Offer OFFER_B = getOffer("b");
+
+    private TestOfferInventory inventory;
+
+    @Before
+    public void beforeEach() {
+        inventory = new TestOfferInventory();
+    }
+
+    @Test
+    public void testAddRetainsOrder() {
+        inventory.add(Arrays.asList(OFFER_B, OFFER_A));
+        Assert.assertEquals(Arrays.asList(OFFER_B, OFFER_A), inventory.getOffers());
+        Assert.assertEquals(2, inventory.size());
+    }
+
+    @Test
+    public void testRescind() {
+        inventory.add(Arrays.asList(OFFER_A, OFFER_B));
+        Assert.assertTrue(inventory.rescind(OFFER_A.getId()));
+        Assert.assertFalse(inventory.rescind(OFFER_A.getId()));
+        Assert.assertEquals(Arrays.asList(OFFER_B), inventory.getOffers());
+    }
+
+    @Test
+    public void testRemove() {
+        inventory.add(Arrays.asList(OFFER_A, OFFER_B));
+        inventory.remove(Arrays.asList(OFFER_A.getId(), OFFER_B.getId(), getOffer("c").getId()));
+        Assert.assertTrue(inventory.isEmpty());
+    }
+
+    @Test
+    public void testRemoveExpired() {
+        inventory.add(Arrays.asList(OFFER_A));
+        inventory.nowMs += HOLD_DURATION.toMillis() / 2;
+        inventory.add(Arrays.asList(OFFER_B));
+        Assert.assertTrue(inventory.removeExpired(inventory.getOffers()).isEmpty());
+
+        inventory.nowMs += HOLD_DURATION.toMillis() / 2;
+        Assert.assertEquals(Arrays.asList(OFFER_A), inventory.removeExpired(inventory.getOffers()));
+        Assert.assertEquals(Arrays.asList(OFFER_B), inventory.getOffers());
+    }
+
+    @Test
+    public void testRemoveExpiredOnlyConsidersEvaluatedOffers() {
+        inventory.add(Arrays.asList(OFFER_A, OFFER_B));
+        inventory.nowMs += HOLD_DURATION.toMillis();
+        Assert.assertEquals(Arrays.asList(OFFER_B), inventory.removeExpired(Arrays.asList(OFFER_B)));
+        Assert.assertEquals(Arrays.asList(OFFER_A), inventory.getOffers());
+        Assert.assertTrue(inventory.removeExpired(Collections.emptyList()).isEmpty());
+    }
+
+    private static Protos.Offer getOffer(String id) {
+        return OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(1.0)).toBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue(id))
+                .build();
+    }
+
+    private static class TestOfferInventory extends OfferInventory {
+        private long nowMs = 1000;
+
+        private TestOfferInventory() {
+            super(HOLD_DURATION);
+        }
+
+        @Override
+        protected long getCurrentTimeMs() {
+            return nowMs;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link RangeAllocator}.
+ */
+public class RangeAllocatorTest {
+
+    @Test
+    public void testAddMergesOverlappingAndAdjacentRanges() {
+        RangeAllocator allocator = RangeAllocator.of(getRanges(30, 40, 10, 20, 50, 60));
+        assertEquals(getRanges(10, 20, 30, 40, 50, 60), allocator.toRanges());
+
+        allocator.add(21, 29);
+        assertEquals(getRanges(10, 40, 50, 60), allocator.toRanges());
+
+        allocator.add(5, 55);
+        assertEquals(getRanges(5, 60), allocator.toRanges());
+
+        allocator.add(70, 70);
+        allocator.add(0, 1);
+        assertEquals(getRanges(0, 1, 5, 60, 70, 70), allocator.toRanges());
+    }
+
+    @Test
+    public void testRemove() {
+        RangeAllocator allocator = RangeAllocator.of(getRanges(10, 20, 30, 40));
+
+        allocator.remove(15, 15);
+        assertEquals(getRanges(10, 14, 16, 20, 30, 40), allocator.toRanges());
+
+        allocator.remove(12, 35);
+        assertEquals(getRanges(10, 11, 36, 40), allocator.toRanges());
+
+        allocator.remove(0, 5);
+        allocator.remove(41, 50);
+        assertEquals(getRanges(10, 11, 36, 40), allocator.toRanges());
+
+        allocator.remove(0, 100);
+        assertTrue(allocator.isEmpty());
+    }
+
+    @Test
+    public void testContains() {
+        RangeAllocator allocator = RangeAllocator.of(getRanges(10, 20, 30, 40));
+
+        assertTrue(allocator.contains(10, 10));
+        assertTrue(allocator.contains(12, 18));
+        assertTrue(allocator.contains(30, 40));
+        assertFalse(allocator.contains(9, 10));
+        assertFalse(allocator.contains(15, 25));
+        assertFalse(allocator.contains(20, 30));
+        assertFalse(allocator.contains(41, 41));
+        assertTrue(allocator.containsAll(getRanges(10, 11, 35, 36)));
+        assertFalse(allocator.containsAll(getRanges(10, 11, 41, 41)));
+    }
+
+    @Test
+    public void testAllocateLowest() {
+        RangeAllocator allocator = RangeAllocator.of(getRanges(10, 11, 20, 20));
+
+        assertEquals(10, allocator.allocate().getAsLong());
+        assertEquals(11, allocator.allocate().getAsLong());
+        assertEquals(20, allocator.allocate().getAsLong());
+        assertFalse(allocator.allocate().isPresent());
+    }
+
+    @Test
+    public void testAllocatePreferred() {
+        RangeAllocator allocator = RangeAllocator.of(getRanges(10, 20));
+
+        assertEquals(15, allocator.allocate(OptionalLong.of(15)).getAsLong());
+        assertEquals(getRanges(10, 14, 16, 20), allocator.toRanges());
+
+        // Already taken or never available: fall back to the lowest value.
+        assertEquals(10, allocator.allocate(OptionalLong.of(15)).getAsLong());
+        assertEquals(11, allocator.allocate(OptionalLong.of(100)).getAsLong());
+        assertEquals(12, allocator.allocate(OptionalLong.empty()).getAsLong());
+    }
+
+    @Test
+    public void testReleaseRestoresRanges() {
+        RangeAllocator allocator = RangeAllocator.of(getRanges(10, 20));
+        List<Long> allocated = new ArrayList<>();
+        for (long preferred = 10; preferred <= 20; preferred += 2) {
+            allocated.add(allocator.allocate(OptionalLong.of(preferred)).getAsLong());
+        }
+        assertEquals(getRanges(11, 11, 13, 13, 15, 15, 17, 17, 19, 19), allocator.toRanges());
+
+        for (long port : allocated) {
+            allocator.release(port);
+        }
+        assertEquals(getRanges(10, 20), allocator.toRanges());
+    }
+
+    @Test
+    public void testManyIntervals() {
+        RangeAllocator allocator = new RangeAllocator();
+        List<Range> expected = new ArrayList<>();
+        for (int i = 99; i >= 0; --i) {
+            allocator.add(i * 10, i * 10 + 4);
+            expected.add(0, getRange(i * 10, i * 10 + 4));
+        }
+        assertEquals(expected, allocator.toRanges());
+        assertTrue(allocator.contains(990, 994));
+        assertFalse(allocator.contains(995, 995));
+    }
+
+    @Test
+    public void testEquals() {
+        assertEquals(RangeAllocator.of(getRanges(1, 5)), RangeAllocator.of(getRanges(1, 2, 3, 5)));
+        assertEquals(
+                RangeAllocator.of(getRanges(1, 5)).hashCode(),
+                RangeAllocator.of(getRanges(1, 2, 3, 5)).hashCode());
+        assertNotEquals(RangeAllocator.of(getRanges(1, 5)), RangeAllocator.of(getRanges(1, 4)));
+    }
+
+    private static List<Range> getRanges(long... beginEnds) {
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < beginEnds.length; i += 2) {
+            ranges.add(getRange(beginEnds[i], beginEnds[i + 1]));
+        }
+        return ranges;
+    }
+
+    private static Range getRange(long begin, long end) {
+        return Range.newBuilder().setBegin(begin).setEnd(end).build();
+    }
+}
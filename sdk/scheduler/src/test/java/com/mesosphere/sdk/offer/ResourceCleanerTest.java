@@ -6,10 +6,13 @@ import org.apache.mesos.Protos.Resource;
 import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.Value;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreEvent;
+import com.mesosphere.sdk.state.StateStoreListener;
 import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.TaskTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,7 +21,10 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ResourceCleanerTest {
@@ -69,7 +75,9 @@ public class ResourceCleanerTest {
             TaskInfo.newBuilder(TaskTestUtils.getTaskInfo(Collections.emptyList()))
                     .setExecutor(TaskTestUtils.getExecutorInfo(EXPECTED_RESOURCE_1))
                     .build();
-    private static final TaskInfo TASK_INFO_2 = TaskTestUtils.getTaskInfo(EXPECTED_RESOURCE_2);
+    private static final TaskInfo TASK_INFO_2 = TaskInfo.newBuilder(TaskTestUtils.getTaskInfo(EXPECTED_RESOURCE_2))
+            .setName(TestConstants.TASK_NAME + "-2")
+            .build();
 
     private final List<ResourceCleaner> emptyCleaners = new ArrayList<>();
     private final List<ResourceCleaner> populatedCleaners = new ArrayList<>();
@@ -288,4 +296,88 @@ public class ResourceCleanerTest {
             assertEquals("Got: " + recommendations, 0, recommendations.size());
         }
     }
+
+    @Test
+    public void testRecordLaunch() {
+        List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_2);
+        for (ResourceCleaner cleaner : emptyCleaners) {
+            assertEquals(2, cleaner.evaluate(offers).size());
+
+            cleaner.record(new LaunchOfferRecommendation(offers.get(0), TASK_INFO_2).getOperation(), offers.get(0));
+            assertEquals(0, cleaner.evaluate(offers).size());
+        }
+    }
+
+    @Test
+    public void testRemoveTask() {
+        for (ResourceCleaner cleaner : populatedCleaners) {
+            cleaner.removeTask(TASK_INFO_2.getName());
+
+            List<OfferRecommendation> recommendations =
+                    cleaner.evaluate(OfferTestUtils.getOffers(Arrays.asList(EXPECTED_RESOURCE_1, EXPECTED_RESOURCE_2)));
+            assertEquals("Got: " + recommendations, 2, recommendations.size());
+            assertEquals(Operation.Type.DESTROY, recommendations.get(0).getOperation().getType());
+            assertEquals(Operation.Type.UNRESERVE, recommendations.get(1).getOperation().getType());
+            assertEquals(EXPECTED_RESOURCE_2_ID,
+                    ResourceUtils.getResourceId(recommendations.get(1).getOperation().getUnreserve().getResources(0)));
+        }
+    }
+
+    @Test
+    public void testUpdateTaskReplacesResources() {
+        for (ResourceCleaner cleaner : populatedCleaners) {
+            cleaner.updateTasks(Arrays.asList(
+                    TaskInfo.newBuilder(TASK_INFO_2).clearResources().addResources(UNEXPECTED_RESOURCE_2).build()));
+
+            List<OfferRecommendation> recommendations = cleaner.evaluate(
+                    OfferTestUtils.getOffers(Arrays.asList(EXPECTED_RESOURCE_2, UNEXPECTED_RESOURCE_2)));
+            assertEquals("Got: " + recommendations, 2, recommendations.size());
+            assertEquals(EXPECTED_RESOURCE_2_ID,
+                    ResourceUtils.getResourceId(recommendations.get(1).getOperation().getUnreserve().getResources(0)));
+        }
+    }
+
+    @Test
+    public void testSharedExecutorResourcesRemainExpected() {
+        StateStore mockStateStore = mock(StateStore.class);
+        TaskInfo sharingTaskInfo = TaskInfo.newBuilder(TASK_INFO_1).setName(TestConstants.TASK_NAME + "-shared").build();
+        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_1, sharingTaskInfo));
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_1);
+
+        cleaner.removeTask(TASK_INFO_1.getName());
+        assertEquals(0, cleaner.evaluate(offers).size());
+
+        cleaner.removeTask(sharingTaskInfo.getName());
+        assertEquals(1, cleaner.evaluate(offers).size());
+    }
+
+    @Test
+    public void testClearedTaskResourcesAreCleaned() {
+        StateStore mockStateStore = mock(StateStore.class);
+        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_1, TASK_INFO_2));
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        List<Offer> offers = OfferTestUtils.getOffers(Arrays.asList(EXPECTED_RESOURCE_1, EXPECTED_RESOURCE_2));
+        assertEquals(0, cleaner.evaluate(offers).size());
+
+        ArgumentCaptor<StateStoreListener> listener = ArgumentCaptor.forClass(StateStoreListener.class);
+        verify(mockStateStore).subscribe(listener.capture());
+        listener.getValue().onEvent(StateStoreEvent.taskCleared(TASK_INFO_2.getName()));
+
+        List<OfferRecommendation> recommendations = cleaner.evaluate(offers);
+        assertEquals("Got: " + recommendations, 2, recommendations.size());
+        assertEquals(Operation.Type.DESTROY, recommendations.get(0).getOperation().getType());
+        assertEquals(Operation.Type.UNRESERVE, recommendations.get(1).getOperation().getType());
+        assertEquals(EXPECTED_RESOURCE_2_ID,
+                ResourceUtils.getResourceId(recommendations.get(1).getOperation().getUnreserve().getResources(0)));
+    }
+
+    @Test
+    public void testStoreWithoutNotifications() {
+        StateStore mockStateStore = mock(StateStore.class);
+        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_1));
+        doThrow(new UnsupportedOperationException()).when(mockStateStore).subscribe(any());
+        ResourceCleaner cleaner = new ResourceCleaner(mockStateStore);
+        assertEquals(0, cleaner.evaluate(OfferTestUtils.getOffers(EXPECTED_RESOURCE_1)).size());
+    }
 }
@@ -0,0 +1,91 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Offer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ResourceSummary}.
+ */
+public class ResourceSummaryTest {
+
+    @Test
+    public void testOfferSupply() {
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(2.0),
+                ResourceTestUtils.getExpectedCpu(1.5),
+                ResourceTestUtils.getUnreservedMem(1024),
+                ResourceTestUtils.getUnreservedDisk(500),
+                ResourceTestUtils.getUnreservedMountVolume(1000),
+                ResourceTestUtils.getUnreservedPorts(10000, 10009),
+                ResourceTestUtils.getUnreservedPorts(20000, 20000),
+                ResourceUtils.getUnreservedScalar("gpus", 1)));
+
+        ResourceSummary supply = ResourceSummary.ofOffer(offer);
+        assertEquals(3.5, supply.getCpus(), 0.0);
+        assertEquals(1024, supply.getMem(), 0.0);
+        assertEquals(1500, supply.getDisk(), 0.0);
+        assertEquals(11, supply.getPorts());
+    }
+
+    @Test
+    public void testRequirementDemand() throws InvalidRequirementException {
+        OfferRequirement offerRequirement = OfferRequirement.create(
+                TestConstants.TASK_TYPE,
+                0,
+                Arrays.asList(TaskTestUtils.getTaskInfo(Arrays.asList(
+                        ResourceTestUtils.getDesiredCpu(1.0),
+                        ResourceTestUtils.getDesiredMem(256),
+                        DynamicPortRequirement.getDesiredDynamicPort(
+                                TestConstants.PORT_NAME, TestConstants.ROLE, TestConstants.PRINCIPAL)))),
+                Optional.of(TaskTestUtils.getExecutorInfo(ResourceTestUtils.getDesiredCpu(0.5))));
+
+        ResourceSummary demand = offerRequirement.getResourceDemand();
+        assertEquals(1.5, demand.getCpus(), 0.0);
+        assertEquals(256, demand.getMem(), 0.0);
+        assertEquals(0, demand.getDisk(), 0.0);
+        assertEquals(1, demand.getPorts());
+    }
+
+    @Test
+    public void testRunningExecutorIsNotDemanded() throws InvalidRequirementException {
+        OfferRequirement offerRequirement = OfferRequirement.create(
+                TestConstants.TASK_TYPE,
+                0,
+                Arrays.asList(TaskTestUtils.getTaskInfo(ResourceTestUtils.getDesiredCpu(1.0))),
+                Optional.of(TaskTestUtils.getExistingExecutorInfo(
+                        ResourceTestUtils.getExpectedScalar("cpus", 0.5, TestConstants.RESOURCE_ID))));
+
+        assertEquals(1.0, offerRequirement.getResourceDemand().getCpus(), 0.0);
+    }
+
+    @Test
+    public void testCovers() throws InvalidRequirementException {
+        ResourceSummary demand = OfferRequirementTestUtils.getOfferRequirement(Arrays.asList(
+                ResourceTestUtils.getDesiredCpu(0.1),
+                ResourceTestUtils.getDesiredCpu(0.2),
+                ResourceTestUtils.getDesiredRanges("ports", 8080, 8081))).getResourceDemand();
+
+        // Rounding errors in summing the demand don't cause rejection:
+        assertTrue(ResourceSummary.ofOffer(OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(0.3),
+                ResourceTestUtils.getUnreservedPorts(9000, 9001)))).covers(demand));
+        assertFalse(ResourceSummary.ofOffer(OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(0.29),
+                ResourceTestUtils.getUnreservedPorts(9000, 9001)))).covers(demand));
+        assertFalse(ResourceSummary.ofOffer(OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedPorts(9000, 9000)))).covers(demand));
+    }
+}
@@ -7,8 +7,11 @@ import com.mesosphere.sdk.testutils.TaskTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
 import org.junit.Test;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.OptionalLong;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
 public class TaskRequirementTest {
@@ -64,4 +67,19 @@ public class TaskRequirementTest {
                 .setExecutor(TaskTestUtils.getExecutorInfo(Collections.emptyList()))
                 .build());
     }
+
+    @Test
+    public void testDynamicPortPrefersEnvironmentPort() throws Exception {
+        TaskInfo.Builder taskInfoBuilder = VALID_TASKINFO.toBuilder()
+                .addResources(DynamicPortRequirement.getDesiredDynamicPort(
+                        TestConstants.PORT_NAME, TestConstants.ROLE, TestConstants.PRINCIPAL));
+        taskInfoBuilder.getCommandBuilder().getEnvironmentBuilder().addVariablesBuilder()
+                .setName(TestConstants.PORT_NAME)
+                .setValue("10003");
+
+        Collection<DynamicPortRequirement> dynamicPortRequirements =
+                new TaskRequirement(taskInfoBuilder.build()).getDynamicPortRequirements();
+        assertEquals(1, dynamicPortRequirements.size());
+        assertEquals(OptionalLong.of(10003), dynamicPortRequirements.iterator().next().getPreferredPort());
+    }
 }
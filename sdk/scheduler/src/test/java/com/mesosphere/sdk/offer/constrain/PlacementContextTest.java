@@ -0,0 +1,102 @@
+package com.mesosphere.sdk.offer.constrain;
+
+import com.mesosphere.sdk.offer.CommonTaskUtils;
+import com.mesosphere.sdk.offer.OfferRequirement;
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.mesos.Protos.Attribute;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.SlaveID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.Value;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link PlacementContext}.
+ */
+public class PlacementContextTest {
+
+    private static final Offer OFFER_1 = getOffer("host-1", "rack", "a");
+    private static final Offer OFFER_2 = getOffer("host-2", "rack", "b");
+
+    private static final TaskInfo TASK_1 = getTask("match-1__abc", OFFER_1);
+    private static final TaskInfo TASK_2 = getTask("match-2__def", OFFER_1);
+    private static final TaskInfo TASK_3 = getTask("mismatch-3__ghi", OFFER_2);
+    private static final Collection<TaskInfo> TASKS = Arrays.asList(TASK_1, TASK_2, TASK_3);
+
+    private static final OfferRequirement REQ = OfferRequirementTestUtils.getOfferRequirement();
+
+    @Test
+    public void testHostnameCounts() {
+        PlacementContext context = new PlacementContext(REQ, TASKS);
+        assertEquals(counts("host-1", 2, "host-2", 1), context.getHostnameCounts(AnyMatcher.create()));
+        assertEquals(counts("host-1", 2), context.getHostnameCounts(RegexMatcher.create("match-.*")));
+    }
+
+    @Test
+    public void testAttributeCounts() {
+        PlacementContext context = new PlacementContext(REQ, TASKS);
+        assertEquals(counts("rack:a", 2, "rack:b", 1), context.getAttributeCounts(AnyMatcher.create()));
+        assertEquals(counts("a", 2, "b", 1), context.getAttributeValueCounts("RACK", AnyMatcher.create()));
+        assertTrue(context.getAttributeValueCounts("zone", AnyMatcher.create()).isEmpty());
+    }
+
+    @Test
+    public void testTalliesAreReused() {
+        PlacementContext context = new PlacementContext(REQ, TASKS);
+        Map<String, Integer> counts = context.getHostnameCounts(AnyMatcher.create());
+        assertSame(counts, context.getHostnameCounts(AnyMatcher.create()));
+    }
+
+    @Test
+    public void testEquivalentTaskOmittedFromCounts() throws Exception {
+        OfferRequirement req = OfferRequirement.create(CommonTaskUtils.getType(TASK_1), 0, Arrays.asList(TASK_1));
+        PlacementContext context = new PlacementContext(req, TASKS);
+        assertEquals(counts("host-1", 1, "host-2", 1), context.getHostnameCounts(AnyMatcher.create()));
+
+        // The task type is still present, but the equivalent task doesn't contribute its agent:
+        Map<String, Set<SlaveID>> agentsByType = context.getTaskTypeAgents(new TaskTypeLabelConverter());
+        assertEquals(1, agentsByType.size());
+        assertEquals(Collections.singleton(TASK_1.getSlaveId()), agentsByType.values().iterator().next());
+    }
+
+    private static Map<String, Integer> counts(Object... keyVals) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < keyVals.length; i += 2) {
+            counts.put((String) keyVals[i], (Integer) keyVals[i + 1]);
+        }
+        return counts;
+    }
+
+    private static Offer getOffer(String hostname, String attributeName, String attributeValue) {
+        Attribute.Builder a = Attribute.newBuilder()
+                .setType(Value.Type.TEXT)
+                .setName(attributeName);
+        a.getTextBuilder().setValue(attributeValue);
+        return OfferTestUtils.getEmptyOfferBuilder().setHostname(hostname).addAttributes(a).build();
+    }
+
+    private static TaskInfo getTask(String id, Offer offer) {
+        TaskInfo.Builder taskBuilder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder();
+        taskBuilder.getTaskIdBuilder().setValue(id);
+        try {
+            taskBuilder.setName(CommonTaskUtils.toTaskName(taskBuilder.getTaskId()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        taskBuilder = CommonTaskUtils.setHostname(taskBuilder, offer);
+        return CommonTaskUtils.setOfferAttributes(taskBuilder, offer).build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mesosphere.sdk.offer.score;
+
+import com.mesosphere.sdk.config.SerializationUtils;
+import com.mesosphere.sdk.offer.constrain.TestPlacementUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static com.mesosphere.sdk.offer.score.TestScoringUtils.score;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SpreadScorer}.
+ */
+public class SpreadScorerTest {
+
+    private static final OfferScorer SCORER = new SpreadScorer();
+
+    @Test
+    public void testPrefersMostRemainingCopies() {
+        assertEquals(0, score(SCORER, 2.0, 2.0), 0.0001);
+        assertEquals(3, score(SCORER, 8.0, 2.0), 0.0001);
+        assertTrue(score(SCORER, 8.0, 2.0) > score(SCORER, 3.0, 2.0));
+    }
+
+    @Test
+    public void testNothingConsumed() {
+        assertEquals(0, score(SCORER, 2.0, 0.0), 0.0001);
+    }
+
+    @Test
+    public void testSerializeDeserialize() throws IOException {
+        assertEquals(SCORER, SerializationUtils.fromString(
+                SerializationUtils.toJsonString(SCORER), OfferScorer.class, TestPlacementUtils.OBJECT_MAPPER));
+    }
+}
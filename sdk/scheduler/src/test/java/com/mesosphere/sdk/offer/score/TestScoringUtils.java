@@ -0,0 +1,24 @@
+package com.mesosphere.sdk.offer.score;
+
+import com.mesosphere.sdk.offer.MesosResourcePool;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+
+/**
+ * Utilities for testing offer scorers.
+ */
+class TestScoringUtils {
+
+    private TestScoringUtils() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns the score for an offer of {@code offeredCpus}, from which {@code consumedCpus} have been consumed.
+     */
+    static double score(OfferScorer scorer, double offeredCpus, double consumedCpus) {
+        MesosResourcePool remainingPool = new MesosResourcePool(OfferTestUtils.getOffer(
+                ResourceTestUtils.getUnreservedCpu(offeredCpus - consumedCpus)));
+        return scorer.score(OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(offeredCpus)), remainingPool);
+    }
+}
@@ -288,6 +288,18 @@ public class DefaultSchedulerTest {
         Assert.assertEquals(Arrays.asList(Status.PENDING, Status.PENDING, Status.PENDING), getStepStatuses(plan));
     }
 
+    @Test
+    public void testRescindHeldOffer() throws InterruptedException {
+        Protos.Offer offer = getInsufficientOfferForTaskA(UUID.randomUUID());
+        defaultScheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(offer));
+        Assert.assertEquals(Arrays.asList(offer), defaultScheduler.offerInventory.getOffers());
+
+        defaultScheduler.offerRescinded(mockSchedulerDriver, offer.getId());
+        defaultScheduler.awaitTermination();
+        Assert.assertTrue(defaultScheduler.offerInventory.isEmpty());
+        verify(mockSchedulerDriver, times(0)).declineOffer(any(), any());
+    }
+
     @Test
     public void updatePerTaskASpecification() throws InterruptedException, IOException {
         // Launch A and B in original configuration
@@ -511,7 +523,10 @@ public class DefaultSchedulerTest {
         Protos.Offer insufficientOffer = OfferTestUtils.getOffer(neededAdditionalResource);
         defaultScheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(insufficientOffer));
         verify(mockSchedulerDriver, timeout(1000).times(1)).killTask(launchedTaskId);
-        verify(mockSchedulerDriver, timeout(1000).times(1)).declineOffer(insufficientOffer.getId());
+        // The unused offer is held while the update is in progress, then declined once the hold duration expires:
+        int declineTimeoutMs = (int) DefaultScheduler.OFFER_HOLD_DURATION.toMillis() * 2 + 1000;
+        verify(mockSchedulerDriver, timeout(declineTimeoutMs).times(1))
+                .declineOffer(eq(insufficientOffer.getId()), any());
         Assert.assertEquals(Status.PENDING, stepTaskA0.getStatus());
 
         // Sent TASK_KILLED status
@@ -551,6 +566,10 @@ public class DefaultSchedulerTest {
     @Test
     public void testSuppress() {
         install();
+        // Offers were revived on registration, and suppressed once the deployment completed. The step transitions in
+        // between didn't repeat the revive:
+        verify(mockSchedulerDriver, times(1)).reviveOffers();
+        verify(mockSchedulerDriver, times(1)).suppressOffers();
     }
 
     @Test
@@ -711,7 +730,7 @@ public class DefaultSchedulerTest {
         taskIds.add(installStep(1, 1, getSufficientOfferForTaskB()));
 
         Assert.assertEquals(Arrays.asList(Status.COMPLETE, Status.COMPLETE, Status.COMPLETE), getStepStatuses(plan));
-        Assert.assertTrue(stateStore.isSuppressed());
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).untilCall(to(stateStore).isSuppressed(), equalTo(true));
 
         return taskIds;
     }
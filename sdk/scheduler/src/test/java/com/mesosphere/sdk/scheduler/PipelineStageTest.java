@@ -0,0 +1,143 @@
+package com.mesosphere.sdk.scheduler;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PipelineStage}.
+ */
+public class PipelineStageTest {
+
+    private PipelineStage stage;
+
+    @Before
+    public void beforeEach() {
+        stage = new PipelineStage("test", 2);
+    }
+
+    @After
+    public void afterEach() throws InterruptedException {
+        stage.shutdownAndAwait(1000);
+    }
+
+    @Test
+    public void testRunsInSubmissionOrder() throws InterruptedException {
+        final List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 10; ++i) {
+            final int val = i;
+            stage.put(() -> results.add(val));
+        }
+        stage.shutdownAndAwait(1000);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), results);
+        assertEquals(10, stage.getCompletedCount());
+        assertEquals(0, stage.getDroppedCount());
+    }
+
+    @Test
+    public void testOfferDropsWhenFull() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        assertTrue(stage.offer(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        started.await();
+
+        // thread is busy: two slots in the queue, then the third is dropped
+        assertTrue(stage.offer(() -> { }));
+        assertTrue(stage.offer(() -> { }));
+        assertEquals(2, stage.getQueueDepth());
+        assertFalse(stage.offer(() -> { }));
+        assertEquals(1, stage.getDroppedCount());
+
+        release.countDown();
+        stage.shutdownAndAwait(1000);
+        assertEquals(3, stage.getCompletedCount());
+        assertEquals(0, stage.getQueueDepth());
+    }
+
+    @Test
+    public void testFailureDoesNotStopStage() throws InterruptedException {
+        final List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        stage.put(() -> {
+            throw new IllegalStateException("hello");
+        });
+        stage.put(() -> results.add(1));
+        stage.shutdownAndAwait(1000);
+        assertEquals(Arrays.asList(1), results);
+        assertEquals(2, stage.getCompletedCount());
+    }
+
+    @Test
+    public void testBlockedPutIsRejectedByShutdown() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        stage.put(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stage.put(() -> { });
+        stage.put(() -> { });
+
+        // the queue is full, so this put blocks until the stage is shut down:
+        final AtomicReference<Exception> putResult = new AtomicReference<>();
+        Thread putter = new Thread(() -> {
+            try {
+                stage.put(() -> { });
+            } catch (Exception e) {
+                putResult.set(e);
+            }
+        });
+        putter.start();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(putter::getState, equalTo(Thread.State.WAITING));
+
+        Thread shutdown = new Thread(() -> {
+            try {
+                stage.shutdownAndAwait(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        shutdown.start();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(shutdown::getState, equalTo(Thread.State.TIMED_WAITING));
+
+        release.countDown();
+        putter.join(5000);
+        shutdown.join(5000);
+        assertTrue(putResult.get() instanceof RejectedExecutionException);
+        assertEquals(3, stage.getCompletedCount());
+        assertEquals(0, stage.getQueueDepth());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testPutAfterShutdown() throws InterruptedException {
+        stage.shutdownAndAwait(1000);
+        stage.put(() -> { });
+    }
+
+    @Test
+    public void testOfferAfterShutdown() throws InterruptedException {
+        stage.shutdownAndAwait(1000);
+        assertFalse(stage.offer(() -> { }));
+    }
+}
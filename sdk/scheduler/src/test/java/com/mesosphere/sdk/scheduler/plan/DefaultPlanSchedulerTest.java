@@ -5,6 +5,10 @@ import org.apache.mesos.Protos.Offer.Operation;
 import org.apache.mesos.SchedulerDriver;
 import com.mesosphere.sdk.offer.*;
 import com.mesosphere.sdk.scheduler.TaskKiller;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
 import org.junit.Before;
 import org.junit.Test;
@@ -82,11 +86,12 @@ public class DefaultPlanSchedulerTest {
         OfferRequirement requirement = OfferRequirement.create(TestConstants.TASK_TYPE, 0, TASKINFOS);
         TestOfferStep step = new TestOfferStep(requirement);
         step.setStatus(com.mesosphere.sdk.scheduler.plan.Status.PENDING);
-        when(mockOfferEvaluator.evaluate(requirement, OFFERS)).thenReturn(new ArrayList<>());
+        when(mockOfferEvaluator.evaluate(eq(requirement), eq(OFFERS), anyOfferSupplies()))
+                .thenReturn(new ArrayList<>());
 
         assertTrue(scheduler.resourceOffers(mockSchedulerDriver, OFFERS, Arrays.asList(step)).isEmpty());
         assertTrue(step.operations.isEmpty());
-        verify(mockOfferEvaluator).evaluate(requirement, OFFERS);
+        verify(mockOfferEvaluator).evaluate(eq(requirement), eq(OFFERS), anyOfferSupplies());
         assertTrue(step.isPending());
     }
 
@@ -95,7 +100,8 @@ public class DefaultPlanSchedulerTest {
         OfferRequirement requirement = OfferRequirement.create(TestConstants.TASK_TYPE, 0, TASKINFOS);
         TestOfferStep step = new TestOfferStep(requirement);
         step.setStatus(com.mesosphere.sdk.scheduler.plan.Status.PENDING);
-        when(mockOfferEvaluator.evaluate(requirement, OFFERS)).thenReturn(RECOMMENDATIONS);
+        when(mockOfferEvaluator.evaluate(eq(requirement), eq(OFFERS), anyOfferSupplies()))
+                .thenReturn(RECOMMENDATIONS);
         when(mockOfferAccepter.accept(mockSchedulerDriver, RECOMMENDATIONS)).thenReturn(new ArrayList<>());
 
         assertTrue(scheduler.resourceOffers(mockSchedulerDriver, OFFERS, Arrays.asList(step)).isEmpty());
@@ -109,7 +115,8 @@ public class DefaultPlanSchedulerTest {
         OfferRequirement requirement = OfferRequirement.create(TestConstants.TASK_TYPE, 0, TASKINFOS);
         TestOfferStep step = new TestOfferStep(requirement);
         step.setStatus(com.mesosphere.sdk.scheduler.plan.Status.PENDING);
-        when(mockOfferEvaluator.evaluate(requirement, OFFERS)).thenReturn(RECOMMENDATIONS);
+        when(mockOfferEvaluator.evaluate(eq(requirement), eq(OFFERS), anyOfferSupplies()))
+                .thenReturn(RECOMMENDATIONS);
         when(mockOfferAccepter.accept(mockSchedulerDriver, RECOMMENDATIONS)).thenReturn(ACCEPTED_IDS);
 
         assertEquals(ACCEPTED_IDS, scheduler.resourceOffers(mockSchedulerDriver, OFFERS, Arrays.asList(step)));
@@ -117,6 +124,56 @@ public class DefaultPlanSchedulerTest {
         assertTrue(step.isInProgress());
     }
 
+    @Test
+    public void testPackOffersIntoSingleAccept() throws InvalidRequirementException {
+        OfferEvaluator offerEvaluator = new OfferEvaluator(mock(StateStore.class));
+        DefaultPlanScheduler packingScheduler =
+                new DefaultPlanScheduler(mockOfferAccepter, offerEvaluator, mockTaskKiller, true);
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(2.5));
+        List<TestOfferStep> steps = Arrays.asList(getCpuStep(1.0), getCpuStep(1.0), getCpuStep(1.0));
+        when(mockOfferAccepter.record(any())).thenReturn(true);
+        when(mockOfferAccepter.acceptRecorded(eq(mockSchedulerDriver), any())).thenReturn(Arrays.asList(offer.getId()));
+
+        assertEquals(Arrays.asList(offer.getId()),
+                packingScheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(offer), steps));
+
+        // The first two steps fit in the offer, and are accepted together:
+        verify(mockOfferAccepter, times(2)).record(any());
+        verify(mockOfferAccepter, times(1)).acceptRecorded(eq(mockSchedulerDriver), any());
+        assertEquals(2, steps.get(0).operations.size());
+        assertTrue(steps.get(0).isInProgress());
+        assertEquals(2, steps.get(1).operations.size());
+        assertTrue(steps.get(1).isInProgress());
+        assertTrue(steps.get(2).operations.isEmpty());
+        assertTrue(steps.get(2).isPending());
+    }
+
+    @Test
+    public void testPackOffersFailedRecordNotAccepted() throws InvalidRequirementException {
+        OfferEvaluator offerEvaluator = new OfferEvaluator(mock(StateStore.class));
+        DefaultPlanScheduler packingScheduler =
+                new DefaultPlanScheduler(mockOfferAccepter, offerEvaluator, mockTaskKiller, true);
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(2.5));
+        TestOfferStep step = getCpuStep(1.0);
+        when(mockOfferAccepter.record(any())).thenReturn(false);
+
+        assertTrue(packingScheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(offer), Arrays.asList(step))
+                .isEmpty());
+        verify(mockOfferAccepter, never()).acceptRecorded(any(), any());
+        assertTrue(step.isPending());
+    }
+
+    private static Map<OfferID, ResourceSummary> anyOfferSupplies() {
+        return anyMapOf(OfferID.class, ResourceSummary.class);
+    }
+
+    private static TestOfferStep getCpuStep(double cpus) throws InvalidRequirementException {
+        TestOfferStep step = new TestOfferStep(
+                OfferRequirementTestUtils.getOfferRequirement(ResourceTestUtils.getDesiredCpu(cpus)));
+        step.setStatus(com.mesosphere.sdk.scheduler.plan.Status.PENDING);
+        return step;
+    }
+
     private static class TestOfferStep extends TestStep {
         private final OfferRequirement requirement;
         private Collection<Operation> operations;
@@ -0,0 +1,169 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.apache.mesos.Protos;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DefaultPlan} and {@link DefaultPhase} status caching and task status routing.
+ */
+public class DefaultPlanTest {
+
+    private CountingStep firstStep;
+    private CountingStep secondStep;
+    private Phase firstPhase;
+    private Phase secondPhase;
+    private Plan plan;
+
+    @Before
+    public void beforeEach() {
+        firstStep = new CountingStep("first");
+        secondStep = new CountingStep("second");
+        firstPhase = new DefaultPhase(
+                "first-phase", Arrays.asList(firstStep), new SerialStrategy<>(), Collections.emptyList());
+        secondPhase = new DefaultPhase(
+                "second-phase", Arrays.asList(secondStep), new SerialStrategy<>(), Collections.emptyList());
+        plan = new DefaultPlan("plan", Arrays.asList(firstPhase, secondPhase), new SerialStrategy<>());
+    }
+
+    @Test
+    public void testStatusIsCachedUntilStepChanges() {
+        assertEquals(Status.PENDING, plan.getStatus());
+        int statusCalls = firstStep.statusCalls + secondStep.statusCalls;
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(Status.PENDING, plan.getStatus());
+            assertEquals(Status.PENDING, firstPhase.getStatus());
+        }
+        assertEquals(statusCalls, firstStep.statusCalls + secondStep.statusCalls);
+
+        firstStep.setStatus(Status.COMPLETE);
+        assertEquals(Status.COMPLETE, firstPhase.getStatus());
+        assertEquals(Status.IN_PROGRESS, plan.getStatus());
+
+        secondStep.setStatus(Status.COMPLETE);
+        assertEquals(Status.COMPLETE, plan.getStatus());
+
+        secondStep.setStatus(Status.ERROR);
+        assertEquals(Status.ERROR, secondPhase.getStatus());
+        assertEquals(Status.ERROR, plan.getStatus());
+    }
+
+    @Test
+    public void testInterruptsAreReflectedWithoutNotification() {
+        assertEquals(Status.PENDING, plan.getStatus());
+
+        secondPhase.getStrategy().interrupt();
+        assertEquals(Status.WAITING, secondPhase.getStatus());
+        assertEquals(Status.WAITING, plan.getStatus());
+
+        secondPhase.getStrategy().proceed();
+        assertEquals(Status.PENDING, plan.getStatus());
+
+        plan.getStrategy().interrupt();
+        assertEquals(Status.WAITING, plan.getStatus());
+        plan.getStrategy().proceed();
+        assertEquals(Status.PENDING, plan.getStatus());
+    }
+
+    @Test
+    public void testErrors() {
+        Phase phase = new DefaultPhase(
+                "phase", Arrays.asList(firstStep), new ParallelStrategy<>(), Arrays.asList("phase error"));
+        Plan erroredPlan = new DefaultPlan(
+                "plan", Arrays.asList(phase), new SerialStrategy<>(), Arrays.asList("plan error"));
+        assertEquals(Arrays.asList("plan error", "phase error"), erroredPlan.getErrors());
+        assertEquals(Status.ERROR, erroredPlan.getStatus());
+
+        // Callers may not modify the cached errors:
+        erroredPlan.getErrors().clear();
+        assertEquals(2, erroredPlan.getErrors().size());
+        assertTrue(erroredPlan.hasErrors());
+    }
+
+    @Test
+    public void testTaskStatusIsRoutedToLaunchingStep() {
+        RecordingStep launchingStep = new RecordingStep("launching");
+        RecordingStep otherStep = new RecordingStep("other");
+        CountingStep customStep = new CountingStep("custom");
+        Plan routedPlan = new DefaultPlan("plan", Arrays.asList(new DefaultPhase(
+                "phase", Arrays.asList(launchingStep, otherStep, customStep), new ParallelStrategy<>(),
+                Collections.emptyList())));
+
+        launchingStep.updateOfferStatus(Arrays.asList(getLaunchOperation("task-0")));
+        routedPlan.update(getStatus("task-0"));
+        assertEquals(1, launchingStep.updateCalls);
+        assertEquals(0, otherStep.updateCalls);
+        // Steps which don't maintain the index still receive every status:
+        assertEquals(1, customStep.updateCalls);
+
+        // Relaunching replaces the step's previous tasks in the index:
+        launchingStep.updateOfferStatus(Arrays.asList(getLaunchOperation("task-1")));
+        routedPlan.update(getStatus("task-0"));
+        routedPlan.update(getStatus("task-1"));
+        assertEquals(2, launchingStep.updateCalls);
+        assertEquals(0, otherStep.updateCalls);
+        assertEquals(3, customStep.updateCalls);
+    }
+
+    private static Protos.Offer.Operation getLaunchOperation(String taskId) {
+        return Protos.Offer.Operation.newBuilder()
+                .setType(Protos.Offer.Operation.Type.LAUNCH)
+                .setLaunch(Protos.Offer.Operation.Launch.newBuilder()
+                        .addTaskInfos(Protos.TaskInfo.newBuilder()
+                                .setTaskId(Protos.TaskID.newBuilder().setValue(taskId))
+                                .setName(taskId)
+                                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent"))))
+                .build();
+    }
+
+    private static Protos.TaskStatus getStatus(String taskId) {
+        return Protos.TaskStatus.newBuilder()
+                .setTaskId(Protos.TaskID.newBuilder().setValue(taskId))
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build();
+    }
+
+    private static class RecordingStep extends DefaultStep {
+        private int updateCalls = 0;
+
+        private RecordingStep(String name) {
+            super(name, Optional.empty(), Status.PENDING, null, Collections.emptyList());
+        }
+
+        @Override
+        public void update(Protos.TaskStatus status) {
+            ++updateCalls;
+            super.update(status);
+        }
+    }
+
+    private static class CountingStep extends TestStep {
+        private int statusCalls = 0;
+        private int updateCalls = 0;
+
+        private CountingStep(String name) {
+            super(name);
+        }
+
+        @Override
+        public Status getStatus() {
+            ++statusCalls;
+            return super.getStatus();
+        }
+
+        @Override
+        public void update(Protos.TaskStatus status) {
+            ++updateCalls;
+            super.update(status);
+        }
+    }
+}
@@ -94,6 +94,11 @@ public class TestStep extends DefaultObservable implements Step {
 
     @VisibleForTesting
     public void setStatus(Status status) {
+        Status oldStatus = this.status;
         this.status = status;
+        // Like other Steps, notify observers of any change so that parents update their status:
+        if (!Objects.equals(oldStatus, status)) {
+            notifyObservers();
+        }
     }
 }
@@ -533,4 +533,38 @@ public class DefaultRecoveryPlanManagerTest {
         assertTrue(recoveryManager.getPlan().getChildren().get(0).getChildren().get(0).isPending());
     }
 
+
+    @Test
+    public void testOnlyUpdatedTasksAreReevaluated() throws Exception {
+        final Protos.TaskStatus failedStatus = TaskTestUtils.generateStatus(
+                TASK_INFO.getTaskId(),
+                Protos.TaskState.TASK_FAILED);
+        final RecoveryRequirement recoveryRequirement = getRecoveryRequirement(
+                OfferRequirement.create(TestConstants.TASK_TYPE, TestConstants.TASK_INDEX, TASK_INFOS),
+                RecoveryRequirement.RecoveryType.NONE, new DefaultPodInstance(serviceSpec.getPods().get(0), 0));
+        when(recoveryRequirementProvider.getTransientRecoveryRequirements(any()))
+                .thenReturn(Arrays.asList(recoveryRequirement));
+
+        // Initial scan: nothing to recover, and the plan isn't rebuilt on later cycles.
+        recoveryManager.getCandidates(Collections.emptyList());
+        Plan plan = recoveryManager.getPlan();
+        assertEquals(0, plan.getChildren().get(0).getChildren().size());
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertSame(plan, recoveryManager.getPlan());
+
+        // A failure is only picked up once its status is passed to the plan manager.
+        stateStore.storeTasks(TASK_INFOS);
+        stateStore.storeStatus(failedStatus);
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertSame(plan, recoveryManager.getPlan());
+
+        recoveryManager.update(failedStatus);
+        recoveryManager.getCandidates(Collections.emptyList());
+        assertEquals(1, recoveryManager.getPlan().getChildren().get(0).getChildren().size());
+        assertTrue(recoveryManager.getPlan().getChildren().get(0).getChildren().get(0).isPending());
+
+        // Pods still needing recovery continue to be re-evaluated without further status updates.
+        recoveryManager.getCandidates(Collections.emptyList());
+        verify(recoveryRequirementProvider, times(2)).getTransientRecoveryRequirements(any());
+    }
 }
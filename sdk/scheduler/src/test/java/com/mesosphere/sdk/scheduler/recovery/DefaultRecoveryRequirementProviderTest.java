@@ -176,4 +176,77 @@ public class DefaultRecoveryRequirementProviderTest {
         steps = recoveryPlanManager.createSteps(Collections.emptyList());
         Assert.assertEquals(0, steps.size());
     }
+
+    @Test
+    public void testRequirementsAreCachedUntilTasksChange() throws InvalidRequirementException {
+        List<String> taskNames = POD_SPEC.getTasks().stream()
+                .map(taskSpec -> taskSpec.getName())
+                .collect(Collectors.toList());
+
+        OfferRequirement offerRequirement = offerRequirementProvider.getNewOfferRequirement(POD_INSTANCE, taskNames);
+        List<TaskInfo> taskInfos = offerRequirement.getTaskRequirements().stream()
+                .map(taskRequirement -> taskRequirement.getTaskInfo())
+                .map(taskInfo -> CommonTaskUtils.setType(taskInfo.toBuilder(), POD_SPEC.getType()).build())
+                .map(taskInfo -> CommonTaskUtils.setIndex(taskInfo.toBuilder(), POD_INSTANCE.getIndex()).build())
+                .collect(Collectors.toList());
+        stateStore.storeTasks(taskInfos);
+
+        OfferRequirement transientRequirement = recoveryRequirementProvider
+                .getTransientRecoveryRequirements(taskInfos).get(0).getOfferRequirement();
+        Assert.assertSame(
+                transientRequirement,
+                recoveryRequirementProvider.getTransientRecoveryRequirements(taskInfos).get(0).getOfferRequirement());
+
+        // Transient and permanent requirements are cached separately:
+        OfferRequirement permanentRequirement = recoveryRequirementProvider
+                .getPermanentRecoveryRequirements(taskInfos).get(0).getOfferRequirement();
+        Assert.assertNotSame(transientRequirement, permanentRequirement);
+        Assert.assertSame(
+                permanentRequirement,
+                recoveryRequirementProvider.getPermanentRecoveryRequirements(taskInfos).get(0).getOfferRequirement());
+
+        // A change to the stored tasks (e.g. after a launch attempt) results in a new requirement:
+        List<TaskInfo> relaunchedTaskInfos = taskInfos.stream()
+                .map(taskInfo -> taskInfo.toBuilder()
+                        .setTaskId(CommonTaskUtils.toTaskId(taskInfo.getName()))
+                        .build())
+                .collect(Collectors.toList());
+        stateStore.storeTasks(relaunchedTaskInfos);
+        Assert.assertNotSame(
+                transientRequirement,
+                recoveryRequirementProvider.getTransientRecoveryRequirements(relaunchedTaskInfos)
+                        .get(0).getOfferRequirement());
+    }
+
+    @Test
+    public void testRequirementsAreEvictedOncePodIsNoLongerRecovering() throws InvalidRequirementException {
+        List<String> taskNames = POD_SPEC.getTasks().stream()
+                .map(taskSpec -> taskSpec.getName())
+                .collect(Collectors.toList());
+
+        OfferRequirement offerRequirement = offerRequirementProvider.getNewOfferRequirement(POD_INSTANCE, taskNames);
+        List<TaskInfo> taskInfos = offerRequirement.getTaskRequirements().stream()
+                .map(taskRequirement -> taskRequirement.getTaskInfo())
+                .map(taskInfo -> CommonTaskUtils.setType(taskInfo.toBuilder(), POD_SPEC.getType()).build())
+                .map(taskInfo -> CommonTaskUtils.setIndex(taskInfo.toBuilder(), POD_INSTANCE.getIndex()).build())
+                .collect(Collectors.toList());
+        stateStore.storeTasks(taskInfos);
+
+        OfferRequirement transientRequirement = recoveryRequirementProvider
+                .getTransientRecoveryRequirements(taskInfos).get(0).getOfferRequirement();
+        OfferRequirement permanentRequirement = recoveryRequirementProvider
+                .getPermanentRecoveryRequirements(taskInfos).get(0).getOfferRequirement();
+
+        // The pod no longer needs transient recovery, so its transient requirement is dropped:
+        Assert.assertTrue(recoveryRequirementProvider
+                .getTransientRecoveryRequirements(Collections.emptyList()).isEmpty());
+        Assert.assertNotSame(
+                transientRequirement,
+                recoveryRequirementProvider.getTransientRecoveryRequirements(taskInfos).get(0).getOfferRequirement());
+
+        // ... while its permanent requirement is unaffected:
+        Assert.assertSame(
+                permanentRequirement,
+                recoveryRequirementProvider.getPermanentRecoveryRequirements(taskInfos).get(0).getOfferRequirement());
+    }
 }
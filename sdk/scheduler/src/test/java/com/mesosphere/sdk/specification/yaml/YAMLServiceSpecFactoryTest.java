@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.specification.yaml;
 
 import org.apache.commons.io.FileUtils;
+import com.mesosphere.sdk.offer.score.BinPackingScorer;
 import com.mesosphere.sdk.specification.DefaultServiceSpec;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -8,6 +9,7 @@ import org.junit.Test;
 import org.junit.contrib.java.lang.system.EnvironmentVariables;
 
 import java.io.File;
+import java.util.Optional;
 
 import static com.mesosphere.sdk.specification.yaml.YAMLServiceSpecFactory.generateRawSpecFromYAML;
 
@@ -24,6 +26,8 @@ public class YAMLServiceSpecFactoryTest {
                 .generateServiceSpec(generateRawSpecFromYAML(file));
         Assert.assertNotNull(serviceSpec);
         Assert.assertEquals(8080, serviceSpec.getApiPort());
+        Assert.assertEquals(Optional.of(new BinPackingScorer()), serviceSpec.getPods().get(0).getOfferScorer());
+        Assert.assertFalse(serviceSpec.getPods().get(1).getOfferScorer().isPresent());
     }
 
     @Test
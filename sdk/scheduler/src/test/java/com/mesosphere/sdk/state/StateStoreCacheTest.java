@@ -23,6 +23,7 @@ import org.mockito.MockitoAnnotations;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Tests for {@link StateStoreCache}
@@ -84,11 +86,11 @@ public class StateStoreCacheTest {
         cache = new TestStateStoreCache(store);
 
         MockitoAnnotations.initMocks(this);
-        when(mockStore.fetchFrameworkId()).thenReturn(Optional.empty());
-        when(mockStore.fetchTasks()).thenReturn(Arrays.asList(TASK));
-        when(mockStore.fetchStatuses()).thenReturn(Arrays.asList(STATUS));
-        when(mockStore.fetchPropertyKeys()).thenReturn(Arrays.asList(PROP_KEY));
-        when(mockStore.fetchProperty(PROP_KEY)).thenReturn(PROP_VAL);
+        when(mockStore.fetchAll()).thenReturn(new StoredState(
+                Optional.empty(),
+                Arrays.asList(TASK),
+                Arrays.asList(STATUS),
+                Collections.singletonMap(PROP_KEY, PROP_VAL)));
         mockedCache = new StateStoreCache(mockStore);
     }
 
@@ -107,8 +109,8 @@ public class StateStoreCacheTest {
 
     @Test(expected=StateStoreException.class)
     public void testMissingTaskInfoStartup() {
-        when(mockStore.fetchTasks()).thenReturn(Arrays.asList(TASK));
-        when(mockStore.fetchStatuses()).thenReturn(Arrays.asList(STATUS, STATUS2));
+        when(mockStore.fetchAll()).thenReturn(new StoredState(
+                Optional.empty(), Arrays.asList(TASK), Arrays.asList(STATUS, STATUS2), Collections.emptyMap()));
         mockedCache = new StateStoreCache(mockStore);
     }
 
@@ -274,6 +276,63 @@ public class StateStoreCacheTest {
         });
     }
 
+    @Test
+    public void testFetchedCollectionsAreUnaffectedByLaterWrites() {
+        cache.storeTasks(Arrays.asList(TASK));
+        cache.storeStatus(STATUS);
+        Collection<TaskInfo> tasks = cache.fetchTasks();
+        Collection<TaskStatus> statuses = cache.fetchStatuses();
+
+        cache.storeTasks(Arrays.asList(TASK2));
+        cache.storeStatus(STATUS2);
+        cache.clearTask(TASK_NAME);
+        assertEquals(Arrays.asList(TASK), new ArrayList<>(tasks));
+        assertEquals(Arrays.asList(STATUS), new ArrayList<>(statuses));
+        assertEquals(Arrays.asList(TASK2), new ArrayList<>(cache.fetchTasks()));
+        assertEquals(Arrays.asList(STATUS2), new ArrayList<>(cache.fetchStatuses()));
+    }
+
+    @Test
+    public void testListenersSeeUpdatedCache() {
+        List<StateStoreEvent> events = new ArrayList<>();
+        cache.subscribe(event -> {
+            // Listeners are notified after the change is visible in the cache:
+            if (event.getType() == StateStoreEvent.Type.TASK_STORED) {
+                assertEquals(event.getTask(), cache.fetchTask(event.getName()));
+            }
+            events.add(event);
+        });
+        cache.storeTasksAndStatuses(Arrays.asList(TASK), Arrays.asList(STATUS));
+        cache.clearTask(TASK_NAME);
+        cache.clearTask(TASK_NAME);
+
+        assertEquals(3, events.size());
+        assertEquals(StateStoreEvent.Type.TASK_STORED, events.get(0).getType());
+        assertEquals(StateStoreEvent.Type.STATUS_STORED, events.get(1).getType());
+        assertEquals(STATUS, events.get(1).getStatus().get());
+        assertEquals(StateStoreEvent.Type.TASK_CLEARED, events.get(2).getType());
+    }
+
+    @Test
+    public void testListenersNotNotifiedOfFailedWrites() {
+        List<StateStoreEvent> events = new ArrayList<>();
+        mockedCache.subscribe(events::add);
+        doThrow(new StateStoreException("hi")).when(mockStore).storeTasks(any());
+        try {
+            mockedCache.storeTasks(Arrays.asList(TASK2));
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertTrue(events.isEmpty());
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testFetchedCollectionsAreUnmodifiable() {
+        cache.storeTasks(Arrays.asList(TASK));
+        cache.fetchTasks().clear();
+    }
+
     @Test
     public void testStoreTaskInfoFailureThenSuccess() {
         doThrow(new StateStoreException("hello")).when(mockStore).storeTasks(Arrays.asList(TASK2));
@@ -408,6 +467,245 @@ public class StateStoreCacheTest {
         assertEquals(2, mockedCache.fetchStatuses().size());
     }
 
+    @Test
+    public void testTaskStatusesSingleThread() {
+        cache.consistencyCheckForTests();
+        cache.storeTasks(Arrays.asList(TASK, TASK2));
+        cache.consistencyCheckForTests();
+        assertTrue(cache.fetchStatuses().isEmpty());
+        cache.storeStatuses(Arrays.asList(STATUS, STATUS2));
+        cache.consistencyCheckForTests();
+        assertEquals(2, cache.fetchStatuses().size());
+        assertEquals(STATUS, cache.fetchStatus(TASK_NAME).get());
+        assertEquals(STATUS2, cache.fetchStatus(TASK_NAME2).get());
+
+        // last status for a given task wins:
+        TaskStatus status2b = STATUS2.toBuilder().setState(TaskState.TASK_RUNNING).build();
+        cache.storeStatuses(Arrays.asList(STATUS2, status2b));
+        cache.consistencyCheckForTests();
+        assertEquals(2, cache.fetchStatuses().size());
+        assertEquals(status2b, cache.fetchStatus(TASK_NAME2).get());
+
+        cache.clearTask(TASK_NAME);
+        cache.clearTask(TASK_NAME2);
+        cache.consistencyCheckForTests();
+        assertTrue(cache.fetchStatuses().isEmpty());
+    }
+
+    @Test
+    public void testStoreTasksAndStatuses() {
+        cache.storeTasksAndStatuses(Arrays.asList(TASK, TASK2), Arrays.asList(STATUS, STATUS2));
+        cache.consistencyCheckForTests();
+        assertEquals(2, cache.fetchTasks().size());
+        assertEquals(STATUS, cache.fetchStatus(TASK_NAME).get());
+        assertEquals(STATUS2, cache.fetchStatus(TASK_NAME2).get());
+    }
+
+    @Test
+    public void testStoreTasksAndStatusesFailureLeavesCacheUnchanged() {
+        doThrow(new StateStoreException("hi")).when(mockStore).storeTasksAndStatuses(any(), any());
+        try {
+            mockedCache.storeTasksAndStatuses(Arrays.asList(TASK2), Arrays.asList(STATUS2));
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertFalse(mockedCache.fetchTask(TASK_NAME2).isPresent());
+        assertFalse(mockedCache.fetchStatus(TASK_NAME2).isPresent());
+    }
+
+    @Test
+    public void testStoreTaskStatusesMissingTaskInfo() {
+        // STATUS is known, STATUS2 isn't: nothing should be written to the underlying store
+        try {
+            mockedCache.storeStatuses(Arrays.asList(STATUS, STATUS2));
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        verify(mockStore, never()).storeValidatedStatuses(any());
+        assertFalse(mockedCache.fetchStatus(TASK_NAME2).isPresent());
+        assertEquals(1, mockedCache.fetchStatuses().size());
+
+        doNothing().when(mockStore).storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeStatuses(Arrays.asList(STATUS, STATUS2));
+        Map<String, TaskStatus> expectedStatuses = new HashMap<>();
+        expectedStatuses.put(TASK_NAME, STATUS);
+        expectedStatuses.put(TASK_NAME2, STATUS2);
+        verify(mockStore, times(1)).storeValidatedStatuses(expectedStatuses);
+        verify(mockStore, never()).storeStatuses(any());
+        assertEquals(STATUS2, mockedCache.fetchStatus(TASK_NAME2).get());
+        assertEquals(2, mockedCache.fetchStatuses().size());
+    }
+
+    @Test
+    public void testStoreTaskStatusStaleTaskId() {
+        // replace TASK with a copy that has a new ID: statuses against the old ID must be rejected
+        final TaskInfo taskNewId = TASK.toBuilder()
+                .setTaskId(CommonTaskUtils.toTaskId(TASK_NAME))
+                .build();
+        doNothing().when(mockStore).storeTasks(Arrays.asList(taskNewId));
+        mockedCache.storeTasks(Arrays.asList(taskNewId));
+        try {
+            mockedCache.storeStatus(STATUS);
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        verify(mockStore, never()).storeValidatedStatuses(any());
+
+        TaskStatus statusNewId = STATUS.toBuilder().setTaskId(taskNewId.getTaskId()).build();
+        mockedCache.storeStatus(statusNewId);
+        assertEquals(statusNewId, mockedCache.fetchStatus(TASK_NAME).get());
+    }
+
+    @Test
+    public void testStoreStatusSkipsUnderlyingValidation() {
+        mockedCache.storeStatus(STATUS);
+        // the cache supplies the task name, so the underlying store doesn't need to look up the TaskInfo:
+        verify(mockStore, times(1)).storeValidatedStatuses(Collections.singletonMap(TASK_NAME, STATUS));
+        verify(mockStore, never()).storeStatus(any());
+        assertEquals(STATUS, mockedCache.fetchStatus(TASK_NAME).get());
+    }
+
+    @Test(expected=StateStoreException.class)
+    public void testStoreValidatedStatusesNameMismatch() {
+        doNothing().when(mockStore).storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeValidatedStatuses(Collections.singletonMap(TASK_NAME2, STATUS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStoreSnapshotWritesCachedState() {
+        List<StoredState> snapshots = new ArrayList<>();
+        doAnswer(invocation -> {
+            snapshots.add(((Supplier<StoredState>) invocation.getArguments()[0]).get());
+            return null;
+        }).when(mockStore).storeSnapshot(any());
+
+        mockedCache.storeSnapshot();
+        assertEquals(1, snapshots.size());
+        assertEquals(Arrays.asList(TASK), new ArrayList<>(snapshots.get(0).getTasks()));
+        assertEquals(Arrays.asList(STATUS), new ArrayList<>(snapshots.get(0).getStatuses()));
+        assertArrayEquals(PROP_VAL, snapshots.get(0).getProperties().get(PROP_KEY));
+
+        // Nothing has changed, so there's nothing to write:
+        mockedCache.storeSnapshot();
+        assertEquals(1, snapshots.size());
+
+        mockedCache.storeTasks(Arrays.asList(TASK2));
+        mockedCache.storeSnapshot();
+        assertEquals(2, snapshots.size());
+        assertEquals(2, snapshots.get(1).getTasks().size());
+    }
+
+    @Test
+    public void testFailedSnapshotIsRetried() {
+        doThrow(new StateStoreException("hello")).when(mockStore).storeSnapshot(any());
+        try {
+            mockedCache.storeSnapshot();
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        doNothing().when(mockStore).storeSnapshot(any());
+        mockedCache.storeSnapshot();
+        verify(mockStore, times(2)).storeSnapshot(any());
+    }
+
+    @Test
+    public void testClosedCacheDoesNotStoreSnapshot() {
+        doAnswer(invocation -> {
+            ((Supplier<?>) invocation.getArguments()[0]).get();
+            return null;
+        }).when(mockStore).storeSnapshot(any());
+        mockedCache.close();
+        try {
+            mockedCache.storeSnapshot();
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFailedButAppliedWriteStopsSnapshots() {
+        cache.storeProperty(PROP_KEY, PROP_VAL);
+        cache.storeSnapshot();
+
+        // The write reaches ZK, but the caller is told that it failed (e.g. following a lost connection):
+        StateStore failingStore = spy(store);
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new StateStoreException("hello");
+        }).when(failingStore).storeProperty(PROP_KEY, PROP_VAL2);
+        StateStoreCache failingCache = new StateStoreCache(failingStore);
+        try {
+            failingCache.storeProperty(PROP_KEY, PROP_VAL2);
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+        assertArrayEquals(PROP_VAL, failingCache.fetchProperty(PROP_KEY));
+
+        // The cache no longer matches ZK, so it mustn't replace the earlier snapshot:
+        failingCache.storeProperty(PROP_KEY2, PROP_VAL2);
+        try {
+            failingCache.storeSnapshot();
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+
+        // A failover scheduler loads the earlier snapshot, along with the writes which followed it:
+        StoredState state = fetchAllFromNewStore();
+        assertArrayEquals(PROP_VAL2, state.getProperties().get(PROP_KEY));
+        assertArrayEquals(PROP_VAL2, state.getProperties().get(PROP_KEY2));
+    }
+
+    @Test
+    public void testSuppressedIsIncludedInSnapshot() {
+        cache.setSuppressed(true);
+        cache.storeSnapshot();
+        assertArrayEquals(store.fetchProperty("suppressed"), fetchAllFromNewStore().getProperties().get("suppressed"));
+
+        cache.setSuppressed(false);
+        cache.storeSnapshot();
+        assertArrayEquals(store.fetchProperty("suppressed"), fetchAllFromNewStore().getProperties().get("suppressed"));
+        assertArrayEquals(store.fetchProperty("suppressed"), cache.fetchProperty("suppressed"));
+    }
+
+    @Test
+    public void testResetInstanceClosesCache() {
+        StateStoreCache.resetInstanceForTests();
+        StateStoreCache instance = (StateStoreCache) StateStoreCache.getInstance(mockStore);
+        StateStoreCache.resetInstanceForTests();
+        doAnswer(invocation -> {
+            ((Supplier<?>) invocation.getArguments()[0]).get();
+            return null;
+        }).when(mockStore).storeSnapshot(any());
+        try {
+            instance.storeSnapshot();
+            fail("expected exception");
+        } catch (StateStoreException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Loads the stored state as a newly elected scheduler would, i.e. from the latest snapshot plus any later writes.
+     */
+    private static StoredState fetchAllFromNewStore() {
+        CuratorStateStore newStore = new CuratorStateStore(ROOT_ZK_PATH, testZk.getConnectString());
+        try {
+            return newStore.fetchAll();
+        } finally {
+            newStore.closeForTesting();
+        }
+    }
+
     private static class TestStateStoreCache extends StateStoreCache {
 
         TestStateStoreCache(StateStore store) throws StateStoreException {
@@ -425,33 +723,48 @@ public class StateStoreCacheTest {
          * @throws IllegalStateException in the event of any consistency failure
          */
         public void consistencyCheckForTests() {
-            RLOCK.lock();
+            // Block writers so that the snapshot stays consistent with the underlying store:
+            WRITE_LOCK.lock();
+            Snapshot snapshot = this.snapshot;
             try {
                 // Phase 1: check internal consistency
 
                 // If an name=>status entry exists, a matching name=>task entry must also exist.
-                for (Map.Entry<String, TaskStatus> entry : nameToStatus.entrySet()) {
-                    if (!nameToTask.containsKey(entry.getKey())) {
+                for (Map.Entry<String, TaskStatus> entry : snapshot.nameToStatus.entrySet()) {
+                    if (!snapshot.nameToTask.containsKey(entry.getKey())) {
                         throw new IllegalStateException(String.format(
                                 "nameToTask is missing nameToStatus entry: %s", entry));
                     }
                 }
 
+                // The id=>name index must exactly match the current name=>task entries.
+                if (snapshot.idToName.size() != snapshot.nameToTask.size()) {
+                    throw new IllegalStateException(String.format(
+                            "idToName has %d entries while nameToTask has %d entries",
+                            snapshot.idToName.size(), snapshot.nameToTask.size()));
+                }
+                for (Map.Entry<String, TaskInfo> entry : snapshot.nameToTask.entrySet()) {
+                    if (!entry.getKey().equals(snapshot.idToName.get(entry.getValue().getTaskId()))) {
+                        throw new IllegalStateException(String.format(
+                                "idToName is missing nameToTask entry: %s", entry));
+                    }
+                }
+
                 // Phase 2: check consistency with StateStore
 
                 // Local framework ID should match stored framework ID
                 Optional<FrameworkID> storeFrameworkId = store.fetchFrameworkId();
-                if (!storeFrameworkId.equals(frameworkId)) {
+                if (!storeFrameworkId.equals(snapshot.frameworkId)) {
                     throw new IllegalStateException(String.format(
                             "Cache has frameworkId[%s] while storage has frameworkId[%s]",
-                            frameworkId, storeFrameworkId));
+                            snapshot.frameworkId, storeFrameworkId));
                 }
                 // Local task names should match stored task names
                 Set<String> storeNames = new HashSet<>(store.fetchTaskNames());
-                if (!storeNames.equals(nameToTask.keySet())) {
+                if (!storeNames.equals(snapshot.nameToTask.keySet())) {
                     throw new IllegalStateException(String.format(
                             "Cache has taskNames[%s] while storage has taskNames[%s]",
-                            nameToTask.keySet(), storeNames));
+                            snapshot.nameToTask.keySet(), storeNames));
                 }
                 // Local TaskInfos should match stored TaskInfos
                 Map<String, TaskInfo> storeTasks = new HashMap<>();
@@ -459,10 +772,10 @@ public class StateStoreCacheTest {
                     TaskInfo task = store.fetchTask(taskName).get();
                     storeTasks.put(task.getName(), task);
                 }
-                if (!storeTasks.equals(nameToTask)) {
+                if (!storeTasks.equals(snapshot.nameToTask)) {
                     throw new IllegalStateException(String.format(
                             "Cache has taskInfos[%s] while storage has taskInfos[%s]",
-                            nameToTask, storeTasks));
+                            snapshot.nameToTask, storeTasks));
                 }
                 // Local TaskStatuses should match stored TaskStatuses
                 Map<String, TaskStatus> storeStatuses = new HashMap<>();
@@ -472,23 +785,23 @@ public class StateStoreCacheTest {
                         storeStatuses.put(taskName, status.get());
                     }
                 }
-                if (!storeStatuses.equals(nameToStatus)) {
+                if (!storeStatuses.equals(snapshot.nameToStatus)) {
                     throw new IllegalStateException(String.format(
                             "Cache has taskStatuses[%s] while storage has taskStatuses[%s]",
-                            nameToStatus, storeStatuses));
+                            snapshot.nameToStatus, storeStatuses));
                 }
                 // Local Properties should match stored Properties
                 Map<String, byte[]> storeProperties = new HashMap<>();
                 for (String propertyKey : store.fetchPropertyKeys()) {
                     storeProperties.put(propertyKey, store.fetchProperty(propertyKey));
                 }
-                if (!storeProperties.keySet().equals(properties.keySet())) {
+                if (!storeProperties.keySet().equals(snapshot.properties.keySet())) {
                     throw new IllegalStateException(String.format(
                             "Cache has properties[%s] while storage has properties[%s]",
-                            properties, storeProperties));
+                            snapshot.properties, storeProperties));
                 }
                 // manual deep comparison for the byte arrays:
-                for (Map.Entry<String, byte[]> propEntry : properties.entrySet()) {
+                for (Map.Entry<String, byte[]> propEntry : snapshot.properties.entrySet()) {
                     byte[] storeVal = storeProperties.get(propEntry.getKey());
                     if (!Arrays.equals(propEntry.getValue(), storeVal)) {
                         throw new IllegalStateException(String.format(
@@ -503,17 +816,19 @@ public class StateStoreCacheTest {
                 stateDump.append(e.getMessage());
                 stateDump.append("\nState dump:\n");
                 stateDump.append("- frameworkId: ");
-                stateDump.append(frameworkId);
+                stateDump.append(snapshot.frameworkId);
                 stateDump.append("\n- nameToTask: ");
-                stateDump.append(nameToTask);
+                stateDump.append(snapshot.nameToTask);
                 stateDump.append("\n- nameToStatus: ");
-                stateDump.append(nameToStatus);
+                stateDump.append(snapshot.nameToStatus);
+                stateDump.append("\n- idToName: ");
+                stateDump.append(snapshot.idToName);
                 stateDump.append("\n- properties: ");
-                stateDump.append(properties);
+                stateDump.append(snapshot.properties);
                 stateDump.append('\n');
                 throw new IllegalStateException(stateDump.toString(), e);
             } finally {
-                RLOCK.unlock();
+                WRITE_LOCK.unlock();
             }
         }
     }
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 
 import org.apache.mesos.Protos;
 import com.mesosphere.sdk.testutils.TaskTestUtils;
@@ -13,6 +14,8 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -44,4 +47,29 @@ public class StateStoreUtilsTest {
         assertEquals(1, recoveryTasks.size());
         assertEquals(testTask, recoveryTasks.iterator().next());
     }
+
+    @Test
+    public void testNamedTaskLostNeedsRecovery() {
+        Protos.TaskInfo testTask = TaskTestUtils.getTaskInfo(Collections.emptyList());
+        when(mockStateStore.fetchTask(testTask.getName())).thenReturn(Optional.of(testTask));
+        when(mockStateStore.fetchTask("other")).thenReturn(Optional.empty());
+        when(mockStateStore.fetchStatus(testTask.getName())).thenReturn(Optional.of(
+                Protos.TaskStatus.newBuilder()
+                        .setTaskId(testTask.getTaskId())
+                        .setState(Protos.TaskState.TASK_RUNNING)
+                        .build()));
+        assertEquals(0, StateStoreUtils.fetchTasksNeedingRecovery(
+                mockStateStore, Arrays.asList(testTask.getName(), "other")).size());
+
+        when(mockStateStore.fetchStatus(testTask.getName())).thenReturn(Optional.of(
+                Protos.TaskStatus.newBuilder()
+                        .setTaskId(testTask.getTaskId())
+                        .setState(Protos.TaskState.TASK_LOST)
+                        .build()));
+        Collection<Protos.TaskInfo> recoveryTasks = StateStoreUtils.fetchTasksNeedingRecovery(
+                mockStateStore, Arrays.asList(testTask.getName(), "other"));
+        assertEquals(1, recoveryTasks.size());
+        assertEquals(testTask, recoveryTasks.iterator().next());
+        verify(mockStateStore, never()).fetchTasks();
+    }
 }